@@ -15,8 +15,9 @@
  */
 package math.rsvd;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
 
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
@@ -27,96 +28,155 @@ import net.jamu.matrix.MatrixD;
  * Algorithm 4.2 from Nathan Halko, Per-Gunnar Martinsson, and Joel A Tropp.
  * Finding structure with randomness: Probabilistic algorithms for constructing
  * approximate matrix decompositions. SIAM review, 53(2):217288, 2011.
+ * <p>
+ * The {@code r} probe vectors are kept in a single {@code m x r} block that is
+ * used as a ring buffer, fresh probes are generated {@code r} at a time by a
+ * single matrix product. Apart from the growing basis a step doesn't allocate.
  */
 public class AdaRangeFinder {
 
     /** The IEEE 754 machine epsilon from Cephes: (2^-53) */
     private static final double MACH_EPS_DBL = 1.11022302462515654042e-16;
-    private static final int r = 10;
+    /** Default number of probe vectors */
+    private static final int PROBES = 10;
     private static final double BOUND = 1.0 / (10.0 * Math.sqrt(2.0 / Math.PI));
 
     private final MatrixD A;
-    private final MatrixD I;
     private final int n;
+    private final int r;
+    private ComputeBackend backend = ComputeBackend.getDefault();
 
     public AdaRangeFinder(MatrixD A) {
-        this.A = Objects.requireNonNull(A);
-        this.I = Matrices.identityD(A.numRows());
-        this.n = A.numColumns();
+        this(A, PROBES);
     }
 
-    private static double norm(MatrixD y) {
-        // return y.norm2(); // normF() ?
-        return y.normF(); // norm2() ?
+    /**
+     * Creates a range finder that uses {@code r} probe vectors. The error
+     * bound the algorithm stops on holds with probability at least
+     * {@code 1 - 10^-r} (Halko et al., Section 4.3), each additional probe
+     * costs one more matrix-vector product with {@code A}.
+     *
+     * @param A
+     *            the matrix whose range is to be approximated
+     * @param r
+     *            the number of probe vectors, must be positive
+     */
+    public AdaRangeFinder(MatrixD A, int r) {
+        if (r < 1) {
+            throw new IllegalArgumentException("number of probes must be positive: " + r);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.n = A.numColumns();
+        this.r = r;
     }
 
-    private static double getMax(ArrayList<MatrixD> vectors) {
-        double max = -Double.MAX_VALUE;
-        for (int i = 0; i < vectors.size(); ++i) {
-            double norm = norm(vectors.get(i));
-            if (norm > max) {
-                max = norm;
-            }
-        }
-        return max;
+    /**
+     * Sets the backend that provides the dense kernels (the GEMM that
+     * generates the probes). The default is
+     * {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code AdaRangeFinder}
+     */
+    public AdaRangeFinder setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
     }
 
     public MatrixD computeQ() {
-
-        ArrayList<MatrixD> vectors = new ArrayList<>(r);
-        for (int k = 0; k < r; ++k) {
-            vectors.add(A.times(Matrices.randomNormalD(n, 1)));
-        }
-
-        MatrixD y = vectors.get(0);
-        double norm = norm(y);
-        if (norm <= MACH_EPS_DBL) {
+        final int m = A.numRows();
+        final int maxRank = Math.min(m, n);
+
+        MatrixD Omega = Matrices.createD(n, r);
+        // the current probes, probe i (0 <= i < r) lives in column (head + i) % r
+        MatrixD Y = backend.mult(A, fillNormal(Omega), Matrices.createD(m, r));
+        // the next fresh probes which haven't been orthogonalized yet
+        MatrixD W = Matrices.createD(m, r);
+        double[] y = Y.getArrayUnsafe();
+        double[] w = W.getArrayUnsafe();
+        double[] q = new double[m];
+        double[] Q = new double[m * Math.min(maxRank, 2 * r)];
+        int fresh = r;
+        int head = 0;
+        int k = 0;
+
+        if (norm(y, 0, m) <= MACH_EPS_DBL) {
             return null;
         }
-        double max = getMax(vectors);
-
-        MatrixD q = Matrices.sameDimD(y);
-        q = y.scale(1.0 / norm, q);
-
-        MatrixD Q = q.copy();
-
-        shift(vectors, q, Q);
 
         // we implicitly set epsilon == 1
-        while (max > BOUND) {
-
-            MatrixD x = I.minus(Q.timesTransposed());
-            y = vectors.get(0);
-            y = x.times(y);
-
-            norm = norm(y);
+        double max;
+        do {
+            int off = head * m;
+            // y = (I - Q * Q^T) * y
+            orthogonalize(Q, k, y, off, m);
+            double norm = norm(y, off, m);
             if (norm <= MACH_EPS_DBL) {
                 break;
             }
-            q = y.scale(1.0 / norm, q);
-            Q = Q.appendColumn(q);
+            for (int i = 0; i < m; ++i) {
+                q[i] = y[off + i] / norm;
+            }
+            if (Q.length < (k + 1) * m) {
+                Q = Arrays.copyOf(Q, Math.min(maxRank, 2 * (k + 1)) * m);
+            }
+            System.arraycopy(q, 0, Q, k * m, m);
+            ++k;
+
+            // Y = (I - q * q^T) * Y
+            Kernels.projectOut(q, y, m, r);
+
+            // replace the consumed probe by y = (I - Q * Q^T) * A * omega
+            if (fresh == r) {
+                backend.mult(A, fillNormal(Omega), W);
+                fresh = 0;
+            }
+            System.arraycopy(w, fresh * m, y, off, m);
+            ++fresh;
+            orthogonalize(Q, k, y, off, m);
+            head = (head + 1) % r;
+
+            max = getMax(y, m, r);
+        } while (max > BOUND && k < maxRank);
+
+        MatrixD basis = Matrices.createD(m, k);
+        System.arraycopy(Q, 0, basis.getArrayUnsafe(), 0, k * m);
+        return basis;
+    }
 
-            shift(vectors, q, Q);
+    private static double norm(double[] y, int off, int m) {
+        return Math.sqrt(Kernels.dot(y, off, y, off, m));
+    }
 
-            max = getMax(vectors);
+    private static double getMax(double[] Y, int m, int cols) {
+        double max = -Double.MAX_VALUE;
+        for (int j = 0; j < cols; ++j) {
+            double norm = norm(Y, j * m, m);
+            if (norm > max) {
+                max = norm;
+            }
         }
+        return max;
+    }
 
-        return Q;
+    /**
+     * Projects the first {@code k} columns of {@code Q} out of the column of
+     * {@code Y} that starts at {@code off} (modified Gram-Schmidt)
+     */
+    private static void orthogonalize(double[] Q, int k, double[] Y, int off, int m) {
+        for (int j = 0; j < k; ++j) {
+            int qOff = j * m;
+            Kernels.axpy(-Kernels.dot(Q, qOff, Y, off, m), Q, qOff, Y, off, m);
+        }
     }
 
-    private void shift(ArrayList<MatrixD> vectors, MatrixD q, MatrixD Q) {
-        vectors.remove(0);
-        MatrixD omega = Matrices.randomNormalD(n, 1);
-        MatrixD I_minus = I.minus(Q.timesTransposed());
-        MatrixD A_times_Omega = A.times(omega);
-        MatrixD yr = I_minus.times(A_times_Omega);
-        vectors.add(yr);
-        MatrixD qt = q.transpose();
-        for (int i = 0; i < vectors.size() - 1; ++i) {
-            MatrixD y = vectors.get(i);
-            MatrixD x = qt.times(y);
-            MatrixD z = q.times(x);
-            y.addInplace(-1.0, z);
+    private static MatrixD fillNormal(MatrixD Omega) {
+        double[] a = Omega.getArrayUnsafe();
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        for (int i = 0; i < a.length; ++i) {
+            a[i] = rnd.nextGaussian();
         }
+        return Omega;
     }
 }
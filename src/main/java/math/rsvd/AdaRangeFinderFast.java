@@ -17,6 +17,7 @@ package math.rsvd;
 
 import java.util.ArrayList;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
@@ -38,6 +39,11 @@ public class AdaRangeFinderFast {
     private final MatrixD TEMP2;
     private final MatrixD TEMP3;
     private final int n;
+    private PhaseRecorder recorder = PhaseRecorder.NOOP;
+    private ComputeBackend backend = ComputeBackend.getDefault();
+    private double errorEstimate = Double.NaN;
+    // BOUND scaled by the tolerance
+    private double bound = BOUND;
 
     public AdaRangeFinderFast(MatrixD A) {
         this.A = Objects.requireNonNull(A);
@@ -48,6 +54,51 @@ public class AdaRangeFinderFast {
         this.n = A.numColumns();
     }
 
+    /**
+     * Registers a listener that receives per-phase metrics of subsequent
+     * {@link #computeQ()} calls. Pass {@code null} to disable the
+     * instrumentation again (the default).
+     *
+     * @param listener
+     *            the listener or {@code null}
+     * @return this {@code AdaRangeFinderFast}
+     */
+    public AdaRangeFinderFast setPhaseListener(PhaseListener listener) {
+        recorder = PhaseRecorder.of(listener);
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM). The default is
+     * {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code AdaRangeFinderFast}
+     */
+    public AdaRangeFinderFast setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    /**
+     * Sets the absolute tolerance {@code epsilon} for the spectral norm error
+     * {@code ||(I - Q * Q^T) * A||_2} (default: 1.0). The basis is extended
+     * until the error is below {@code epsilon} with probability at least
+     * {@code 1 - 10^-10}.
+     *
+     * @param epsilon
+     *            the tolerance
+     * @return this {@code AdaRangeFinderFast}
+     */
+    public AdaRangeFinderFast setTolerance(double epsilon) {
+        if (!(epsilon > 0.0)) {
+            throw new IllegalArgumentException("tolerance must be positive: " + epsilon);
+        }
+        bound = epsilon * BOUND;
+        return this;
+    }
+
     private static double norm(MatrixD y) {
         return y.normF();
     }
@@ -64,18 +115,55 @@ public class AdaRangeFinderFast {
     }
 
     public MatrixD computeQ() {
+        return computeQ(false, 0L);
+    }
+
+    /**
+     * Computes the basis that is available when the given time budget expires
+     * (or the complete basis if that takes less time). The
+     * {@link #getErrorEstimate() error estimate} tells how good the returned
+     * basis is. The probes are always computed, so a budget that is too small
+     * for even that gets exceeded.
+     *
+     * @param budget
+     *            the time budget
+     * @param unit
+     *            the unit of {@code budget}
+     * @return the basis available when the budget expired
+     */
+    public MatrixD computeQ(long budget, TimeUnit unit) {
+        return computeQ(true, System.nanoTime() + unit.toNanos(budget));
+    }
+
+    /**
+     * Returns the estimated error {@code ||(I - Q * Q^T) * A||_2} of the basis
+     * {@code Q} returned from the last {@code computeQ} call. The estimate is
+     * an upper bound with probability at least {@code 1 - 10^-10} (Halko et
+     * al., Section 4.3). Returns {@code NaN} before the first call.
+     *
+     * @return the estimated spectral norm error of the last computed basis
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
 
+    private MatrixD computeQ(boolean bounded, long deadline) {
+        final int m = I.numRows();
+
+        recorder.start(Phase.SKETCH);
         ArrayList<MatrixD> vectors = new ArrayList<>(r);
         for (int k = 0; k < r; ++k) {
-            vectors.add(A.times(Matrices.randomUniformD(n, 1, -1.0, 1.0)));
+            vectors.add(backend.mult(A, Matrices.randomUniformD(n, 1, -1.0, 1.0), Matrices.createD(m, 1)));
         }
+        recorder.stop(Phase.SKETCH, 0, r * PhaseRecorder.gemm(m, n, 1), r, 0);
 
         MatrixD y = vectors.get(0);
         double norm = norm(y);
+        double max = getMax(vectors);
+        errorEstimate = max / BOUND;
         if (norm <= MACH_EPS_DBL) {
             return null;
         }
-        double max = getMax(vectors);
 
         MatrixD q = Matrices.sameDimD(y);
         q = y.scale(1.0 / norm, q);
@@ -83,44 +171,58 @@ public class AdaRangeFinderFast {
         MatrixD Q = q.copy();
 
         shift(vectors, q, Q);
+        errorEstimate = getMax(vectors) / BOUND;
 
-        // we implicitly set epsilon == 1
-        while (max > BOUND) {
+        while (max > bound && (!bounded || System.nanoTime() - deadline < 0L)) {
 
-            MatrixD QQT = Q.transBmult(Q, TEMP1);
+            recorder.start(Phase.BASIS_EXTENSION);
+            int j = Q.numColumns();
+            MatrixD QQT = backend.transBmult(Q, Q, TEMP1);
             MatrixD x = I.add(-1.0, QQT, TEMP2);
             y = vectors.get(0);
-            y = x.times(y);
+            y = backend.mult(x, y, Matrices.createD(m, 1));
 
             norm = norm(y);
             if (norm <= MACH_EPS_DBL) {
+                recorder.stop(Phase.BASIS_EXTENSION, j, extensionFlops(m, j), 0, j);
                 break;
             }
             q = y.scale(1.0 / norm, q);
             Q = Q.appendColumn(q);
+            recorder.stop(Phase.BASIS_EXTENSION, j, extensionFlops(m, j), 0, j + 1);
 
             shift(vectors, q, Q);
 
             max = getMax(vectors);
+            errorEstimate = max / BOUND;
         }
 
         return Q;
     }
 
+    private static double extensionFlops(int m, int j) {
+        // Q * Q^T, I - Q * Q^T and the product with y
+        return PhaseRecorder.gemm(m, j, m) + m * (double) m + PhaseRecorder.gemm(m, m, 1);
+    }
+
     private void shift(ArrayList<MatrixD> vectors, MatrixD q, MatrixD Q) {
+        recorder.start(Phase.PROBE_UPDATE);
         vectors.remove(0);
         MatrixD omega = Matrices.randomUniformD(n, 1, -1.0, 1.0);
-        MatrixD I_minus = I.add(-1.0, Q.transBmult(Q, TEMP1), TEMP1);
-        MatrixD A_times_Omega = A.mult(omega, TEMP3);
-        MatrixD yr = I_minus.times(A_times_Omega);
+        MatrixD I_minus = I.add(-1.0, backend.transBmult(Q, Q, TEMP1), TEMP1);
+        MatrixD A_times_Omega = backend.mult(A, omega, TEMP3);
+        MatrixD yr = backend.mult(I_minus, A_times_Omega, Matrices.createD(I.numRows(), 1));
         vectors.add(yr);
-        MatrixD qt = q.transpose();
+        double[] qa = q.getArrayUnsafe();
         for (int i = 0; i < vectors.size() - 1; ++i) {
-            MatrixD y = vectors.get(i);
-            MatrixD x = qt.times(y);
-            MatrixD z = q.mult(x, TEMP3);
-            // MatrixD z = q.scale(x.getUnsafe(0, 0), TEMP3);
-            y.addInplace(-1.0, z);
+            // y = y - q * (q^T * y)
+            Kernels.projectOut(qa, vectors.get(i).getArrayUnsafe(), q.numRows(), 1);
+        }
+        if (recorder.isEnabled()) {
+            int m = I.numRows();
+            int j = Q.numColumns();
+            double flops = PhaseRecorder.gemm(m, n, 1) + extensionFlops(m, j) + (r - 1) * 6.0 * m;
+            recorder.stop(Phase.PROBE_UPDATE, j - 1, flops, 1, j);
         }
     }
 }
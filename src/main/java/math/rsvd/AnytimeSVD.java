@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * The result of a time-budgeted computation: the best available SVD when the
+ * budget expired together with an estimate of its approximation error.
+ */
+public class AnytimeSVD {
+
+    /** The best available approximation */
+    public final SVD svd;
+    /** The Frobenius norm of {@code A - U * S * Vt} */
+    public final double errorEstimate;
+    /** The {@link #errorEstimate} relative to the Frobenius norm of {@code A} */
+    public final double relativeError;
+    /** The number of power iterations that fitted into the budget */
+    public final int iterations;
+    /** Whether all power iterations could be completed within the budget */
+    public final boolean complete;
+
+    public AnytimeSVD(SVD svd, double errorEstimate, double relativeError, int iterations, boolean complete) {
+        this.svd = svd;
+        this.errorEstimate = errorEstimate;
+        this.relativeError = relativeError;
+        this.iterations = iterations;
+        this.complete = complete;
+    }
+}
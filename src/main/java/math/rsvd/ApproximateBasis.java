@@ -15,60 +15,480 @@
  */
 package math.rsvd;
 
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
-import net.jamu.matrix.SvdD;
 
 public final class ApproximateBasis {
 
-    // Oversampling parameter
+    // Default oversampling parameter
     private static final int P = 5;
+    // B gets reduced by a QR first if its long side is at least R_SVD_RATIO
+    // times its short side
+    private static final int R_SVD_RATIO = 2;
+    // Default number of power iterations
+    private static final int ITERATIONS = 4;
 
-    private final MatrixD A;
+    // the operand as given, null once it has been consumed
+    private LinearOperator input;
+    // the operand of the current computation, a view with the planned panel
+    // height for an OffHeapMatrix
+    private LinearOperator A;
     private final int m;
     private final int n;
     private final int targetRank;
     private final boolean transpose;
+    private final Orthonormalizer orthonormalizer;
+    private PhaseListener listener;
+    private ComputeBackend backend = ComputeBackend.getDefault();
+    private PhaseRecorder recorder = PhaseRecorder.NOOP;
+    // the first columns of the next sketch and the last computed sketch in
+    // the orientation used internally
+    private MatrixD seed;
+    private MatrixD sketch;
+    // state of a time-budgeted computation
+    private boolean bounded;
+    private long deadline;
+    private long sketchNanos;
+    private int sampledColumns;
+    // GEMM rate measured by the last sampled sketch of this instance, NaN
+    // until a sketch has been timed
+    private double nanosPerFlop = Double.NaN;
+    private int iterations;
+    private int oversampling = P;
+    private int defaultIterations = ITERATIONS;
+    // number of power iterations of the current computation
+    private int powerIterations = ITERATIONS;
+    private long memoryBudget = ExecutionPlan.UNLIMITED;
+    // number of columns of the sketch of the current computation
+    private int sketchWidth;
+    private boolean consumeInput;
+    // the m x l product buffer of the power iteration of a tall A that gets
+    // reused for the projection when the input is consumed
+    private MatrixD spare;
 
     public ApproximateBasis(MatrixD A, int estimatedRank) {
+        this(A, estimatedRank, Orthonormalization.HOUSEHOLDER);
+    }
+
+    public ApproximateBasis(MatrixD A, int estimatedRank, Orthonormalizer orthonormalizer) {
+        this(LinearOperator.of(A), estimatedRank, orthonormalizer);
+    }
+
+    /**
+     * Creates an {@code ApproximateBasis} for a matrix that is only accessible
+     * through products, e.g. an {@link OffHeapMatrix}.
+     *
+     * @param A
+     *            the matrix to decompose
+     * @param estimatedRank
+     *            the target rank
+     * @param orthonormalizer
+     *            the orthonormalization to use
+     */
+    public ApproximateBasis(LinearOperator A, int estimatedRank, Orthonormalizer orthonormalizer) {
         if (estimatedRank < 0) {
             throw new IllegalArgumentException("estimatedRank: " + estimatedRank);
         }
         m = A.numRows();
         n = A.numColumns();
         transpose = (m < n) ? true : false;
-        this.A = A;
+        this.input = A;
         targetRank = Math.min(estimatedRank, Math.min(m, n));
+        this.orthonormalizer = Objects.requireNonNull(orthonormalizer);
+    }
+
+    /**
+     * Registers a listener that receives per-phase metrics of subsequent
+     * {@link #computeSVD()} calls. Pass {@code null} to disable the
+     * instrumentation again (the default).
+     *
+     * @param listener
+     *            the listener or {@code null}
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setPhaseListener(PhaseListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM, Householder QR,
+     * LU and the small SVD). The default is
+     * {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    /**
+     * Sets the oversampling parameter (default: 5). The sketch is never wider
+     * than {@code min(m, n)} columns.
+     *
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setOversampling(int oversampling) {
+        if (oversampling < 0) {
+            throw new IllegalArgumentException("negative oversampling: " + oversampling);
+        }
+        this.oversampling = oversampling;
+        return this;
+    }
+
+    /**
+     * Sets the number of power iterations of a cold start (default: 4).
+     *
+     * @param iterations
+     *            the number of power iterations
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setPowerIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("negative iterations: " + iterations);
+        }
+        defaultIterations = iterations;
+        powerIterations = iterations;
+        return this;
+    }
+
+    /**
+     * Limits the heap memory used for the workspace (the memory occupied by
+     * {@code A} itself isn't counted). Subsequent computations follow the
+     * {@link #getPlan() plan} for that budget, e.g., with less oversampling
+     * or smaller panels for an {@link OffHeapMatrix}, and log it.
+     *
+     * @param bytes
+     *            the memory budget in bytes, {@link ExecutionPlan#UNLIMITED}
+     *            for no limit (the default)
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setMemoryBudget(long bytes) {
+        if (bytes < 1L) {
+            throw new IllegalArgumentException("memory budget must be positive: " + bytes);
+        }
+        memoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Allows the next computation to consume {@code A}, which is meant for
+     * one-shot decompositions of a matrix that isn't needed afterwards.
+     * <p>
+     * <b>{@code A} must not be used after the computation anymore, its
+     * contents are unspecified.</b> The computation may overwrite it and
+     * releases its reference to {@code A} as soon as the projection onto the
+     * basis, the last pass over {@code A}, is done. If the caller doesn't
+     * retain {@code A} either its storage can be reclaimed while the small
+     * SVD and the recombination run, so the peak memory of those phases
+     * doesn't include {@code A}. The projection of a tall {@code A} is
+     * written to a workspace buffer of the power iteration instead of a new
+     * allocation and the sketch isn't retained.
+     * <p>
+     * Any further computation with this {@code ApproximateBasis} throws an
+     * {@code IllegalStateException}.
+     *
+     * @param consume
+     *            whether {@code A} may be consumed, {@code false} is the
+     *            default
+     * @return this {@code ApproximateBasis}
+     */
+    public ApproximateBasis setConsumeInput(boolean consume) {
+        consumeInput = consume;
+        return this;
+    }
+
+    /**
+     * Returns the execution plan the next computation will follow.
+     *
+     * @return the plan for the current memory budget
+     * @throws IllegalArgumentException
+     *             if the memory budget is too small
+     * @throws IllegalStateException
+     *             if {@code A} has been consumed
+     */
+    public ExecutionPlan getPlan() {
+        checkNotConsumed();
+        return ExecutionPlan.forApproximateBasis(input, targetRank, oversampling, memoryBudget);
     }
 
     public SVD computeSVD() {
+        return computeSVD(PhaseRecorder.of(listener));
+    }
+
+    /**
+     * Runs {@link #computeSVD()} on the given executor.
+     *
+     * @param executor
+     *            the executor that runs the computation
+     * @return a future for the result of the computation
+     * @see #computeSVDAsync(Executor, ProgressListener, long, TimeUnit)
+     */
+    public CompletableFuture<SVD> computeSVDAsync(Executor executor) {
+        return computeSVDAsync(executor, null);
+    }
+
+    /**
+     * Runs {@link #computeSVD()} on the given executor and reports the
+     * progress after each phase.
+     *
+     * @param executor
+     *            the executor that runs the computation
+     * @param progress
+     *            the progress listener or {@code null}
+     * @return a future for the result of the computation
+     * @see #computeSVDAsync(Executor, ProgressListener, long, TimeUnit)
+     */
+    public CompletableFuture<SVD> computeSVDAsync(Executor executor, ProgressListener progress) {
+        return AsyncTask.submit(executor, listener, progress, passes(), 0L, null, this::computeSVD);
+    }
+
+    /**
+     * Runs {@link #computeSVD()} on the given executor. Cancelling the
+     * returned future abandons the computation at the start of the next phase,
+     * i.e., at the latest after the pass over {@code A} that is currently
+     * running. Likewise, the future completes exceptionally with a
+     * {@link java.util.concurrent.TimeoutException} as soon as the deadline
+     * has passed, even in the middle of a pass, and the computation is
+     * abandoned at the start of its next phase. Any {@code Executor} can be
+     * used, including one that starts a virtual thread per task.
+     * <p>
+     * This {@code ApproximateBasis} must not be used concurrently for other
+     * computations until the computation has stopped. After a cancellation or
+     * a timeout, that can be up to one pass over {@code A} later than the
+     * completion of the future.
+     *
+     * @param executor
+     *            the executor that runs the computation
+     * @param progress
+     *            the progress listener or {@code null}
+     * @param timeout
+     *            the time from now after which the computation gets abandoned
+     * @param unit
+     *            the unit of {@code timeout}
+     * @return a future for the result of the computation
+     */
+    public CompletableFuture<SVD> computeSVDAsync(Executor executor, ProgressListener progress, long timeout,
+            TimeUnit unit) {
+        return AsyncTask.submit(executor, listener, progress, passes(), timeout, Objects.requireNonNull(unit),
+                this::computeSVD);
+    }
+
+    /**
+     * Computes the best approximation that is available within the given time
+     * budget. The power iterations stop early when there isn't enough time
+     * left for another iteration followed by the final orthonormalization,
+     * projection and small SVD. The initial sketch is always computed, so a
+     * budget that is too small for even that gets exceeded.
+     * <p>
+     * The returned error is {@code sqrt(||A||_F^2 - sum(sigma_i^2))}, which
+     * equals {@code ||A - U * S * Vt||_F} in exact arithmetic since {@code U}
+     * and {@code V} have orthonormal columns and {@code U * S * Vt} is the
+     * projection of {@code A} onto {@code U}. The subtraction cancels, so
+     * relative errors below about {@code 1e-8} (the square root of the
+     * machine epsilon) are dominated by rounding. The norm of {@code A} costs
+     * one additional pass over {@code A} which counts against the budget.
+     *
+     * @param budget
+     *            the time budget
+     * @param unit
+     *            the unit of {@code budget}
+     * @return the approximation and its estimated error
+     */
+    public AnytimeSVD computeSVD(long budget, TimeUnit unit) {
+        checkNotConsumed();
+        deadline = System.nanoTime() + unit.toNanos(budget);
+        // A may get consumed by the computation
+        double normA = input.normF();
+        bounded = true;
+        SVD svd = null;
+        try {
+            svd = computeSVD();
+        } finally {
+            bounded = false;
+        }
+        double error = normA * normA;
+        for (int i = 0; i < svd.S.numRows() && i < svd.S.numColumns(); ++i) {
+            double sigma = svd.S.getUnsafe(i, i);
+            error -= sigma * sigma;
+        }
+        error = Math.sqrt(Math.max(0.0, error));
+        double relativeError = (normA > 0.0) ? error / normA : 0.0;
+        return new AnytimeSVD(svd, error, relativeError, iterations, iterations == powerIterations);
+    }
+
+    /**
+     * Uses the columns of {@code Y} as the first columns of the sketch of the
+     * next computation, only the missing columns get sampled. {@code Y} must be a sketch from a
+     * previous {@link #getSketch()} call for the same matrix.
+     */
+    ApproximateBasis setSketch(MatrixD Y) {
+        seed = Y;
+        return this;
+    }
+
+    /**
+     * Returns the sketch of the last computation in the orientation used
+     * internally ({@code A * Omega} for tall, {@code (Omega * A)^T} for wide
+     * matrices) or {@code null} before the first computation and after a
+     * computation that consumed {@code A}.
+     */
+    MatrixD getSketch() {
+        return sketch;
+    }
+
+    /**
+     * Warm start for a matrix that has changed only slightly since
+     * {@code previous} was computed. The singular vectors of {@code previous}
+     * (padded with random columns if its rank is smaller than the target rank)
+     * replace the random sketch, so usually one or two power iterations
+     * suffice instead of the (by default) four that are used for a cold
+     * start.
+     *
+     * @param previous
+     *            a previous decomposition of a matrix of the same shape
+     * @param iterations
+     *            the number of power iterations to apply to the warm start
+     * @return the decomposition of {@code A}
+     */
+    public SVD computeSVD(SVD previous, int iterations) {
+        if (previous.U.numRows() != m || previous.Vt.numColumns() != n) {
+            throw new IllegalArgumentException("previous SVD is for a " + previous.U.numRows() + " x "
+                    + previous.Vt.numColumns() + " matrix, but A is " + m + " x " + n);
+        }
+        if (iterations < 0) {
+            throw new IllegalArgumentException("negative iterations: " + iterations);
+        }
+        // the sketch approximates the range of A (tall) or of A^T (wide)
+        seed = transpose ? previous.Vt.transpose() : previous.U;
+        powerIterations = iterations;
+        try {
+            return computeSVD();
+        } finally {
+            powerIterations = defaultIterations;
+        }
+    }
+
+    // sketch + 2 multiplies per iteration + final multiply + projection
+    private int passes() {
+        return 2 * powerIterations + 3;
+    }
+
+    private SVD computeSVD(PhaseRecorder recorder) {
+        ExecutionPlan plan = getPlan();
+        plan.log();
+        sketchWidth = plan.sketchWidth;
+        A = (input instanceof OffHeapMatrix) ? ((OffHeapMatrix) input).withPanelRows(plan.panelRows) : input;
+        this.recorder = recorder;
+        try {
+            return decompose();
+        } finally {
+            this.recorder = PhaseRecorder.NOOP;
+            spare = null;
+        }
+    }
+
+    private void checkNotConsumed() {
+        if (input == null) {
+            throw new IllegalStateException("A has been consumed by a previous computation");
+        }
+    }
+
+    private SVD decompose() {
         MatrixD[] BQ = computeBQ();
         MatrixD B = BQ[0];
         MatrixD Q = BQ[1];
-        MatrixD QT = BQ[2];
 
-        SvdD svd = B.svdEcon();
-        MatrixD U_tilde = svd.getU();
-        double[] sigma = svd.getS();
-        MatrixD Vt = svd.getVt();
+        recorder.start(Phase.SMALL_SVD);
+        MatrixD U_tilde = null;
+        double[] sigma = null;
+        MatrixD Vt = null;
+        int l = Math.min(B.numRows(), B.numColumns());
+        int longSide = Math.max(B.numRows(), B.numColumns());
+        double flops = 0.0;
+        if (longSide >= R_SVD_RATIO * l) {
+            // R-SVD: only the l x l triangular core gets decomposed
+            if (transpose) {
+                // B = R^T * Qb^T (B is l x n)
+                MatrixD[] QR = factorize(B.transpose());
+                SVD svd = backend.svd(QR[1].transpose());
+                U_tilde = svd.U;
+                sigma = diagonal(svd.S);
+                Vt = truncateRows(svd.Vt);
+                // Vt * Qb^T
+                Vt = MatrixExpr.of(Vt).times(MatrixExpr.of(QR[0]).transpose()).evaluate(backend);
+            } else {
+                // B = Qb * R (B is m x l)
+                MatrixD[] QR = factorize(B);
+                SVD svd = backend.svd(QR[1]);
+                MatrixD U_k = truncateColumns(svd.U);
+                U_tilde = backend.mult(QR[0], U_k, Matrices.createD(m, U_k.numColumns()));
+                sigma = diagonal(svd.S);
+                Vt = svd.Vt;
+            }
+            flops = PhaseRecorder.qr(longSide, l) + PhaseRecorder.svd(l, l)
+                    + PhaseRecorder.gemm(longSide, l, targetRank);
+        } else {
+            SVD svd = backend.svd(B);
+            U_tilde = svd.U;
+            sigma = diagonal(svd.S);
+            Vt = svd.Vt;
+            flops = PhaseRecorder.svd(B.numRows(), B.numColumns());
+        }
+        recorder.stop(Phase.SMALL_SVD, 0, flops, 0, l);
 
+        recorder.start(Phase.RECOMBINATION);
         MatrixD U = null;
         if (transpose) {
-            U = Q.times(U_tilde);
+            MatrixD U_k = truncateColumns(U_tilde);
+            U = backend.mult(Q, U_k, Matrices.createD(m, U_k.numColumns()));
+            flops = PhaseRecorder.gemm(m, Q.numColumns(), U.numColumns());
         } else {
             U = U_tilde;
-            Vt = Vt.times(QT);
+            Vt = truncateRows(Vt);
+            // Vt * Q^T
+            Vt = MatrixExpr.of(Vt).times(MatrixExpr.of(Q).transpose()).evaluate(backend);
+            flops = PhaseRecorder.gemm(Vt.numRows(), Q.numColumns(), n);
         }
+        recorder.stop(Phase.RECOMBINATION, 0, flops, 0, targetRank);
         return createSVD(U, sigma, Vt);
     }
 
-    private SVD createSVD(MatrixD U, double[] sigma, MatrixD Vt) {
+    private static double[] diagonal(MatrixD S) {
+        double[] sigma = new double[Math.min(S.numRows(), S.numColumns())];
+        for (int i = 0; i < sigma.length; ++i) {
+            sigma[i] = S.getUnsafe(i, i);
+        }
+        return sigma;
+    }
+
+    private MatrixD truncateColumns(MatrixD U) {
         if (U.numColumns() > targetRank) {
-            U = U.selectConsecutiveColumns(0, targetRank - 1);
+            return U.selectConsecutiveColumns(0, targetRank - 1);
         }
+        return U;
+    }
+
+    private MatrixD truncateRows(MatrixD Vt) {
         if (Vt.numRows() > targetRank) {
-            Vt = Vt.selectSubmatrix(0, 0, targetRank - 1, Vt.endCol());
+            return Vt.selectSubmatrix(0, 0, targetRank - 1, Vt.endCol());
         }
+        return Vt;
+    }
+
+    private SVD createSVD(MatrixD U, double[] sigma, MatrixD Vt) {
+        U = truncateColumns(U);
+        Vt = truncateRows(Vt);
         if (U.numRows() > m) {
             // should never happen
             U = U.selectSubmatrix(0, 0, m - 1, U.endCol());
@@ -83,90 +503,193 @@ public final class ApproximateBasis {
 
     private MatrixD[] computeBQ() {
         MatrixD Q = computeQ();
-        MatrixD QT = Q.transpose();
-        if (transpose) {
-            return new MatrixD[] { QT.times(A), Q, QT };
+        recorder.start(Phase.PROJECTION);
+        // Q^T * A (wide) or A * Q (tall)
+        MatrixExpr product = transpose ? MatrixExpr.of(Q).transpose().times(MatrixExpr.of(A))
+                : MatrixExpr.of(A).times(Q);
+        MatrixD B = null;
+        if (spare != null && spare.numColumns() == Q.numColumns()) {
+            B = product.evaluate(backend, spare);
+        } else {
+            B = product.evaluate(backend);
         }
-        return new MatrixD[] { A.times(Q), Q, QT };
+        recorder.stop(Phase.PROJECTION, 0, PhaseRecorder.gemm(m, n, Q.numColumns()), 1, Q.numColumns());
+        if (consumeInput) {
+            // that was the last pass over A
+            input = null;
+            A = null;
+            sketch = null;
+        }
+        return new MatrixD[] { B, Q };
     }
 
     private MatrixD computeQ() {
+        iterations = 0;
+        long start = System.nanoTime();
         MatrixD Q = getRandomMatrix();
+        sketchNanos = System.nanoTime() - start;
+        recorder.start(Phase.TRANSPOSE);
+        // the transpose of a dense A gets folded into the GEMM
+        LinearOperator AT = (A instanceof DenseOperator) ? new TransposedOperator(A) : A.transpose();
+        recorder.stop(Phase.TRANSPOSE, 0, 0.0, 0, Q.numColumns());
         if (transpose) {
-            Q = loopWideSaveAllocations(Q, A.transpose());
+            Q = loopWideSaveAllocations(Q, AT);
         } else {
-            Q = loopTallSaveAllocations(Q, A.transpose());
+            Q = loopTallSaveAllocations(Q, AT);
         }
         return Q;
     }
 
-    protected MatrixD loopWide(MatrixD Q, MatrixD AT) {
-        for (int i = 0; i < 4; ++i) {
-            Q = A.times(Q).lud().getPL();
-            Q = AT.times(Q).lud().getPL();
-        }
-        return A.times(Q).qrd().getQ();
-    }
+    private MatrixD loopWideSaveAllocations(MatrixD Q, LinearOperator AT) {
+        MatrixD C1 = Matrices.createD(A.numRows(), Q.numColumns());
+        MatrixD C2 = null;
 
-    protected MatrixD loopTall(MatrixD Q, MatrixD AT) {
-        for (int i = 0; i < 4; ++i) {
-            Q = AT.times(Q).lud().getPL();
-            Q = A.times(Q).lud().getPL();
+        if (powerIterations > 0 && mayIterate(firstIterationNanos())) {
+            long start = System.nanoTime();
+            Q = normalize(multiply(A, Q, C1, 0), 0);
+            if (Q.numColumns() != C1.numColumns()) {
+                C2 = Matrices.createD(AT.numRows(), Q.numColumns());
+            } else {
+                C2 = Matrices.createD(AT.numRows(), C1.numColumns());
+            }
+            Q = normalize(multiply(AT, Q, C2, 0), 0);
+            if (Q.numColumns() != C1.numColumns()) {
+                C1 = Matrices.createD(A.numRows(), A.numRows());
+            }
+            iterations = 1;
+            long iterationNanos = System.nanoTime() - start;
+
+            for (int i = 1; i < powerIterations && mayIterate(iterationNanos); ++i) {
+                start = System.nanoTime();
+                Q = normalize(multiply(A, Q, C1, i), i);
+                Q = normalize(multiply(AT, Q, C2, i), i);
+                iterations = i + 1;
+                iterationNanos = System.nanoTime() - start;
+            }
         }
-        return AT.times(Q).qrd().getQ();
+        return orthonormalize(multiply(A, Q, C1, powerIterations), powerIterations);
     }
 
-    private MatrixD loopWideSaveAllocations(MatrixD Q, MatrixD AT) {
-        MatrixD C1 = Matrices.createD(A.numRows(), Q.numColumns());
+    private MatrixD loopTallSaveAllocations(MatrixD Q, LinearOperator AT) {
+        MatrixD C1 = Matrices.createD(AT.numRows(), Q.numColumns());
         MatrixD C2 = null;
 
-        Q = A.mult(Q, C1).lud().getPL();
-        if (Q.numColumns() != C1.numColumns()) {
-            C2 = Matrices.createD(AT.numRows(), Q.numColumns());
-        } else {
-            C2 = Matrices.createD(AT.numRows(), C1.numColumns());
-        }
-        Q = AT.mult(Q, C2).lud().getPL();
-        if (Q.numColumns() != C1.numColumns()) {
-            C1 = Matrices.createD(A.numRows(), A.numRows());
-        }
+        if (powerIterations > 0 && mayIterate(firstIterationNanos())) {
+            long start = System.nanoTime();
+            Q = normalize(multiply(AT, Q, C1, 0), 0);
+            if (Q.numColumns() != AT.numRows()) {
+                C2 = Matrices.createD(A.numRows(), Q.numColumns());
+            } else {
+                C2 = Matrices.createD(A.numRows(), AT.numRows());
+            }
+            Q = normalize(multiply(A, Q, C2, 0), 0);
+            if (Q.numColumns() != C1.numColumns()) {
+                C1 = Matrices.createD(AT.numRows(), AT.numRows());
+            }
+            iterations = 1;
+            long iterationNanos = System.nanoTime() - start;
 
-        for (int i = 0; i < 3; ++i) {
-            Q = A.mult(Q, C1).lud().getPL();
-            Q = AT.mult(Q, C2).lud().getPL();
+            for (int i = 1; i < powerIterations && mayIterate(iterationNanos); ++i) {
+                start = System.nanoTime();
+                Q = normalize(multiply(AT, Q, C1, i), i);
+                Q = normalize(multiply(A, Q, C2, i), i);
+                iterations = i + 1;
+                iterationNanos = System.nanoTime() - start;
+            }
         }
-        return A.mult(Q, C1).qrd().getQ();
+        Q = orthonormalize(multiply(AT, Q, C1, powerIterations), powerIterations);
+        if (consumeInput) {
+            // C2 isn't read anymore and has the shape of A * Q
+            spare = C2;
+        }
+        return Q;
     }
 
-    private MatrixD loopTallSaveAllocations(MatrixD Q, MatrixD AT) {
-        MatrixD C1 = Matrices.createD(AT.numRows(), Q.numColumns());
-        MatrixD C2 = null;
+    /**
+     * Whether another power iteration that takes {@code iterationNanos} fits
+     * into the time budget. The final multiply, projection and small SVD are
+     * accounted for by another {@code iterationNanos}.
+     */
+    private boolean mayIterate(long iterationNanos) {
+        return !bounded || iterationNanos <= (deadline - System.nanoTime()) / 2L;
+    }
 
-        Q = AT.mult(Q, C1).lud().getPL();
-        if (Q.numColumns() != AT.numRows()) {
-            C2 = Matrices.createD(A.numRows(), Q.numColumns());
-        } else {
-            C2 = Matrices.createD(A.numRows(), AT.numRows());
+    /**
+     * Estimates the duration of the first power iteration from the measured
+     * rate of the sketch GEMM. A sketch that has been given completely (see
+     * {@link #setSketch(MatrixD)}) doesn't measure anything, then the rate
+     * measured by an earlier computation of this instance is used. Without
+     * any measurement the iteration is considered unaffordable.
+     */
+    private long firstIterationNanos() {
+        if (sampledColumns > 0) {
+            nanosPerFlop = sketchNanos / PhaseRecorder.gemm(m, n, sampledColumns);
         }
-        Q = A.mult(Q, C2).lud().getPL();
-        if (Q.numColumns() != C1.numColumns()) {
-            C1 = Matrices.createD(AT.numRows(), AT.numRows());
+        if (Double.isNaN(nanosPerFlop)) {
+            return Long.MAX_VALUE;
         }
+        // an iteration is two GEMMs with the full sketch width
+        return (long) (nanosPerFlop * 2.0 * PhaseRecorder.gemm(m, n, sketchWidth));
+    }
+
+    private MatrixD multiply(LinearOperator X, MatrixD Q, MatrixD C, int iteration) {
+        recorder.start(Phase.MULTIPLY);
+        MatrixD Y = MatrixExpr.of(X).times(Q).evaluate(backend, C);
+        recorder.stop(Phase.MULTIPLY, iteration, PhaseRecorder.gemm(X.numRows(), X.numColumns(), Q.numColumns()), 1,
+                Y.numColumns());
+        return Y;
+    }
+
+    private MatrixD normalize(MatrixD Y, int iteration) {
+        recorder.start(Phase.NORMALIZATION);
+        // Y is one of the product buffers which can be overwritten
+        MatrixD Q = (Y.numRows() >= Y.numColumns()) ? backend.luInPlace(Y) : backend.lu(Y);
+        recorder.stop(Phase.NORMALIZATION, iteration, PhaseRecorder.lu(Y.numRows(), Y.numColumns()), 0,
+                Q.numColumns());
+        return Q;
+    }
 
-        for (int i = 0; i < 3; ++i) {
-            Q = AT.mult(Q, C1).lud().getPL();
-            Q = A.mult(Q, C2).lud().getPL();
+    private MatrixD orthonormalize(MatrixD Y, int iteration) {
+        recorder.start(Phase.ORTHONORMALIZATION);
+        MatrixD Q = factorize(Y)[0];
+        recorder.stop(Phase.ORTHONORMALIZATION, iteration, PhaseRecorder.qr(Y.numRows(), Y.numColumns()), 0,
+                Q.numColumns());
+        return Q;
+    }
+
+    private MatrixD[] factorize(MatrixD Y) {
+        // Householder QR is provided by the backend
+        if (orthonormalizer == Orthonormalization.HOUSEHOLDER) {
+            return backend.qr(Y);
         }
-        return AT.mult(Q, C1).qrd().getQ();
+        return orthonormalizer.factorize(Y);
     }
 
     private MatrixD getRandomMatrix() {
+        recorder.start(Phase.SKETCH);
+        int l = sketchWidth;
+        int given = (seed == null) ? 0 : Math.min(seed.numColumns(), l);
+        int sampled = l - given;
+        sampledColumns = sampled;
         MatrixD Omega = null;
-        if (transpose) {
-            Omega = Matrices.randomUniformD(targetRank + P, m, -1.0, 1.0);
-            return Omega.times(A).transpose();
+        MatrixD Y = null;
+        if (sampled > 0) {
+            if (transpose) {
+                // (Omega * A)^T = A^T * Omega^T
+                Omega = Matrices.randomUniformD(m, sampled, -1.0, 1.0);
+                Y = backend.transTimes(A, Omega);
+            } else {
+                Omega = Matrices.randomUniformD(n, sampled, -1.0, 1.0);
+                Y = backend.times(A, Omega);
+            }
+        }
+        if (given > 0) {
+            MatrixD Y0 = (given < seed.numColumns()) ? seed.selectConsecutiveColumns(0, given - 1) : seed;
+            Y = (Y == null) ? Y0 : Y0.appendMatrix(Y);
         }
-        Omega = Matrices.randomUniformD(n, targetRank + P, -1.0, 1.0);
-        return A.times(Omega);
+        seed = null;
+        sketch = consumeInput ? null : Y;
+        recorder.stop(Phase.SKETCH, 0, PhaseRecorder.gemm(m, n, sampled), (sampled > 0) ? 1 : 0, Y.numColumns());
+        return Y;
     }
 }
@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Runs a computation that reports its phases to a {@link PhaseRecorder} on an
+ * {@link Executor}. A deadline completes the returned future exceptionally
+ * with a {@link TimeoutException} as soon as it expires, even while a long
+ * GEMM or SVD is running. Cancellation and the deadline are checked at the
+ * start of every phase (i.e., between passes over {@code A}), a computation
+ * whose future is already done is abandoned there by throwing a
+ * {@link CancellationException} from the recorder.
+ */
+final class AsyncTask {
+
+    private static final ScheduledThreadPoolExecutor TIMER = timer();
+
+    private static ScheduledThreadPoolExecutor timer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread t = new Thread(r, "rsvd-timeout");
+            t.setDaemon(true);
+            return t;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    static <T> CompletableFuture<T> submit(Executor executor, PhaseListener listener, ProgressListener progress,
+            int passesTotal, long timeout, TimeUnit unit, Function<PhaseRecorder, T> computation) {
+        if (executor == null || computation == null) {
+            throw new NullPointerException();
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long deadline = (unit == null) ? Long.MAX_VALUE : System.nanoTime() + unit.toNanos(timeout);
+        Control<T> control = new Control<>(future, listener, progress, passesTotal, deadline, unit != null);
+        if (unit != null) {
+            ScheduledFuture<?> timeoutTask = TIMER.schedule(() -> {
+                future.completeExceptionally(new TimeoutException("deadline exceeded"));
+            }, Math.max(timeout, 0L), unit);
+            future.whenComplete((result, t) -> timeoutTask.cancel(false));
+        }
+        executor.execute(() -> {
+            try {
+                if (!future.isDone()) {
+                    future.complete(computation.apply(PhaseRecorder.of(control)));
+                }
+            } catch (Throwable t) {
+                // no-op if the future has already been cancelled or timed out
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    private static final class Control<T> implements PhaseListener {
+
+        private final CompletableFuture<T> future;
+        private final PhaseListener listener;
+        private final ProgressListener progress;
+        private final int passesTotal;
+        private final long deadline;
+        private final boolean hasDeadline;
+        private int passesCompleted;
+
+        Control(CompletableFuture<T> future, PhaseListener listener, ProgressListener progress, int passesTotal,
+                long deadline, boolean hasDeadline) {
+            this.future = future;
+            this.listener = listener;
+            this.progress = progress;
+            this.passesTotal = passesTotal;
+            this.deadline = deadline;
+            this.hasDeadline = hasDeadline;
+        }
+
+        @Override
+        public void phaseStarted(Phase phase) {
+            if (future.isDone()) {
+                throw new CancellationException("abandoned before " + phase);
+            }
+            if (hasDeadline && System.nanoTime() - deadline > 0L) {
+                future.completeExceptionally(new TimeoutException("deadline exceeded before " + phase));
+                throw new CancellationException("deadline exceeded before " + phase);
+            }
+            if (listener != null) {
+                listener.phaseStarted(phase);
+            }
+        }
+
+        @Override
+        public void phaseCompleted(PhaseStats stats) {
+            passesCompleted += stats.passes;
+            if (listener != null) {
+                listener.phaseCompleted(stats);
+            }
+            if (progress != null) {
+                progress.progress(passesCompleted, Math.max(passesTotal, passesCompleted), stats);
+            }
+        }
+    }
+}
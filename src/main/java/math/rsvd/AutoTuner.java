@@ -0,0 +1,378 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import math.rsvd.Tuning.Algorithm;
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import randomizedSVD.RanRangeFinder;
+import randomizedSVD.RanSubspaceIteration;
+
+/**
+ * Chooses the algorithm, the oversampling and the number of iterations for a
+ * rank {@code k} approximation with relative spectral norm error
+ * {@code ||A - U * S * Vt||_2 <= tolerance * ||A||_2} from the shape of
+ * {@code A} and a cheap probe of its spectrum: a sketch of {@code k + 10}
+ * random vectors (two passes over {@code A}) gives lower bounds for the
+ * leading singular values, {@code ||A||_F} bounds the energy of the tail.
+ * <p>
+ * The error of a basis for {@code (A * A^T)^q * A * Omega} follows from the
+ * power scheme bound (Halko et al., Corollary 10.10), applied to the
+ * estimated spectrum for the odd and even powers {@code e = 1, 2, 3, ...}.
+ * Every algorithm needs {@code e + 1} passes over {@code A} for a power
+ * {@code e} (including the projection), so the smallest sufficient power
+ * wins: {@code e = 1} is a single sketch, odd powers are a
+ * {@code RanSubspaceIteration}, even powers an {@link ApproximateBasis}. If
+ * the tolerance can't be reached with rank {@code k} the approximation gets
+ * within 10 percent of the optimal rank {@code k} error instead.
+ * {@code RanPowerIteration} is never chosen: it needs the same passes as an
+ * {@code ApproximateBasis} but loses accuracy without the normalization.
+ * <p>
+ * Without a target rank the tolerance alone determines the rank. Then an
+ * {@link AdaRangeFinderFast} is used when its {@code O(m^2)} workspace is
+ * small, otherwise the rank is estimated from the probe.
+ * <p>
+ * The sampled density of a dense {@code A} is reported but doesn't enter the
+ * cost model since the products are dense GEMMs regardless of the zeros.
+ */
+public final class AutoTuner {
+
+    private static final Logger LOGGER = Logger.getLogger(AutoTuner.class.getName());
+    // probe columns in addition to the target rank
+    private static final int PROBE_OVERSAMPLING = 10;
+    // probe columns if the rank is unknown
+    private static final int PROBE_WIDTH = 40;
+    private static final int[] OVERSAMPLINGS = { 5, 10, 20 };
+    // ApproximateBasis with 8 power iterations
+    private static final int MAX_POWER = 18;
+    // the accepted error is 10% above the optimum if the tolerance isn't
+    // reachable
+    private static final double NEAR_OPTIMAL = 1.1;
+    // AdaRangeFinderFast keeps three m x m matrices
+    private static final long ADA_MAX_BYTES = 64L << 20;
+    private static final int ADA_PROBES = 10;
+    private static final int DENSITY_SAMPLES = 4096;
+
+    private final LinearOperator A;
+    // null for a matrix that is only accessible through products
+    private final MatrixD dense;
+    private final int m;
+    private final int n;
+    private final int targetRank;
+    private final double tolerance;
+    private ComputeBackend backend = ComputeBackend.getDefault();
+    private Tuning tuning;
+
+    /**
+     * Creates an {@code AutoTuner} for a dense matrix.
+     *
+     * @param A
+     *            the matrix to decompose
+     * @param targetRank
+     *            the rank of the approximation or 0 if the tolerance alone
+     *            should determine the rank
+     * @param tolerance
+     *            the relative spectral norm error to achieve
+     */
+    public AutoTuner(MatrixD A, int targetRank, double tolerance) {
+        this(LinearOperator.of(A), targetRank, tolerance);
+    }
+
+    /**
+     * Creates an {@code AutoTuner} for a matrix that is only accessible
+     * through products, e.g. an {@link OffHeapMatrix}.
+     *
+     * @param A
+     *            the matrix to decompose
+     * @param targetRank
+     *            the rank of the approximation or 0 if the tolerance alone
+     *            should determine the rank
+     * @param tolerance
+     *            the relative spectral norm error to achieve
+     */
+    public AutoTuner(LinearOperator A, int targetRank, double tolerance) {
+        if (targetRank < 0) {
+            throw new IllegalArgumentException("negative target rank: " + targetRank);
+        }
+        if (!(tolerance > 0.0)) {
+            throw new IllegalArgumentException("tolerance must be positive: " + tolerance);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.dense = (A instanceof DenseOperator) ? ((DenseOperator) A).matrix() : null;
+        this.m = A.numRows();
+        this.n = A.numColumns();
+        this.targetRank = Math.min(targetRank, Math.min(m, n));
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets the backend for the probe and the chosen algorithm. The default is
+     * {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code AutoTuner}
+     */
+    public AutoTuner setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    /**
+     * Returns the decision, the spectrum gets probed on the first call.
+     *
+     * @return the chosen algorithm and parameters
+     */
+    public Tuning getTuning() {
+        if (tuning == null) {
+            tuning = tune();
+            if (LOGGER.isLoggable(Level.FINE)) {
+                LOGGER.fine(tuning.toString());
+            }
+        }
+        return tuning;
+    }
+
+    /**
+     * Runs the {@link #getTuning() chosen} algorithm.
+     *
+     * @return the approximate SVD of {@code A}
+     */
+    public SVD computeSVD() {
+        Tuning t = getTuning();
+        MatrixD Q = null;
+        switch (t.algorithm) {
+        case APPROXIMATE_BASIS:
+            return new ApproximateBasis(A, t.targetRank, Orthonormalization.HOUSEHOLDER).setBackend(backend)
+                    .setOversampling(t.oversampling).setPowerIterations(t.iterations).computeSVD();
+        case RAN_RANGE_FINDER:
+            Q = new RanRangeFinder(A, t.targetRank).setBackend(backend).setOversampling(t.oversampling).computeQ();
+            return fromBasis(backend, A, Q, m < n, t.targetRank);
+        case RAN_SUBSPACE_ITERATION:
+            Q = new RanSubspaceIteration(A, t.targetRank, t.iterations, Orthonormalization.HOUSEHOLDER)
+                    .setBackend(backend).setOversampling(t.oversampling).computeQ();
+            return fromBasis(backend, A, Q, m < n, t.targetRank);
+        case ADA_RANGE_FINDER_FAST:
+            Q = new AdaRangeFinderFast(dense).setBackend(backend)
+                    .setTolerance(tolerance * t.probedSingularValues[0]).computeQ();
+            if (Q == null) {
+                // A is numerically zero
+                Q = Matrices.createD(m, 1);
+            }
+            return fromBasis(backend, A, Q, false, Q.numColumns());
+        default:
+            throw new AssertionError(t.algorithm);
+        }
+    }
+
+    private Tuning tune() {
+        int minDim = Math.min(m, n);
+        int width = Math.min((targetRank > 0) ? targetRank + PROBE_OVERSAMPLING : PROBE_WIDTH, minDim);
+        double[] sigma = probe(width);
+        double normF = A.normF();
+        double density = density();
+        double sigma1 = sigma[0];
+
+        int k = targetRank;
+        if (k == 0) {
+            double threshold = tolerance * sigma1;
+            while (k < sigma.length && sigma[k] > threshold) {
+                ++k;
+            }
+            if (dense != null && 24.0 * m * (double) m <= ADA_MAX_BYTES) {
+                double flops = (k + ADA_PROBES) * PhaseRecorder.gemm(m, n, 1) + 2.0 * m * (double) m * k * k
+                        + 6.0 * m * (double) m * k;
+                return new Tuning(Algorithm.ADA_RANGE_FINDER_FAST, 0, 0, 0, k + ADA_PROBES + 1, flops, tolerance,
+                        tolerance, true, density, sigma);
+            }
+            // the rank may be underestimated if all probed values are above
+            // the threshold
+            k = Math.max(k, 1);
+        }
+        if (sigma1 == 0.0 || k >= minDim) {
+            // a single sketch captures everything
+            return plan(k, minDim - k, 1, 0.0, true, density, sigma);
+        }
+
+        // scaled by sigma1, sigma[k] is the (k+1)-th singular value
+        double[] x = new double[sigma.length];
+        for (int j = 0; j < x.length; ++j) {
+            x[j] = sigma[j] / sigma1;
+        }
+        double energy = (normF / sigma1) * (normF / sigma1);
+        double headK = 0.0;
+        for (int j = 0; j < k; ++j) {
+            headK += x[j] * x[j];
+        }
+        double headAll = headK;
+        for (int j = k; j < x.length; ++j) {
+            headAll += x[j] * x[j];
+        }
+        // the RMS of the tail is a lower bound for sigma_(k+1)
+        double tailK = Math.max(0.0, energy - headK);
+        double sigmaK1 = Math.max((k < x.length) ? x[k] : 0.0, Math.sqrt(tailK / (minDim - k)));
+        // the unprobed tail, assumed to be flat
+        double rest = Math.max(0.0, energy - headAll);
+        int restCount = minDim - x.length;
+
+        boolean reachable = sigmaK1 <= tolerance;
+        double target = reachable ? tolerance : NEAR_OPTIMAL * sigmaK1;
+
+        // the cheapest plan that reaches the target or else the most accurate
+        Tuning best = null;
+        Tuning fallback = null;
+        for (int p : OVERSAMPLINGS) {
+            int oversampling = Math.min(p, minDim - k);
+            Tuning t = null;
+            for (int e = 1; e <= MAX_POWER && t == null; ++e) {
+                double error = errorBound(e, k, oversampling, minDim, x, sigmaK1, rest, restCount);
+                if (error <= target) {
+                    t = plan(k, oversampling, e, error, reachable, density, sigma);
+                } else if (e == MAX_POWER && (fallback == null || error < fallback.estimatedError)) {
+                    fallback = plan(k, oversampling, e, error, reachable, density, sigma);
+                }
+            }
+            if (t != null && (best == null || t.estimatedFlops < best.estimatedFlops)) {
+                best = t;
+            }
+            if (oversampling < p) {
+                // the larger values get clamped as well
+                break;
+            }
+        }
+        return (best != null) ? best : fallback;
+    }
+
+    /**
+     * The expected spectral norm error (relative to sigma_1) of a basis for
+     * {@code (A * A^T)^((e - 1) / 2) * A * Omega} with {@code k + p}
+     * columns, Halko et al. Corollary 10.10 for the estimated spectrum.
+     */
+    private static double errorBound(int e, int k, int p, int minDim, double[] x, double sigmaK1, double rest,
+            int restCount) {
+        if (k + p >= minDim) {
+            return 0.0;
+        }
+        double tail = 0.0;
+        for (int j = k; j < x.length; ++j) {
+            tail += Math.pow(x[j], 2.0 * e);
+        }
+        if (restCount > 0) {
+            tail += restCount * Math.pow(rest / restCount, e);
+        }
+        double c1 = 1.0 + Math.sqrt(k / (double) Math.max(p - 1, 1));
+        double c2 = Math.E * Math.sqrt(k + p) / Math.max(p, 1);
+        return Math.pow(c1 * Math.pow(sigmaK1, e) + c2 * Math.sqrt(tail), 1.0 / e);
+    }
+
+    private Tuning plan(int k, int p, int e, double error, boolean reachable, double density, double[] sigma) {
+        int l = k + p;
+        int rows = Math.max(m, n);
+        int cols = Math.min(m, n);
+        double gemm = PhaseRecorder.gemm(m, n, l);
+        // projection and small SVD of the l x cols or rows x l matrix B
+        double flops = gemm + PhaseRecorder.svd(l, cols);
+        Algorithm algorithm = null;
+        int q = 0;
+        if (e == 1) {
+            algorithm = Algorithm.RAN_RANGE_FINDER;
+            flops += gemm + PhaseRecorder.qr(rows, l);
+        } else if (e % 2 == 1) {
+            algorithm = Algorithm.RAN_SUBSPACE_ITERATION;
+            q = (e + 1) / 2;
+            // a QR after every product
+            flops += e * (gemm + PhaseRecorder.qr(rows, l));
+        } else {
+            algorithm = Algorithm.APPROXIMATE_BASIS;
+            q = (e - 2) / 2;
+            // an LU after every product but the last which gets a QR
+            flops += e * gemm + (e - 2) * PhaseRecorder.lu(rows, l) + PhaseRecorder.qr(rows, l);
+        }
+        return new Tuning(algorithm, k, p, q, e + 1, flops, error, tolerance, reachable, density, sigma);
+    }
+
+    // lower bounds for the leading singular values from a range finder sketch
+    private double[] probe(int width) {
+        MatrixD Y = backend.times(A, Matrices.randomNormalD(n, width));
+        MatrixD Q = backend.qr(Y)[0];
+        // B^T = A^T * Q has the singular values of B = Q^T * A
+        MatrixD BT = backend.transTimes(A, Q);
+        MatrixD S = backend.svd(BT).S;
+        double[] sigma = new double[Math.min(S.numRows(), S.numColumns())];
+        for (int i = 0; i < sigma.length; ++i) {
+            sigma[i] = S.getUnsafe(i, i);
+        }
+        return sigma;
+    }
+
+    private double density() {
+        if (dense == null) {
+            return Double.NaN;
+        }
+        double[] a = dense.getArrayUnsafe();
+        int samples = Math.min(a.length, DENSITY_SAMPLES);
+        ThreadLocalRandom rnd = ThreadLocalRandom.current();
+        int nonZeros = 0;
+        for (int i = 0; i < samples; ++i) {
+            double v = (samples == a.length) ? a[i] : a[rnd.nextInt(a.length)];
+            if (v != 0.0) {
+                ++nonZeros;
+            }
+        }
+        return nonZeros / (double) samples;
+    }
+
+    /**
+     * The SVD of {@code Q * Q^T * A} for a column space basis or of
+     * {@code A * Q * Q^T} for a row space basis {@code Q}, truncated to rank
+     * {@code k}.
+     */
+    static SVD fromBasis(ComputeBackend backend, LinearOperator A, MatrixD Q, boolean rowSpace, int k) {
+        int m = A.numRows();
+        int n = A.numColumns();
+        int l = Q.numColumns();
+        k = Math.min(k, l);
+        if (rowSpace) {
+            // A * Q = Ub * S * Vb^T => A * Q * Q^T = Ub * S * (Vb^T * Q^T)
+            MatrixD B = backend.times(A, Q);
+            SVD svd = backend.svd(B);
+            MatrixD U = svd.U.selectConsecutiveColumns(0, k - 1);
+            MatrixD VbT = svd.Vt.selectSubmatrix(0, 0, k - 1, svd.Vt.endCol());
+            MatrixD Vt = backend.transBmult(VbT, Q, Matrices.createD(k, n));
+            return new SVD(U, Matrices.diagD(k, k, diagonal(svd.S, k)), Vt);
+        }
+        // A^T * Q = Ub * S * Vb^T => Q * Q^T * A = (Q * Vb) * S * Ub^T
+        MatrixD BT = backend.transTimes(A, Q);
+        SVD svd = backend.svd(BT);
+        MatrixD VbT = svd.Vt.selectSubmatrix(0, 0, k - 1, svd.Vt.endCol());
+        MatrixD U = backend.transBmult(Q, VbT, Matrices.createD(m, k));
+        MatrixD Vt = svd.U.selectConsecutiveColumns(0, k - 1).transpose();
+        return new SVD(U, Matrices.diagD(k, k, diagonal(svd.S, k)), Vt);
+    }
+
+    private static double[] diagonal(MatrixD S, int k) {
+        double[] sigma = new double[k];
+        for (int i = 0; i < k; ++i) {
+            sigma[i] = S.getUnsafe(i, i);
+        }
+        return sigma;
+    }
+}
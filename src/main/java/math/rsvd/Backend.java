@@ -0,0 +1,119 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import net.jamu.matrix.QrdD;
+import net.jamu.matrix.SvdD;
+
+/**
+ * The built-in {@link ComputeBackend} implementations.
+ */
+public enum Backend implements ComputeBackend {
+
+    /**
+     * jamu's {@code MatrixD} methods (BLAS / LAPACK through MKL if available,
+     * netlib-java otherwise). jamu's {@code P * L} of a tall matrix goes
+     * through an {@code m x m} permutation matrix and jamu has no in-place LU,
+     * so the LU of a tall matrix uses the workspace-free Java kernel of
+     * {@link #JAVA}.
+     */
+    JAMU {
+        @Override
+        public MatrixD mult(MatrixD A, MatrixD B, MatrixD C) {
+            return A.mult(B, C);
+        }
+
+        @Override
+        public MatrixD transAmult(MatrixD A, MatrixD B, MatrixD C) {
+            return A.transAmult(B, C);
+        }
+
+        @Override
+        public MatrixD transBmult(MatrixD A, MatrixD B, MatrixD C) {
+            return A.transBmult(B, C);
+        }
+
+        @Override
+        public MatrixD[] qr(MatrixD Y) {
+            QrdD qrd = Y.qrd();
+            return new MatrixD[] { qrd.getQ(), qrd.getR() };
+        }
+
+        @Override
+        public MatrixD lu(MatrixD Y) {
+            if (Y.numRows() > Y.numColumns()) {
+                return JavaKernels.luInPlace(Y.copy());
+            }
+            return Y.lud().getPL();
+        }
+
+        @Override
+        public MatrixD luInPlace(MatrixD Y) {
+            return JavaKernels.luInPlace(Y);
+        }
+
+        @Override
+        public SVD svd(MatrixD B) {
+            SvdD svd = B.svdEcon();
+            double[] sigma = svd.getS();
+            return new SVD(svd.getU(), Matrices.diagD(sigma.length, sigma.length, sigma), svd.getVt());
+        }
+    },
+
+    /**
+     * Pure Java kernels. GEMM is cache-blocked and runs in parallel on the
+     * common {@code ForkJoinPool}, the trailing updates of QR and LU are
+     * parallelized over columns. The small SVD is a one-sided Jacobi SVD.
+     */
+    JAVA {
+        @Override
+        public MatrixD mult(MatrixD A, MatrixD B, MatrixD C) {
+            return JavaKernels.mult(A, B, C);
+        }
+
+        @Override
+        public MatrixD transAmult(MatrixD A, MatrixD B, MatrixD C) {
+            return JavaKernels.transAmult(A, B, C);
+        }
+
+        @Override
+        public MatrixD transBmult(MatrixD A, MatrixD B, MatrixD C) {
+            return JavaKernels.transBmult(A, B, C);
+        }
+
+        @Override
+        public MatrixD[] qr(MatrixD Y) {
+            return JavaKernels.qr(Y);
+        }
+
+        @Override
+        public MatrixD lu(MatrixD Y) {
+            return JavaKernels.lu(Y);
+        }
+
+        @Override
+        public MatrixD luInPlace(MatrixD Y) {
+            return JavaKernels.luInPlace(Y);
+        }
+
+        @Override
+        public SVD svd(MatrixD B) {
+            return JavaKernels.svd(B);
+        }
+    };
+}
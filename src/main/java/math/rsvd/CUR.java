@@ -0,0 +1,40 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * CUR decomposition {@code A ~ C * U * R} where {@code C = A(:, colIndices)}
+ * and {@code R = A(rowIndices, :)} are actual columns and rows of {@code A}
+ * and {@code U} is a small coupling matrix.
+ */
+public class CUR {
+
+    public final int[] rowIndices;
+    public final int[] colIndices;
+    public final MatrixD C;
+    public final MatrixD U;
+    public final MatrixD R;
+
+    public CUR(int[] rowIndices, int[] colIndices, MatrixD C, MatrixD U, MatrixD R) {
+        this.rowIndices = rowIndices;
+        this.colIndices = colIndices;
+        this.C = C;
+        this.U = U;
+        this.R = R;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.ServiceLoader;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Service provider interface for the dense kernels used by the randomized
+ * algorithms: GEMM, Householder QR, the LU normalization and the SVD of small
+ * matrices. The built-in implementations are the constants of
+ * {@link Backend}, additional implementations can be registered through
+ * {@link ServiceLoader} (a {@code META-INF/services/math.rsvd.ComputeBackend}
+ * file) and are looked up by their {@link #name()}.
+ * <p>
+ * The backend used by default is {@link Backend#JAMU} unless the system
+ * property {@value #BACKEND_PROPERTY} names another one.
+ */
+public interface ComputeBackend {
+
+    /** The system property that selects the default backend */
+    String BACKEND_PROPERTY = "math.rsvd.backend";
+
+    /**
+     * The name under which this backend can be selected.
+     *
+     * @return the name of this backend
+     */
+    String name();
+
+    /**
+     * Computes {@code C = A * B}.
+     *
+     * @param A
+     *            an {@code m x k} matrix
+     * @param B
+     *            a {@code k x n} matrix
+     * @param C
+     *            the {@code m x n} result matrix
+     * @return {@code C}
+     */
+    MatrixD mult(MatrixD A, MatrixD B, MatrixD C);
+
+    /**
+     * Computes {@code C = A^T * B}.
+     *
+     * @param A
+     *            an {@code k x m} matrix
+     * @param B
+     *            a {@code k x n} matrix
+     * @param C
+     *            the {@code m x n} result matrix
+     * @return {@code C}
+     */
+    MatrixD transAmult(MatrixD A, MatrixD B, MatrixD C);
+
+    /**
+     * Computes {@code C = A * B^T}. The default implementation materializes
+     * {@code B^T} and delegates to {@link #mult(MatrixD, MatrixD, MatrixD)}.
+     *
+     * @param A
+     *            an {@code m x k} matrix
+     * @param B
+     *            a {@code n x k} matrix
+     * @param C
+     *            the {@code m x n} result matrix
+     * @return {@code C}
+     */
+    default MatrixD transBmult(MatrixD A, MatrixD B, MatrixD C) {
+        return mult(A, B.transpose(), C);
+    }
+
+    /**
+     * Computes the thin QR decomposition of an {@code m x n} matrix
+     * {@code Y} with {@code m >= n}. {@code Y} is not modified.
+     *
+     * @param Y
+     *            the matrix to factorize
+     * @return the array <code>{Q, R}</code> where {@code Q} is {@code m x n}
+     *         with orthonormal columns and {@code R} is {@code n x n} upper
+     *         triangular
+     */
+    MatrixD[] qr(MatrixD Y);
+
+    /**
+     * Computes {@code P * L} of the LU decomposition with partial pivoting
+     * {@code Y = P * L * U}. {@code Y} is not modified.
+     *
+     * @param Y
+     *            an {@code m x n} matrix
+     * @return the {@code m x min(m, n)} matrix {@code P * L}
+     */
+    MatrixD lu(MatrixD Y);
+
+    /**
+     * Overwrites the {@code m x n} matrix {@code Y} with {@code P * L} of its
+     * LU decomposition with partial pivoting {@code Y = P * L * U}. The
+     * default implementation copies the result of {@link #lu(MatrixD)} into
+     * {@code Y}, backends that can factor in place without the {@code m x n}
+     * workspace should override it (the memory estimates of
+     * {@link ExecutionPlan} assume that they do).
+     *
+     * @param Y
+     *            an {@code m x n} matrix with {@code m >= n}
+     * @return {@code Y}
+     */
+    default MatrixD luInPlace(MatrixD Y) {
+        MatrixD PL = lu(Y);
+        System.arraycopy(PL.getArrayUnsafe(), 0, Y.getArrayUnsafe(), 0, Y.numRows() * Y.numColumns());
+        return Y;
+    }
+
+    /**
+     * Computes the economy SVD of a (small) matrix {@code B}. {@code B} is not
+     * modified.
+     *
+     * @param B
+     *            an {@code m x n} matrix
+     * @return the SVD with {@code U} of dimension {@code m x k}, {@code S} of
+     *         dimension {@code k x k} and {@code Vt} of dimension
+     *         {@code k x n} where {@code k = min(m, n)}, the singular values
+     *         in descending order
+     */
+    SVD svd(MatrixD B);
+
+    /**
+     * Computes {@code A * X}, using this backend if {@code A} is a dense
+     * matrix.
+     *
+     * @param A
+     *            an {@code m x n} operator
+     * @param X
+     *            an {@code n x k} matrix
+     * @return {@code A * X}
+     */
+    default MatrixD times(LinearOperator A, MatrixD X) {
+        if (A instanceof DenseOperator) {
+            return mult(((DenseOperator) A).matrix(), X, Matrices.createD(A.numRows(), X.numColumns()));
+        }
+        return A.times(X);
+    }
+
+    /**
+     * Computes {@code A^T * Y}, using this backend if {@code A} is a dense
+     * matrix.
+     *
+     * @param A
+     *            an {@code m x n} operator
+     * @param Y
+     *            an {@code m x k} matrix
+     * @return {@code A^T * Y}
+     */
+    default MatrixD transTimes(LinearOperator A, MatrixD Y) {
+        MatrixD C = Matrices.createD(A.numColumns(), Y.numColumns());
+        if (A instanceof DenseOperator) {
+            return transAmult(((DenseOperator) A).matrix(), Y, C);
+        }
+        return A.transAmult(Y, C);
+    }
+
+    /**
+     * Returns the backend with the given name, either one of the
+     * {@link Backend} constants or one registered via {@link ServiceLoader}.
+     *
+     * @param name
+     *            the name of the backend
+     * @return the backend
+     * @throws IllegalArgumentException
+     *             if there is no backend with that name
+     */
+    static ComputeBackend forName(String name) {
+        for (Backend backend : Backend.values()) {
+            if (backend.name().equalsIgnoreCase(name)) {
+                return backend;
+            }
+        }
+        for (ComputeBackend backend : ServiceLoader.load(ComputeBackend.class)) {
+            if (backend.name().equalsIgnoreCase(name)) {
+                return backend;
+            }
+        }
+        throw new IllegalArgumentException("unknown backend: " + name);
+    }
+
+    /**
+     * Returns the backend named by the system property
+     * {@value #BACKEND_PROPERTY} or {@link Backend#JAMU} if the property isn't
+     * set.
+     *
+     * @return the default backend
+     */
+    static ComputeBackend getDefault() {
+        String name = System.getProperty(BACKEND_PROPERTY);
+        return (name == null) ? Backend.JAMU : forName(name);
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Randomized SVD with a dynamically shifted power iteration. Each iteration
+ * applies {@code A*A^T - alpha*I} instead of {@code A*A^T}, where the shift
+ * {@code alpha} is raised towards the smallest estimated eigenvalue of the
+ * current block. This enlarges the relative gap that governs the convergence
+ * of the power iteration. The iteration stops as soon as the estimates of the
+ * leading {@code k} singular values have stabilized to the requested
+ * tolerance, so well-behaved inputs use fewer passes than the fixed 4
+ * iterations of {@link ApproximateBasis}.
+ * <p>
+ * The shift strategy follows Xu Feng, Wenjian Yu, Yuyang Xie, and Jie Tang.
+ * Algorithm 1043: Faster randomized SVD with dynamic shifts. ACM Trans. Math.
+ * Softw. 50(2), 2024.
+ */
+public class DashSVD {
+
+    // Oversampling parameter
+    private static final int P = 5;
+    private static final int DEFAULT_MAX_ITERATIONS = 10;
+    private static final double DEFAULT_TOLERANCE = 1.0e-2;
+
+    private final MatrixD A;
+    private final int m;
+    private final int n;
+    private final int targetRank;
+    private final int maxIterations;
+    private final double tolerance;
+    private ComputeBackend backend = ComputeBackend.getDefault();
+
+    private int iterations;
+
+    public DashSVD(MatrixD A, int estimatedRank) {
+        this(A, estimatedRank, DEFAULT_MAX_ITERATIONS, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * @param A
+     *            the matrix to decompose
+     * @param estimatedRank
+     *            the target rank
+     * @param maxIterations
+     *            upper bound for the number of (shifted) power iterations
+     * @param tolerance
+     *            the iteration stops when the largest relative change of the
+     *            leading singular value estimates (relative to the k-th
+     *            estimate) drops below {@code tolerance}
+     */
+    public DashSVD(MatrixD A, int estimatedRank, int maxIterations, double tolerance) {
+        if (estimatedRank < 0) {
+            throw new IllegalArgumentException("estimatedRank: " + estimatedRank);
+        }
+        if (maxIterations < 0) {
+            throw new IllegalArgumentException("maxIterations: " + maxIterations);
+        }
+        if (!(tolerance >= 0.0)) {
+            throw new IllegalArgumentException("tolerance: " + tolerance);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.m = A.numRows();
+        this.n = A.numColumns();
+        this.targetRank = Math.min(estimatedRank, Math.min(m, n));
+        this.maxIterations = maxIterations;
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM, Householder QR
+     * and SVD). The default is {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code DashSVD}
+     */
+    public DashSVD setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    public SVD computeSVD() {
+        MatrixD Q = computeQ();
+        // B = Q^T * A : l x n
+        MatrixD B = backend.transAmult(Q, A, Matrices.createD(Q.numColumns(), n));
+        SVD svd = backend.svd(B);
+        MatrixD U = backend.mult(Q, svd.U, Matrices.createD(m, svd.U.numColumns()));
+        MatrixD Vt = svd.Vt;
+        double[] sigma = diagonal(svd.S);
+        if (U.numColumns() > targetRank) {
+            U = U.selectConsecutiveColumns(0, targetRank - 1);
+        }
+        if (Vt.numRows() > targetRank) {
+            Vt = Vt.selectSubmatrix(0, 0, targetRank - 1, Vt.endCol());
+        }
+        MatrixD S = Matrices.diagD(U.numColumns(), Vt.numRows(), sigma);
+        return new SVD(U, S, Vt);
+    }
+
+    /**
+     * Returns the number of shifted power iterations done by the last call to
+     * {@link #computeSVD()}.
+     *
+     * @return the number of power iterations performed
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    private MatrixD computeQ() {
+        int l = Math.min(targetRank + P, Math.min(m, n));
+        int k = Math.max(targetRank, 1);
+        MatrixD Omega = Matrices.randomNormalD(n, l);
+        MatrixD Q = backend.qr(backend.mult(A, Omega, Matrices.createD(m, l)))[0];
+        iterations = 0;
+        if (l == Math.min(m, n)) {
+            // Q already spans the whole range of A
+            return Q;
+        }
+
+        MatrixD ATQ = Matrices.createD(n, l);
+        MatrixD Y = Matrices.createD(m, l);
+        double alpha = 0.0;
+        double[] sigmaPrev = null;
+        for (int i = 0; i < maxIterations; ++i) {
+            // Y = (A*A^T - alpha*I) * Q
+            backend.transAmult(A, Q, ATQ);
+            backend.mult(A, ATQ, Y);
+            Y.addInplace(-alpha, Q);
+            SVD svd = backend.svd(Y);
+            Q = svd.U;
+            double[] S = diagonal(svd.S);
+            ++iterations;
+
+            // S approximates sigma^2 - alpha
+            double[] sigma = new double[k];
+            for (int j = 0; j < k; ++j) {
+                sigma[j] = Math.sqrt(Math.max(S[j] + alpha, 0.0));
+            }
+            if (S[l - 1] > alpha) {
+                alpha = (S[l - 1] + alpha) / 2.0;
+            }
+            if (sigmaPrev != null && hasConverged(sigma, sigmaPrev)) {
+                break;
+            }
+            sigmaPrev = sigma;
+        }
+        return Q;
+    }
+
+    private static double[] diagonal(MatrixD S) {
+        double[] d = new double[Math.min(S.numRows(), S.numColumns())];
+        for (int i = 0; i < d.length; ++i) {
+            d[i] = S.getUnsafe(i, i);
+        }
+        return d;
+    }
+
+    private boolean hasConverged(double[] sigma, double[] sigmaPrev) {
+        double sigmaK = sigma[sigma.length - 1];
+        if (sigmaK == 0.0) {
+            return true;
+        }
+        double maxChange = 0.0;
+        for (int j = 0; j < sigma.length; ++j) {
+            maxChange = Math.max(maxChange, Math.abs(sigma[j] - sigmaPrev[j]));
+        }
+        return maxChange / sigmaK < tolerance;
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * The execution strategy a solver has chosen for a given memory budget. The
+ * {@link #estimatedBytes} are the estimated peak heap usage of the solver's
+ * workspace, the input matrix itself is not included.
+ * <p>
+ * A solver with a memory budget logs its plan at level {@code INFO} (without a
+ * budget at level {@code FINE}) to the logger named after this class. The
+ * planning methods can also be called directly to inspect a plan before
+ * running a solver.
+ */
+public class ExecutionPlan {
+
+    /** The budget of a solver that hasn't been given a memory budget */
+    public static final long UNLIMITED = Long.MAX_VALUE;
+
+    private static final Logger LOGGER = Logger.getLogger(ExecutionPlan.class.getName());
+    // the panel height isn't reduced below this before the sketch gets narrower
+    private static final int MIN_PANEL_ROWS = 64;
+
+    /**
+     * How the solver accesses {@code A}.
+     */
+    public enum Strategy {
+        /**
+         * Everything the solver needs is kept on the heap, including explicit
+         * products of {@code A} with itself.
+         */
+        IN_MEMORY,
+        /**
+         * {@code A} is only used in products with thin blocks of
+         * {@link ExecutionPlan#sketchWidth} columns, off-heap operands are
+         * streamed through heap panels of {@link ExecutionPlan#panelRows} rows.
+         */
+        STREAMING
+    }
+
+    /** The solver the plan is for */
+    public final String solver;
+    /** The memory budget in bytes or {@link #UNLIMITED} */
+    public final long budgetBytes;
+    /** The estimated peak heap usage of the workspace in bytes */
+    public final long estimatedBytes;
+    /** The execution strategy */
+    public final Strategy strategy;
+    /** The number of columns of the (oversampled) sketch */
+    public final int sketchWidth;
+    /** Whether {@code A^T} gets materialized or folded into the products */
+    public final boolean materializeTranspose;
+    /** The row panel height for an {@link OffHeapMatrix} operand, 0 otherwise */
+    public final int panelRows;
+
+    public ExecutionPlan(String solver, long budgetBytes, long estimatedBytes, Strategy strategy, int sketchWidth,
+            boolean materializeTranspose, int panelRows) {
+        this.solver = solver;
+        this.budgetBytes = budgetBytes;
+        this.estimatedBytes = estimatedBytes;
+        this.strategy = strategy;
+        this.sketchWidth = sketchWidth;
+        this.materializeTranspose = materializeTranspose;
+        this.panelRows = panelRows;
+    }
+
+    /**
+     * Plans an {@link ApproximateBasis} computation. The sketch is at most
+     * {@code targetRank + oversampling} and at most {@code min(m, n)} columns
+     * wide. If the workspace doesn't fit into the budget the panel height of
+     * an {@link OffHeapMatrix} operand is reduced first, then the
+     * oversampling. {@code A^T} is never materialized. The estimate assumes
+     * that the LU normalizations of the power iteration overwrite their
+     * product buffer ({@link ComputeBackend#luInPlace(MatrixD)}), which holds
+     * for both built-in backends.
+     *
+     * @param A
+     *            the {@code m x n} operator
+     * @param targetRank
+     *            the target rank
+     * @param oversampling
+     *            the desired number of additional sketch columns
+     * @param budgetBytes
+     *            the memory budget in bytes or {@link #UNLIMITED}
+     * @return the plan
+     * @throws IllegalArgumentException
+     *             if even a sketch without oversampling doesn't fit into the
+     *             budget
+     */
+    public static ExecutionPlan forApproximateBasis(LinearOperator A, int targetRank, int oversampling,
+            long budgetBytes) {
+        int m = A.numRows();
+        int n = A.numColumns();
+        int k = Math.min(targetRank, Math.min(m, n));
+        int maxWidth = Math.min(k + oversampling, Math.min(m, n));
+        int minWidth = Math.min(Math.max(k, 1), maxWidth);
+        boolean offHeap = A instanceof OffHeapMatrix;
+        int panelRows = offHeap ? ((OffHeapMatrix) A).getPanelRows() : 0;
+        int tileColumns = offHeap ? ((OffHeapMatrix) A).getTileColumns() : 0;
+        int l = maxWidth;
+        long bytes = approximateBasisBytes(m, n, k, l, panelRows, tileColumns);
+        while (bytes > budgetBytes) {
+            if (panelRows > MIN_PANEL_ROWS) {
+                panelRows = Math.max(MIN_PANEL_ROWS, panelRows / 2);
+            } else if (l > minWidth) {
+                --l;
+            } else {
+                throw tooSmall(budgetBytes, bytes, k, m, n);
+            }
+            bytes = approximateBasisBytes(m, n, k, l, panelRows, tileColumns);
+        }
+        Strategy strategy = (A instanceof DenseOperator) ? Strategy.IN_MEMORY : Strategy.STREAMING;
+        return new ExecutionPlan("ApproximateBasis", budgetBytes, bytes, strategy, l, false, panelRows);
+    }
+
+    /**
+     * Plans a {@code RanPowerIteration} computation. Its textbook form
+     * computes {@code (A * A^T)^q * A} explicitly which needs
+     * {@code O(m^2 + m * n)} memory. If that doesn't fit into the budget the
+     * power iteration is applied to the sketch instead, with a materialized
+     * {@code A^T} if that fits, with the transpose folded into the products
+     * otherwise.
+     *
+     * @param m
+     *            the number of rows of {@code A}
+     * @param n
+     *            the number of columns of {@code A}
+     * @param targetRank
+     *            the target rank
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @param budgetBytes
+     *            the memory budget in bytes or {@link #UNLIMITED}
+     * @return the plan
+     * @throws IllegalArgumentException
+     *             if not even the streaming variant fits into the budget
+     */
+    public static ExecutionPlan forRanPowerIteration(int m, int n, int targetRank, int oversampling,
+            long budgetBytes) {
+        int l = targetRank + oversampling;
+        double sketches = 2.0 * (m + (double) n) * l + Math.max(m, n) * (double) l;
+        long inMemory = bytes(m * (double) m + 3.0 * m * (double) n + 3.0 * Math.max(m, n) * (double) l);
+        long transposed = bytes(m * (double) n + sketches);
+        long streaming = bytes(sketches);
+        String solver = "RanPowerIteration";
+        if (inMemory <= budgetBytes) {
+            return new ExecutionPlan(solver, budgetBytes, inMemory, Strategy.IN_MEMORY, l, true, 0);
+        }
+        if (transposed <= budgetBytes) {
+            return new ExecutionPlan(solver, budgetBytes, transposed, Strategy.STREAMING, l, true, 0);
+        }
+        if (streaming <= budgetBytes) {
+            return new ExecutionPlan(solver, budgetBytes, streaming, Strategy.STREAMING, l, false, 0);
+        }
+        throw tooSmall(budgetBytes, streaming, targetRank, m, n);
+    }
+
+    /**
+     * Plans a {@code RanPowerIteration} computation for a matrix that is only
+     * accessible through products. Neither {@code (A * A^T)^q * A} nor
+     * {@code A^T} can be formed then, so the power iteration is always applied
+     * to the sketch.
+     *
+     * @param A
+     *            the {@code m x n} operator
+     * @param targetRank
+     *            the target rank
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @param budgetBytes
+     *            the memory budget in bytes or {@link #UNLIMITED}
+     * @return the plan
+     * @throws IllegalArgumentException
+     *             if the streaming variant doesn't fit into the budget
+     */
+    public static ExecutionPlan forRanPowerIteration(LinearOperator A, int targetRank, int oversampling,
+            long budgetBytes) {
+        int m = A.numRows();
+        int n = A.numColumns();
+        int l = targetRank + oversampling;
+        long streaming = bytes(2.0 * (m + (double) n) * l + Math.max(m, n) * (double) l);
+        if (streaming <= budgetBytes) {
+            return new ExecutionPlan("RanPowerIteration", budgetBytes, streaming, Strategy.STREAMING, l, false, 0);
+        }
+        throw tooSmall(budgetBytes, streaming, targetRank, m, n);
+    }
+
+    /**
+     * Reports this plan to the logger, at level {@code INFO} if there is a
+     * memory budget, at level {@code FINE} otherwise.
+     */
+    public void log() {
+        Level level = (budgetBytes == UNLIMITED) ? Level.FINE : Level.INFO;
+        if (LOGGER.isLoggable(level)) {
+            LOGGER.log(level, toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return solver + " plan[strategy=" + strategy + ", sketchWidth=" + sketchWidth + ", materializeTranspose="
+                + materializeTranspose + ", panelRows=" + panelRows + ", estimatedBytes=" + estimatedBytes
+                + ", budgetBytes=" + ((budgetBytes == UNLIMITED) ? "unlimited" : String.valueOf(budgetBytes)) + "]";
+    }
+
+    private static long approximateBasisBytes(int m, int n, int k, int l, int panelRows, int tileColumns) {
+        // sketch, product buffers, basis, B and the QR of B on the long and
+        // the short side, U and Vt, small l x l factors; the LU normalization
+        // runs in the product buffers
+        double doubles = l * (4.0 * Math.max(m, n) + 2.0 * Math.min(m, n)) + k * (m + (double) n) + 5.0 * l * l;
+        if (panelRows > 0) {
+            // heap panel, panel product and the accumulators of a transAmult
+            doubles += panelRows * (double) (tileColumns + l) + 2.0 * tileColumns * l;
+        }
+        return bytes(doubles);
+    }
+
+    private static long bytes(double doubles) {
+        return (long) Math.min(8.0 * doubles, (double) Long.MAX_VALUE);
+    }
+
+    private static IllegalArgumentException tooSmall(long budgetBytes, long neededBytes, int rank, int m, int n) {
+        return new IllegalArgumentException("memory budget of " + budgetBytes + " bytes is too small for a rank "
+                + rank + " approximation of a " + m + " x " + n + " matrix, at least " + neededBytes
+                + " bytes are needed");
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import net.jamu.matrix.SvdD;
+
+/**
+ * Frequent Directions: a deterministic streaming sketch {@code B} of the rows
+ * of a matrix {@code A} with {@code n} columns. The sketch has {@code l} rows
+ * and guarantees
+ * {@code ||A^T * A - B^T * B||_2 <= shrinkage() <= ||A||_F^2 / l} for any
+ * number of rows (and {@code ||A - A * V_k * V_k^T||_F^2 <= l / (l - k) *
+ * ||A - A_k||_F^2} for the top {@code k} right singular vectors {@code V_k}
+ * of {@code B}). Memory is {@code O(l * n)}, the amortized cost of an update
+ * is {@code O(l * n)} per row.
+ * <p>
+ * This is the fast variant that buffers {@code 2 * l} rows and shrinks all
+ * squared singular values of the buffer by the {@code l}-th one when it is
+ * full.
+ * <p>
+ * Edo Liberty. Simple and deterministic matrix sketching. In Proceedings of
+ * the 19th ACM SIGKDD International Conference on Knowledge Discovery and
+ * Data Mining, pages 581-588, 2013.
+ * <p>
+ * Mina Ghashami, Edo Liberty, Jeff M. Phillips, and David P. Woodruff.
+ * Frequent directions: Simple and deterministic matrix sketches. SIAM J.
+ * Comput., 45(5):1762-1792, 2016.
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class FrequentDirections {
+
+    private final int l;
+    private final int n;
+    // the 2l x n buffer, rows >= filled are zero
+    private final MatrixD B;
+    private int filled;
+    private long rowsSeen;
+    private double shrinkage;
+    private double normFSquared;
+
+    public FrequentDirections(int n, int sketchSize) {
+        if (n < 1) {
+            throw new IllegalArgumentException("n must be at least 1. n = " + n);
+        }
+        if (sketchSize < 1) {
+            throw new IllegalArgumentException("sketchSize must be at least 1. sketchSize = " + sketchSize);
+        }
+        this.l = sketchSize;
+        this.n = n;
+        this.B = Matrices.createD(2 * sketchSize, n);
+    }
+
+    /**
+     * Appends the row {@code row} of length {@code n} to the stream.
+     *
+     * @param row
+     *            the next row
+     * @return this {@code FrequentDirections}
+     */
+    public FrequentDirections update(double[] row) {
+        if (row.length != n) {
+            throw new IllegalArgumentException("row must have length " + n + ", but has " + row.length);
+        }
+        if (filled == B.numRows()) {
+            shrink();
+        }
+        double[] b = B.getArrayUnsafe();
+        int ld = B.numRows();
+        double sumSq = 0.0;
+        for (int j = 0; j < n; ++j) {
+            double x = row[j];
+            b[filled + j * ld] = x;
+            sumSq += x * x;
+        }
+        ++filled;
+        ++rowsSeen;
+        normFSquared += sumSq;
+        return this;
+    }
+
+    /**
+     * Appends all rows of {@code rows} to the stream.
+     *
+     * @param rows
+     *            a block of rows with {@code n} columns
+     * @return this {@code FrequentDirections}
+     */
+    public FrequentDirections update(MatrixD rows) {
+        if (rows.numColumns() != n) {
+            throw new IllegalArgumentException("rows must have " + n + " columns, but have " + rows.numColumns());
+        }
+        double[] a = rows.getArrayUnsafe();
+        double[] b = B.getArrayUnsafe();
+        int ldA = rows.numRows();
+        int ldB = B.numRows();
+        for (int i = 0; i < ldA; ++i) {
+            if (filled == ldB) {
+                shrink();
+            }
+            double sumSq = 0.0;
+            for (int j = 0; j < n; ++j) {
+                double x = a[i + j * ldA];
+                b[filled + j * ldB] = x;
+                sumSq += x * x;
+            }
+            ++filled;
+            ++rowsSeen;
+            normFSquared += sumSq;
+        }
+        return this;
+    }
+
+    /**
+     * Merges the sketch {@code other} of another stream of rows with
+     * {@code n} columns into this sketch. The result is a sketch of the
+     * concatenation of both streams whose shrinkage is the sum of both
+     * shrinkages plus the shrinkage of the merge.
+     *
+     * @param other
+     *            the sketch to merge into this sketch
+     * @return this {@code FrequentDirections}
+     */
+    public FrequentDirections merge(FrequentDirections other) {
+        long rows = rowsSeen;
+        double normSq = normFSquared;
+        update(other.getSketch());
+        rowsSeen = rows + other.rowsSeen;
+        normFSquared = normSq + other.normFSquared;
+        shrinkage += other.shrinkage;
+        return this;
+    }
+
+    /**
+     * Returns a copy of the current {@code l x n} sketch {@code B}.
+     *
+     * @return the sketch
+     */
+    public MatrixD getSketch() {
+        if (filled > l) {
+            shrink();
+        }
+        return B.selectSubmatrix(0, 0, l - 1, n - 1);
+    }
+
+    /**
+     * Computes the rank-{@code k} SVD of the sketch. Its singular values and
+     * right singular vectors approximate those of {@code A}. Since the rows of
+     * {@code A} are not retained, {@code U} contains the {@code l x k} left
+     * singular vectors of the sketch; the left singular vectors of {@code A}
+     * for a row {@code a} are given by {@code a * V * S^-1}.
+     *
+     * @param k
+     *            the rank, at most {@code min(l, n)}
+     * @return the rank-{@code k} SVD of the sketch
+     */
+    public SVD computeSVD(int k) {
+        if (k < 1 || k > Math.min(l, n)) {
+            throw new IllegalArgumentException("k must be in [1, " + Math.min(l, n) + "]. k = " + k);
+        }
+        SvdD svd = getSketch().svdEcon();
+        MatrixD U = svd.getU();
+        MatrixD Vt = svd.getVt();
+        if (U.numColumns() > k) {
+            U = U.selectConsecutiveColumns(0, k - 1);
+        }
+        if (Vt.numRows() > k) {
+            Vt = Vt.selectSubmatrix(0, 0, k - 1, Vt.endCol());
+        }
+        return new SVD(U, Matrices.diagD(k, k, svd.getS()), Vt);
+    }
+
+    /**
+     * Returns the sum of the shrinkages so far, an upper bound for
+     * {@code ||A^T * A - B^T * B||_2}.
+     *
+     * @return the accumulated shrinkage
+     */
+    public double shrinkage() {
+        return shrinkage;
+    }
+
+    /**
+     * Returns the squared Frobenius norm of the rows seen so far.
+     *
+     * @return {@code ||A||_F^2}
+     */
+    public double normFSquared() {
+        return normFSquared;
+    }
+
+    public long getRowsSeen() {
+        return rowsSeen;
+    }
+
+    public int getSketchSize() {
+        return l;
+    }
+
+    public int numColumns() {
+        return n;
+    }
+
+    private void shrink() {
+        SvdD svd = B.svdEcon();
+        double[] sigma = svd.getS();
+        MatrixD Vt = svd.getVt();
+        double delta = (l - 1 < sigma.length) ? sigma[l - 1] * sigma[l - 1] : 0.0;
+        // at most l - 1 rows remain, the l-th is zero after the shrinkage
+        int rank = Math.min(l - 1, sigma.length);
+        B.zeroInplace();
+        double[] b = B.getArrayUnsafe();
+        double[] v = Vt.getArrayUnsafe();
+        int ldB = B.numRows();
+        int ldV = Vt.numRows();
+        for (int i = 0; i < rank; ++i) {
+            double s = Math.sqrt(Math.max(sigma[i] * sigma[i] - delta, 0.0));
+            for (int j = 0; j < n; ++j) {
+                b[i + j * ldB] = s * v[i + j * ldV];
+            }
+        }
+        filled = rank;
+        shrinkage += delta;
+    }
+}
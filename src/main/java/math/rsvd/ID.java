@@ -0,0 +1,34 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Interpolative decomposition. For a column ID {@code A ~ A(:, indices) * P}
+ * where {@code P} is {@code k x n}, for a row ID {@code A ~ P * A(indices, :)}
+ * where {@code P} is {@code m x k}.
+ */
+public class ID {
+
+    public final int[] indices;
+    public final MatrixD P;
+
+    public ID(int[] indices, MatrixD P) {
+        this.indices = indices;
+        this.P = P;
+    }
+}
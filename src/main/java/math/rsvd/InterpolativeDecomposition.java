@@ -0,0 +1,144 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import net.jamu.matrix.QrdD;
+
+/**
+ * Randomized column / row interpolative decompositions and CUR. The selection
+ * of the skeleton columns (rows) is done by a column pivoted QR of the small
+ * sketch {@code Y = Omega * A} ({@code Y = A * Omega}), so the factors refer to
+ * actual columns and rows of {@code A} and retain its sparsity.
+ * <p>
+ * Section 5.2 from Nathan Halko, Per-Gunnar Martinsson, and Joel A Tropp.
+ * Finding structure with randomness: Probabilistic algorithms for constructing
+ * approximate matrix decompositions. SIAM review, 53(2):217-288, 2011 and
+ * Sergey Voronin and Per-Gunnar Martinsson. Efficient algorithms for CUR and
+ * interpolative matrix decompositions. Adv Comput Math 43, 495-516, 2017.
+ */
+public class InterpolativeDecomposition {
+
+    // Oversampling parameter
+    private static final int P = 10;
+
+    private final MatrixD A;
+    private final int m;
+    private final int n;
+    private final int targetRank;
+
+    public InterpolativeDecomposition(MatrixD A, int estimatedRank) {
+        if (estimatedRank < 0) {
+            throw new IllegalArgumentException("negative target rank: " + estimatedRank);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.m = A.numRows();
+        this.n = A.numColumns();
+        this.targetRank = Math.min(estimatedRank, Math.min(m, n));
+    }
+
+    /**
+     * Column ID {@code A ~ A(:, J) * P} with {@code P} of dimension
+     * {@code k x n}.
+     *
+     * @return the column interpolative decomposition
+     */
+    public ID computeColumnID() {
+        // Y: l x n
+        MatrixD Omega = Matrices.randomNormalD(Math.min(targetRank + P, m), m);
+        MatrixD Y = Omega.times(A);
+        PivotedQR qr = new PivotedQR(Y, targetRank);
+        return new ID(qr.selectedColumns(), qr.interpolationMatrix());
+    }
+
+    /**
+     * Row ID {@code A ~ P * A(I, :)} with {@code P} of dimension
+     * {@code m x k}.
+     *
+     * @return the row interpolative decomposition
+     */
+    public ID computeRowID() {
+        // Y: l x m
+        MatrixD Omega = Matrices.randomNormalD(n, Math.min(targetRank + P, n));
+        MatrixD Y = A.times(Omega).transpose();
+        PivotedQR qr = new PivotedQR(Y, targetRank);
+        return new ID(qr.selectedColumns(), qr.interpolationMatrix().transpose());
+    }
+
+    /**
+     * CUR decomposition {@code A ~ C * U * R} derived from a randomized column
+     * ID {@code A ~ C * V} followed by a deterministic row ID of the skeleton
+     * {@code C}, the coupling matrix is {@code U = V * pinv(R)}.
+     *
+     * @return the CUR decomposition
+     */
+    public CUR computeCUR() {
+        ID colID = computeColumnID();
+        MatrixD C = selectColumns(A, colID.indices);
+        // C is only m x k, no need to sketch it
+        PivotedQR qr = new PivotedQR(C.transpose(), C.numColumns());
+        int[] rowIndices = qr.selectedColumns();
+        MatrixD R = selectRows(A, rowIndices);
+        // least squares solution of U * R = V via the QR of R^T
+        QrdD qrd = R.transpose().qrd();
+        MatrixD U = colID.P.times(qrd.getQ()).mrdivide(qrd.getR().transpose());
+        return new CUR(rowIndices, colID.indices, C, U, R);
+    }
+
+    /**
+     * Returns a copy of the columns {@code A(:, indices)}.
+     *
+     * @param A
+     *            the matrix to select from
+     * @param indices
+     *            the column indices
+     * @return the {@code m x indices.length} matrix of the selected columns
+     */
+    public static MatrixD selectColumns(MatrixD A, int[] indices) {
+        int rows = A.numRows();
+        MatrixD C = Matrices.createD(rows, indices.length);
+        for (int j = 0; j < indices.length; ++j) {
+            int col = indices[j];
+            for (int i = 0; i < rows; ++i) {
+                C.setUnsafe(i, j, A.getUnsafe(i, col));
+            }
+        }
+        return C;
+    }
+
+    /**
+     * Returns a copy of the rows {@code A(indices, :)}.
+     *
+     * @param A
+     *            the matrix to select from
+     * @param indices
+     *            the row indices
+     * @return the {@code indices.length x n} matrix of the selected rows
+     */
+    public static MatrixD selectRows(MatrixD A, int[] indices) {
+        int cols = A.numColumns();
+        MatrixD R = Matrices.createD(indices.length, cols);
+        for (int j = 0; j < cols; ++j) {
+            for (int i = 0; i < indices.length; ++i) {
+                R.setUnsafe(i, j, A.getUnsafe(indices[i], j));
+            }
+        }
+        return R;
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Pure Java kernels for {@link Backend#JAVA}. All matrices are column-major.
+ */
+final class JavaKernels {
+
+    /** The IEEE 754 machine epsilon from Cephes: (2^-53) */
+    private static final double MACH_EPS_DBL = 1.11022302462515654042e-16;
+    // rows of C per task and cache block sizes of A
+    private static final int ROW_BLOCK = 256;
+    private static final int DEPTH_BLOCK = 128;
+    // columns per task in QR and LU
+    private static final int COL_BLOCK = 8;
+    // below that many flops everything runs on the calling thread
+    private static final double PARALLEL_FLOPS = 1.0e6;
+    private static final int MAX_SWEEPS = 60;
+
+    /** C = A * B */
+    static MatrixD mult(MatrixD A, MatrixD B, MatrixD C) {
+        final int m = A.numRows();
+        final int k = A.numColumns();
+        final int n = B.numColumns();
+        if (B.numRows() != k || C.numRows() != m || C.numColumns() != n) {
+            throw new IllegalArgumentException("dimension mismatch");
+        }
+        final double[] a = A.getArrayUnsafe();
+        final double[] b = B.getArrayUnsafe();
+        final double[] c = C.zeroInplace().getArrayUnsafe();
+        int blocks = (m + ROW_BLOCK - 1) / ROW_BLOCK;
+        range(blocks, 2.0 * m * k * n).forEach(block -> {
+            int i0 = block * ROW_BLOCK;
+            int i1 = Math.min(m, i0 + ROW_BLOCK);
+            for (int p0 = 0; p0 < k; p0 += DEPTH_BLOCK) {
+                int p1 = Math.min(k, p0 + DEPTH_BLOCK);
+                for (int j = 0; j < n; ++j) {
+                    int cj = j * m;
+                    int bj = j * k;
+                    for (int p = p0; p < p1; ++p) {
+                        double bpj = b[p + bj];
+                        if (bpj != 0.0) {
+                            int ap = p * m;
+                            for (int i = i0; i < i1; ++i) {
+                                c[i + cj] += a[i + ap] * bpj;
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return C;
+    }
+
+    /** C = A * B^T */
+    static MatrixD transBmult(MatrixD A, MatrixD B, MatrixD C) {
+        final int m = A.numRows();
+        final int k = A.numColumns();
+        final int n = B.numRows();
+        if (B.numColumns() != k || C.numRows() != m || C.numColumns() != n) {
+            throw new IllegalArgumentException("dimension mismatch");
+        }
+        final double[] a = A.getArrayUnsafe();
+        final double[] b = B.getArrayUnsafe();
+        final double[] c = C.zeroInplace().getArrayUnsafe();
+        int blocks = (m + ROW_BLOCK - 1) / ROW_BLOCK;
+        range(blocks, 2.0 * m * k * n).forEach(block -> {
+            int i0 = block * ROW_BLOCK;
+            int i1 = Math.min(m, i0 + ROW_BLOCK);
+            for (int p0 = 0; p0 < k; p0 += DEPTH_BLOCK) {
+                int p1 = Math.min(k, p0 + DEPTH_BLOCK);
+                for (int j = 0; j < n; ++j) {
+                    int cj = j * m;
+                    for (int p = p0; p < p1; ++p) {
+                        double bjp = b[j + p * n];
+                        if (bjp != 0.0) {
+                            int ap = p * m;
+                            for (int i = i0; i < i1; ++i) {
+                                c[i + cj] += a[i + ap] * bjp;
+                            }
+                        }
+                    }
+                }
+            }
+        });
+        return C;
+    }
+
+    /** C = A^T * B */
+    static MatrixD transAmult(MatrixD A, MatrixD B, MatrixD C) {
+        final int k = A.numRows();
+        final int m = A.numColumns();
+        final int n = B.numColumns();
+        if (B.numRows() != k || C.numRows() != m || C.numColumns() != n) {
+            throw new IllegalArgumentException("dimension mismatch");
+        }
+        final double[] a = A.getArrayUnsafe();
+        final double[] b = B.getArrayUnsafe();
+        final double[] c = C.getArrayUnsafe();
+        int blocks = (m + COL_BLOCK - 1) / COL_BLOCK;
+        range(blocks, 2.0 * m * k * n).forEach(block -> {
+            int i0 = block * COL_BLOCK;
+            int i1 = Math.min(m, i0 + COL_BLOCK);
+            for (int j = 0; j < n; ++j) {
+                for (int i = i0; i < i1; ++i) {
+                    c[i + j * m] = dot(a, i * k, b, j * k, k);
+                }
+            }
+        });
+        return C;
+    }
+
+    /** Thin Householder QR of Y (m >= n) */
+    static MatrixD[] qr(MatrixD Y) {
+        final int m = Y.numRows();
+        final int n = Y.numColumns();
+        if (m < n) {
+            throw new IllegalArgumentException(
+                    "QR only works for m x n matrices where m >= n. But this is a " + m + " x " + n + " matrix");
+        }
+        final double[] a = Y.copy().getArrayUnsafe();
+        final double[] tau = new double[n];
+        MatrixD R = Matrices.createD(n, n);
+        double[] r = R.getArrayUnsafe();
+        for (int j = 0; j < n; ++j) {
+            final int jj = j;
+            final double t = householder(a, m, j);
+            tau[j] = t;
+            if (t != 0.0) {
+                int cols = n - j - 1;
+                range((cols + COL_BLOCK - 1) / COL_BLOCK, 4.0 * (m - j) * cols).forEach(block -> {
+                    int c0 = jj + 1 + block * COL_BLOCK;
+                    int c1 = Math.min(n, c0 + COL_BLOCK);
+                    for (int col = c0; col < c1; ++col) {
+                        reflect(a, m, jj, t, col, a);
+                    }
+                });
+            }
+            for (int i = 0; i <= j; ++i) {
+                r[i + j * n] = a[i + j * m];
+            }
+        }
+        // accumulate Q = H_0 * ... * H_{n-1} * I[:, 0:n]
+        MatrixD Q = Matrices.createD(m, n);
+        final double[] q = Q.getArrayUnsafe();
+        for (int i = 0; i < n; ++i) {
+            q[i + i * m] = 1.0;
+        }
+        range((n + COL_BLOCK - 1) / COL_BLOCK, 4.0 * m * n * n).forEach(block -> {
+            int c0 = block * COL_BLOCK;
+            int c1 = Math.min(n, c0 + COL_BLOCK);
+            for (int col = c0; col < c1; ++col) {
+                for (int j = Math.min(col, n - 1); j >= 0; --j) {
+                    if (tau[j] != 0.0) {
+                        reflect(a, m, j, tau[j], col, q);
+                    }
+                }
+            }
+        });
+        return new MatrixD[] { Q, R };
+    }
+
+    /** P * L of the LU decomposition with partial pivoting of Y */
+    static MatrixD lu(MatrixD Y) {
+        final int m = Y.numRows();
+        final int n = Y.numColumns();
+        final int k = Math.min(m, n);
+        final double[] a = Y.copy().getArrayUnsafe();
+        int[] perm = factorLU(a, m, n);
+        // (P * L)[perm[i], :] = L[i, :]
+        MatrixD PL = Matrices.createD(m, k);
+        double[] pl = PL.getArrayUnsafe();
+        for (int j = 0; j < k; ++j) {
+            pl[perm[j] + j * m] = 1.0;
+            for (int i = j + 1; i < m; ++i) {
+                pl[perm[i] + j * m] = a[i + j * m];
+            }
+        }
+        return PL;
+    }
+
+    /** Overwrites Y (m >= n) with P * L of its LU decomposition */
+    static MatrixD luInPlace(MatrixD Y) {
+        final int m = Y.numRows();
+        final int n = Y.numColumns();
+        if (m < n) {
+            throw new IllegalArgumentException("in-place LU requires m >= n, but Y is " + m + " x " + n);
+        }
+        double[] a = Y.getArrayUnsafe();
+        int[] perm = factorLU(a, m, n);
+        // scatter column by column: (P * L)[perm[i], j] = L[i, j]
+        double[] col = new double[m];
+        for (int j = 0; j < n; ++j) {
+            int cj = j * m;
+            Arrays.fill(col, 0.0);
+            col[perm[j]] = 1.0;
+            for (int i = j + 1; i < m; ++i) {
+                col[perm[i]] = a[i + cj];
+            }
+            System.arraycopy(col, 0, a, cj, m);
+        }
+        return Y;
+    }
+
+    /**
+     * In-place LU decomposition with partial pivoting of the column-major
+     * {@code m x n} array {@code a}, returns the row permutation.
+     */
+    private static int[] factorLU(final double[] a, final int m, final int n) {
+        final int k = Math.min(m, n);
+        int[] perm = new int[m];
+        for (int i = 0; i < m; ++i) {
+            perm[i] = i;
+        }
+        for (int j = 0; j < k; ++j) {
+            final int jj = j;
+            int pivot = j;
+            double max = Math.abs(a[j + j * m]);
+            for (int i = j + 1; i < m; ++i) {
+                double abs = Math.abs(a[i + j * m]);
+                if (abs > max) {
+                    max = abs;
+                    pivot = i;
+                }
+            }
+            if (pivot != j) {
+                for (int col = 0; col < n; ++col) {
+                    int cc = col * m;
+                    double tmp = a[j + cc];
+                    a[j + cc] = a[pivot + cc];
+                    a[pivot + cc] = tmp;
+                }
+                int tmp = perm[j];
+                perm[j] = perm[pivot];
+                perm[pivot] = tmp;
+            }
+            double diag = a[j + j * m];
+            if (diag != 0.0) {
+                for (int i = j + 1; i < m; ++i) {
+                    a[i + j * m] /= diag;
+                }
+                int cols = n - j - 1;
+                range((cols + COL_BLOCK - 1) / COL_BLOCK, 2.0 * (m - j) * cols).forEach(block -> {
+                    int c0 = jj + 1 + block * COL_BLOCK;
+                    int c1 = Math.min(n, c0 + COL_BLOCK);
+                    int cj = jj * m;
+                    for (int col = c0; col < c1; ++col) {
+                        int cc = col * m;
+                        double ujc = a[jj + cc];
+                        if (ujc != 0.0) {
+                            for (int i = jj + 1; i < m; ++i) {
+                                a[i + cc] -= a[i + cj] * ujc;
+                            }
+                        }
+                    }
+                });
+            }
+        }
+        return perm;
+    }
+
+    /** Economy SVD by one-sided Jacobi rotations (Hestenes) */
+    static SVD svd(MatrixD B) {
+        if (B.numRows() < B.numColumns()) {
+            // B = (B^T)^T = (U * S * V^T)^T = V * S * U^T
+            SVD svd = svd(B.transpose());
+            return new SVD(svd.Vt.transpose(), svd.S, svd.U.transpose());
+        }
+        final int m = B.numRows();
+        final int n = B.numColumns();
+        double[] g = B.copy().getArrayUnsafe();
+        double[] v = Matrices.identityD(n).getArrayUnsafe();
+        for (int sweep = 0; sweep < MAX_SWEEPS; ++sweep) {
+            boolean rotated = false;
+            for (int p = 0; p < n - 1; ++p) {
+                for (int q = p + 1; q < n; ++q) {
+                    double alpha = dot(g, p * m, g, p * m, m);
+                    double beta = dot(g, q * m, g, q * m, m);
+                    double gamma = dot(g, p * m, g, q * m, m);
+                    if (Math.abs(gamma) <= MACH_EPS_DBL * Math.sqrt(alpha * beta)) {
+                        continue;
+                    }
+                    rotated = true;
+                    double zeta = (beta - alpha) / (2.0 * gamma);
+                    double t = Math.signum(zeta) / (Math.abs(zeta) + Math.sqrt(1.0 + zeta * zeta));
+                    if (zeta == 0.0) {
+                        t = 1.0;
+                    }
+                    double cs = 1.0 / Math.sqrt(1.0 + t * t);
+                    double sn = cs * t;
+                    rotate(g, p * m, q * m, m, cs, sn);
+                    rotate(v, p * n, q * n, n, cs, sn);
+                }
+            }
+            if (!rotated) {
+                break;
+            }
+        }
+        // sort by descending singular values
+        double[] sigma = new double[n];
+        Integer[] order = new Integer[n];
+        for (int j = 0; j < n; ++j) {
+            sigma[j] = Math.sqrt(dot(g, j * m, g, j * m, m));
+            order[j] = j;
+        }
+        Arrays.sort(order, (x, y) -> Double.compare(sigma[y], sigma[x]));
+        MatrixD U = Matrices.createD(m, n);
+        MatrixD Vt = Matrices.createD(n, n);
+        double[] u = U.getArrayUnsafe();
+        double[] s = new double[n];
+        int rank = 0;
+        for (int j = 0; j < n; ++j) {
+            int src = order[j];
+            s[j] = sigma[src];
+            if (s[j] > 0.0) {
+                double scale = 1.0 / s[j];
+                for (int i = 0; i < m; ++i) {
+                    u[i + j * m] = g[i + src * m] * scale;
+                }
+                ++rank;
+            }
+            for (int i = 0; i < n; ++i) {
+                Vt.setUnsafe(j, i, v[i + src * n]);
+            }
+        }
+        completeBasis(u, m, rank, n);
+        return new SVD(U, Matrices.diagD(n, n, s), Vt);
+    }
+
+    /**
+     * Fills the columns {@code from} to {@code n - 1} of the {@code m x n}
+     * column-major {@code u} (those of the zero singular values) such that all
+     * {@code n} columns are orthonormal. Each new column is the unit vector
+     * farthest from the span of the columns so far (its squared distance is
+     * {@code 1 - sum_k u_ik^2 >= (m - j) / m}), orthogonalized against them by
+     * Gram-Schmidt, twice for stability.
+     */
+    private static void completeBasis(double[] u, int m, int from, int n) {
+        for (int j = from; j < n; ++j) {
+            int best = 0;
+            double bestDist = -1.0;
+            for (int i = 0; i < m; ++i) {
+                double dist = 1.0;
+                for (int k = 0; k < j; ++k) {
+                    dist -= u[i + k * m] * u[i + k * m];
+                }
+                if (dist > bestDist) {
+                    bestDist = dist;
+                    best = i;
+                }
+            }
+            int off = j * m;
+            Arrays.fill(u, off, off + m, 0.0);
+            u[off + best] = 1.0;
+            for (int pass = 0; pass < 2; ++pass) {
+                for (int k = 0; k < j; ++k) {
+                    double d = dot(u, k * m, u, off, m);
+                    for (int i = 0; i < m; ++i) {
+                        u[off + i] -= d * u[k * m + i];
+                    }
+                }
+            }
+            double scale = 1.0 / Math.sqrt(dot(u, off, u, off, m));
+            for (int i = 0; i < m; ++i) {
+                u[off + i] *= scale;
+            }
+        }
+    }
+
+    private static IntStream range(int tasks, double flops) {
+        IntStream range = IntStream.range(0, tasks);
+        return (flops >= PARALLEL_FLOPS && tasks > 1) ? range.parallel() : range;
+    }
+
+    private static double dot(double[] x, int xOff, double[] y, int yOff, int len) {
+        double s = 0.0;
+        for (int i = 0; i < len; ++i) {
+            s += x[xOff + i] * y[yOff + i];
+        }
+        return s;
+    }
+
+    private static void rotate(double[] x, int p, int q, int len, double cs, double sn) {
+        for (int i = 0; i < len; ++i) {
+            double xp = x[p + i];
+            double xq = x[q + i];
+            x[p + i] = cs * xp - sn * xq;
+            x[q + i] = sn * xp + cs * xq;
+        }
+    }
+
+    /**
+     * Computes the Householder reflector for column j of a (rows j..m-1),
+     * stores v (with implicit v[j] = 1) below the diagonal, beta on the
+     * diagonal and returns tau (0 if there is nothing to annihilate).
+     */
+    private static double householder(double[] a, int m, int j) {
+        int cj = j * m;
+        double xnorm = 0.0;
+        for (int i = j + 1; i < m; ++i) {
+            xnorm = Math.hypot(xnorm, a[i + cj]);
+        }
+        if (xnorm == 0.0) {
+            return 0.0;
+        }
+        double alpha = a[j + cj];
+        double beta = -Math.copySign(Math.hypot(alpha, xnorm), alpha);
+        double tau = (beta - alpha) / beta;
+        double scale = 1.0 / (alpha - beta);
+        for (int i = j + 1; i < m; ++i) {
+            a[i + cj] *= scale;
+        }
+        a[j + cj] = beta;
+        return tau;
+    }
+
+    /** Applies H_j = I - tau * v * v^T to column col of x */
+    private static void reflect(double[] a, int m, int j, double tau, int col, double[] x) {
+        int cj = j * m;
+        int cc = col * m;
+        double s = x[j + cc];
+        for (int i = j + 1; i < m; ++i) {
+            s += a[i + cj] * x[i + cc];
+        }
+        s *= tau;
+        x[j + cc] -= s;
+        for (int i = j + 1; i < m; ++i) {
+            x[i + cc] -= s * a[i + cj];
+        }
+    }
+}
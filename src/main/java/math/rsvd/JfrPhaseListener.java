@@ -0,0 +1,69 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+/**
+ * A {@link PhaseListener} that emits a JDK Flight Recorder event for each
+ * phase. The events are only committed while a recording that enables
+ * {@code math.rsvd.Phase} is running.
+ * <p>
+ * This is the Java 8 version which ignores all phases. The multi-release jar
+ * contains a Java 17 version in {@code META-INF/versions/17} that emits the
+ * events, so the core of the library doesn't depend on {@code jdk.jfr}. When
+ * this version gets constructed on a runtime that does ship {@code jdk.jfr}
+ * (Java 11 to 16, or Java 17+ without the multi-release jar) a warning is
+ * logged once, so that an empty recording doesn't go unnoticed.
+ */
+public class JfrPhaseListener implements PhaseListener {
+
+    private static final Logger LOGGER = Logger.getLogger(JfrPhaseListener.class.getName());
+    private static final AtomicBoolean WARNED = new AtomicBoolean();
+
+    /**
+     * Creates a listener, logs a warning on the first call when {@code jdk.jfr}
+     * is available.
+     */
+    public JfrPhaseListener() {
+        if (jfrAvailable() && WARNED.compareAndSet(false, true)) {
+            LOGGER.warning("jdk.jfr is available, but the events of " + JfrPhaseListener.class.getName()
+                    + " require Java 17+ and the multi-release jar; no events will be emitted");
+        }
+    }
+
+    private static boolean jfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Event", false, JfrPhaseListener.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    static boolean emitsEvents() {
+        return false;
+    }
+
+    @Override
+    public void phaseStarted(Phase phase) {
+    }
+
+    @Override
+    public void phaseCompleted(PhaseStats stats) {
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Level-1 kernels on column-major arrays used in the inner loops of the
+ * adaptive range finders.
+ * <p>
+ * This is the Java 8 version. The multi-release jar contains a Java 17
+ * version in {@code META-INF/versions/17} that uses the Vector API when the
+ * {@code jdk.incubator.vector} module is available.
+ */
+final class Kernels {
+
+    static boolean isVectorized() {
+        return false;
+    }
+
+    /** Returns {@code x^T * y} */
+    static double dot(double[] x, int xOff, double[] y, int yOff, int len) {
+        return ScalarKernels.dot(x, xOff, y, yOff, len);
+    }
+
+    /** Computes {@code y += a * x} */
+    static void axpy(double a, double[] x, int xOff, double[] y, int yOff, int len) {
+        ScalarKernels.axpy(a, x, xOff, y, yOff, len);
+    }
+
+    /**
+     * Projects the unit vector {@code q} out of each of the {@code cols}
+     * columns of the {@code m x cols} matrix {@code Y}, i.e.
+     * {@code Y = (I - q * q^T) * Y}
+     */
+    static void projectOut(double[] q, double[] Y, int m, int cols) {
+        ScalarKernels.projectOut(q, Y, m, cols);
+    }
+
+    private Kernels() {
+        throw new AssertionError();
+    }
+}
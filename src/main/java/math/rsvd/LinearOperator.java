@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A real {@code m x n} matrix {@code A} that is only accessed through
+ * products with dense matrices. This is all the randomized algorithms need,
+ * so they can work on representations that don't fit into a {@link MatrixD}
+ * (e.g., an {@link OffHeapMatrix}). The method names follow the
+ * {@code MatrixD} conventions.
+ */
+public interface LinearOperator {
+
+    int numRows();
+
+    int numColumns();
+
+    /**
+     * Computes {@code C = A * X}.
+     *
+     * @param X
+     *            an {@code n x k} matrix
+     * @param C
+     *            the {@code m x k} result matrix
+     * @return {@code C}
+     */
+    MatrixD mult(MatrixD X, MatrixD C);
+
+    /**
+     * Computes {@code C = A^T * Y}.
+     *
+     * @param Y
+     *            an {@code m x k} matrix
+     * @param C
+     *            the {@code n x k} result matrix
+     * @return {@code C}
+     */
+    MatrixD transAmult(MatrixD Y, MatrixD C);
+
+    /**
+     * Returns the Frobenius norm of {@code A}.
+     *
+     * @return {@code ||A||_F}
+     */
+    double normF();
+
+    /**
+     * Computes {@code A * X} into a newly allocated matrix.
+     *
+     * @param X
+     *            an {@code n x k} matrix
+     * @return {@code A * X}
+     */
+    default MatrixD times(MatrixD X) {
+        return mult(X, Matrices.createD(numRows(), X.numColumns()));
+    }
+
+    /**
+     * Returns {@code A^T}. The default implementation is a view that swaps
+     * {@link #mult(MatrixD, MatrixD)} and {@link #transAmult(MatrixD, MatrixD)}
+     * and doesn't copy anything.
+     *
+     * @return the transpose of {@code A}
+     */
+    default LinearOperator transpose() {
+        return new TransposedOperator(this);
+    }
+
+    /**
+     * Wraps a dense {@code MatrixD}. The {@link #transpose()} of the wrapper
+     * is materialized (which is faster for repeated products).
+     *
+     * @param A
+     *            the matrix to wrap
+     * @return a {@code LinearOperator} for {@code A}
+     */
+    static LinearOperator of(MatrixD A) {
+        return new DenseOperator(A);
+    }
+}
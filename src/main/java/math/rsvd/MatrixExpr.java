@@ -0,0 +1,555 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A lazily evaluated matrix expression. Products, transposes and the
+ * factorizations used by the randomized algorithms are only recorded when the
+ * expression gets built, the work is done in {@link #evaluate(ComputeBackend)}
+ * where
+ * <ul>
+ * <li>transposes of operands are folded into the GEMM kernels
+ * ({@code transAmult} / {@code transBmult}) instead of being materialized,</li>
+ * <li>chains of products are reassociated into the order that is cheapest for
+ * their shapes (matrix chain ordering),</li>
+ * <li>an LU normalization of a product overwrites the product's buffer in
+ * place.</li>
+ * </ul>
+ * Operands that aren't dense matrices (e.g., an {@link OffHeapMatrix}) take
+ * part through their {@link LinearOperator#mult(MatrixD, MatrixD) mult} and
+ * {@link LinearOperator#transAmult(MatrixD, MatrixD) transAmult} methods.
+ * <p>
+ * {@link #explain()} shows the evaluation order chosen by the planner.
+ * Expressions are immutable and can be evaluated repeatedly.
+ */
+public abstract class MatrixExpr {
+
+    // number of unit vectors an operator gets applied to at once when it has
+    // to be materialized
+    private static final int MATERIALIZE_BLOCK = 64;
+
+    private final int rows;
+    private final int cols;
+
+    MatrixExpr(int rows, int cols) {
+        this.rows = rows;
+        this.cols = cols;
+    }
+
+    /**
+     * Returns the expression consisting of the matrix {@code A}.
+     *
+     * @param A
+     *            a matrix
+     * @return the expression for {@code A}
+     */
+    public static MatrixExpr of(MatrixD A) {
+        return new Leaf(LinearOperator.of(A), false);
+    }
+
+    /**
+     * Returns the expression consisting of the operator {@code A}.
+     *
+     * @param A
+     *            a linear operator
+     * @return the expression for {@code A}
+     */
+    public static MatrixExpr of(LinearOperator A) {
+        if (A instanceof TransposedOperator) {
+            return new Leaf(A.transpose(), true);
+        }
+        return new Leaf(Objects.requireNonNull(A), false);
+    }
+
+    public final int numRows() {
+        return rows;
+    }
+
+    public final int numColumns() {
+        return cols;
+    }
+
+    /**
+     * Returns the product {@code this * B}.
+     *
+     * @param B
+     *            the right factor
+     * @return the product expression
+     */
+    public MatrixExpr times(MatrixExpr B) {
+        if (cols != B.rows) {
+            throw new IllegalArgumentException("can't multiply a " + rows + " x " + cols + " expression with a "
+                    + B.rows + " x " + B.cols + " expression");
+        }
+        List<MatrixExpr> factors = new ArrayList<>();
+        addFactors(this, factors);
+        addFactors(B, factors);
+        return new Product(factors);
+    }
+
+    /**
+     * Returns the product {@code this * B}.
+     *
+     * @param B
+     *            the right factor
+     * @return the product expression
+     */
+    public MatrixExpr times(MatrixD B) {
+        return times(of(B));
+    }
+
+    /**
+     * Returns the transpose of this expression. Transposes are pushed down to
+     * the operands of products.
+     *
+     * @return the transposed expression
+     */
+    public abstract MatrixExpr transpose();
+
+    /**
+     * Returns {@code P * L} of the LU decomposition with partial pivoting of
+     * this expression (see {@link ComputeBackend#lu(MatrixD)}).
+     *
+     * @return the LU normalization of this expression
+     */
+    public MatrixExpr normalizeLU() {
+        return new LU(this);
+    }
+
+    /**
+     * Returns an orthonormal basis for the range of this expression computed
+     * with the given {@code Orthonormalizer}.
+     *
+     * @param orthonormalizer
+     *            the method to use
+     * @return the orthonormalization of this expression
+     */
+    public MatrixExpr orthonormalize(Orthonormalizer orthonormalizer) {
+        return new QR(this, Objects.requireNonNull(orthonormalizer));
+    }
+
+    /**
+     * Evaluates this expression with the {@link ComputeBackend#getDefault()
+     * default backend}.
+     *
+     * @return the value of this expression
+     */
+    public MatrixD evaluate() {
+        return evaluate(ComputeBackend.getDefault());
+    }
+
+    /**
+     * Evaluates this expression with the given backend.
+     *
+     * @param backend
+     *            the backend that executes the dense kernels
+     * @return the value of this expression
+     */
+    public MatrixD evaluate(ComputeBackend backend) {
+        return materialize(eval(Objects.requireNonNull(backend), null));
+    }
+
+    /**
+     * Evaluates this expression with the given backend into {@code C}. If
+     * the expression is a product (or the LU normalization of a product) the
+     * result is computed in {@code C} directly, otherwise it gets copied.
+     * {@code C} must not be an operand of this expression.
+     *
+     * @param backend
+     *            the backend that executes the dense kernels
+     * @param C
+     *            the result matrix, must have the dimension of this expression
+     * @return {@code C}
+     */
+    public MatrixD evaluate(ComputeBackend backend, MatrixD C) {
+        if (C.numRows() != rows || C.numColumns() != cols) {
+            throw new IllegalArgumentException("C is " + C.numRows() + " x " + C.numColumns()
+                    + " but the expression is " + rows + " x " + cols);
+        }
+        MatrixD result = materialize(eval(Objects.requireNonNull(backend), C));
+        if (result != C) {
+            System.arraycopy(result.getArrayUnsafe(), 0, C.getArrayUnsafe(), 0, rows * cols);
+        }
+        return C;
+    }
+
+    /**
+     * Returns the evaluation plan of this expression, e.g.
+     * {@code lu([500x40]^T * ([500x300] * [300x10]))} where the parentheses
+     * show the order of the products and {@code ^T} a transpose that gets
+     * folded into the product.
+     *
+     * @return a description of the evaluation plan
+     */
+    public String explain() {
+        StringBuilder sb = new StringBuilder();
+        explain(sb);
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return explain();
+    }
+
+    /**
+     * Evaluates this expression, {@code target} may be used as the buffer for
+     * the result if it is not {@code null}.
+     */
+    abstract Operand eval(ComputeBackend backend, MatrixD target);
+
+    abstract void explain(StringBuilder sb);
+
+    private static void explainArgument(MatrixExpr e, StringBuilder sb) {
+        // a product comes with its own parentheses
+        if (e instanceof Product) {
+            e.explain(sb);
+        } else {
+            sb.append('(');
+            e.explain(sb);
+            sb.append(')');
+        }
+    }
+
+    private static void addFactors(MatrixExpr e, List<MatrixExpr> factors) {
+        if (e instanceof Product) {
+            factors.addAll(((Product) e).factors);
+        } else {
+            factors.add(e);
+        }
+    }
+
+    /**
+     * An evaluated (sub)expression: either a dense matrix or an operator,
+     * possibly transposed. {@code owned} marks a buffer that was allocated
+     * during the evaluation and may be overwritten.
+     */
+    static final class Operand {
+        final MatrixD dense;
+        final LinearOperator op;
+        final boolean trans;
+        final boolean owned;
+
+        private Operand(MatrixD dense, LinearOperator op, boolean trans, boolean owned) {
+            this.dense = dense;
+            this.op = op;
+            this.trans = trans;
+            this.owned = owned;
+        }
+
+        static Operand of(MatrixD result) {
+            return new Operand(result, null, false, true);
+        }
+
+        Operand transposed() {
+            return new Operand(dense, op, !trans, owned);
+        }
+    }
+
+    /**
+     * Returns the operand as a dense matrix. An {@link OffHeapMatrix} gets
+     * copied, any other operator is applied to blocks of
+     * {@link #MATERIALIZE_BLOCK} unit vectors so that no workspace beyond the
+     * result and two blocks is needed.
+     */
+    private static MatrixD materialize(Operand o) {
+        if (o.dense != null) {
+            return o.trans ? o.dense.transpose() : o.dense;
+        }
+        LinearOperator op = o.op;
+        if (op instanceof OffHeapMatrix) {
+            MatrixD A = ((OffHeapMatrix) op).getSubmatrix(0, 0, op.numRows() - 1, op.numColumns() - 1);
+            return o.trans ? A.transpose() : A;
+        }
+        int rows = o.trans ? op.numColumns() : op.numRows();
+        int cols = o.trans ? op.numRows() : op.numColumns();
+        MatrixD result = Matrices.createD(rows, cols);
+        double[] r = result.getArrayUnsafe();
+        for (int j0 = 0; j0 < cols; j0 += MATERIALIZE_BLOCK) {
+            int width = Math.min(MATERIALIZE_BLOCK, cols - j0);
+            // the columns j0 to j0 + width - 1 of the cols x cols identity
+            MatrixD E = Matrices.createD(cols, width);
+            double[] e = E.getArrayUnsafe();
+            for (int j = 0; j < width; ++j) {
+                e[j0 + j + j * cols] = 1.0;
+            }
+            MatrixD Y = Matrices.createD(rows, width);
+            Y = o.trans ? op.transAmult(E, Y) : op.mult(E, Y);
+            System.arraycopy(Y.getArrayUnsafe(), 0, r, j0 * rows, rows * width);
+        }
+        return result;
+    }
+
+    /** Computes {@code C = L * R} without materializing transposed operands */
+    private static MatrixD gemm(ComputeBackend backend, Operand L, Operand R, MatrixD C) {
+        if (L.dense == null) {
+            MatrixD X = materialize(R);
+            return L.trans ? L.op.transAmult(X, C) : L.op.mult(X, C);
+        }
+        if (R.dense == null) {
+            // L * R = (R^T * L^T)^T
+            MatrixD Lt = L.trans ? L.dense : L.dense.transpose();
+            LinearOperator op = R.op;
+            MatrixD Y = R.trans ? op.mult(Lt, Matrices.createD(op.numRows(), Lt.numColumns()))
+                    : op.transAmult(Lt, Matrices.createD(op.numColumns(), Lt.numColumns()));
+            return transposeInto(Y, C);
+        }
+        if (!L.trans) {
+            return R.trans ? backend.transBmult(L.dense, R.dense, C) : backend.mult(L.dense, R.dense, C);
+        }
+        if (!R.trans) {
+            return backend.transAmult(L.dense, R.dense, C);
+        }
+        // L^T * R^T: materialize the smaller one of the two transposes
+        if (size(L.dense) <= size(R.dense)) {
+            return backend.transBmult(L.dense.transpose(), R.dense, C);
+        }
+        return backend.transAmult(L.dense, R.dense.transpose(), C);
+    }
+
+    private static double size(MatrixD A) {
+        return A.numRows() * (double) A.numColumns();
+    }
+
+    private static MatrixD transposeInto(MatrixD Y, MatrixD C) {
+        int m = Y.numRows();
+        int n = Y.numColumns();
+        double[] y = Y.getArrayUnsafe();
+        double[] c = C.getArrayUnsafe();
+        for (int j = 0; j < n; ++j) {
+            for (int i = 0; i < m; ++i) {
+                c[j + i * n] = y[i + j * m];
+            }
+        }
+        return C;
+    }
+
+    private static final class Leaf extends MatrixExpr {
+        private final LinearOperator op;
+        private final boolean trans;
+
+        Leaf(LinearOperator op, boolean trans) {
+            super(trans ? op.numColumns() : op.numRows(), trans ? op.numRows() : op.numColumns());
+            this.op = op;
+            this.trans = trans;
+        }
+
+        @Override
+        public MatrixExpr transpose() {
+            return new Leaf(op, !trans);
+        }
+
+        @Override
+        Operand eval(ComputeBackend backend, MatrixD target) {
+            if (op instanceof DenseOperator) {
+                return new Operand(((DenseOperator) op).matrix(), null, trans, false);
+            }
+            return new Operand(null, op, trans, false);
+        }
+
+        @Override
+        void explain(StringBuilder sb) {
+            sb.append('[').append(op.numRows()).append('x').append(op.numColumns()).append(']');
+            if (trans) {
+                sb.append("^T");
+            }
+        }
+    }
+
+    private static final class Product extends MatrixExpr {
+        private final List<MatrixExpr> factors;
+        // dims[i] x dims[i + 1] is the dimension of factor i
+        private final int[] dims;
+        // split[i][j] is the last factor of the left part of the product i..j
+        private final int[][] split;
+
+        Product(List<MatrixExpr> factors) {
+            super(factors.get(0).numRows(), factors.get(factors.size() - 1).numColumns());
+            this.factors = factors;
+            int k = factors.size();
+            dims = new int[k + 1];
+            for (int i = 0; i < k; ++i) {
+                dims[i] = factors.get(i).numRows();
+            }
+            dims[k] = numColumns();
+            split = plan(dims);
+        }
+
+        /** Matrix chain ordering by dynamic programming over the flops */
+        private static int[][] plan(int[] dims) {
+            int k = dims.length - 1;
+            double[][] cost = new double[k][k];
+            int[][] split = new int[k][k];
+            for (int len = 1; len < k; ++len) {
+                for (int i = 0; i + len < k; ++i) {
+                    int j = i + len;
+                    cost[i][j] = Double.MAX_VALUE;
+                    for (int s = i; s < j; ++s) {
+                        double c = cost[i][s] + cost[s + 1][j] + dims[i] * (double) dims[s + 1] * dims[j + 1];
+                        if (c < cost[i][j]) {
+                            cost[i][j] = c;
+                            split[i][j] = s;
+                        }
+                    }
+                }
+            }
+            return split;
+        }
+
+        @Override
+        public MatrixExpr transpose() {
+            List<MatrixExpr> transposed = new ArrayList<>(factors.size());
+            for (int i = factors.size() - 1; i >= 0; --i) {
+                transposed.add(factors.get(i).transpose());
+            }
+            List<MatrixExpr> flattened = new ArrayList<>(factors.size());
+            for (MatrixExpr e : transposed) {
+                addFactors(e, flattened);
+            }
+            return new Product(flattened);
+        }
+
+        @Override
+        Operand eval(ComputeBackend backend, MatrixD target) {
+            return eval(backend, 0, factors.size() - 1, target);
+        }
+
+        private Operand eval(ComputeBackend backend, int i, int j, MatrixD target) {
+            if (i == j) {
+                return factors.get(i).eval(backend, null);
+            }
+            int s = split[i][j];
+            Operand L = eval(backend, i, s, null);
+            Operand R = eval(backend, s + 1, j, null);
+            MatrixD C = (target != null) ? target : Matrices.createD(dims[i], dims[j + 1]);
+            return Operand.of(gemm(backend, L, R, C));
+        }
+
+        @Override
+        void explain(StringBuilder sb) {
+            explain(sb, 0, factors.size() - 1);
+        }
+
+        private void explain(StringBuilder sb, int i, int j) {
+            if (i == j) {
+                factors.get(i).explain(sb);
+            } else {
+                int s = split[i][j];
+                sb.append('(');
+                explain(sb, i, s);
+                sb.append(" * ");
+                explain(sb, s + 1, j);
+                sb.append(')');
+            }
+        }
+    }
+
+    private static final class Transposed extends MatrixExpr {
+        private final MatrixExpr child;
+
+        Transposed(MatrixExpr child) {
+            super(child.numColumns(), child.numRows());
+            this.child = child;
+        }
+
+        @Override
+        public MatrixExpr transpose() {
+            return child;
+        }
+
+        @Override
+        Operand eval(ComputeBackend backend, MatrixD target) {
+            return child.eval(backend, null).transposed();
+        }
+
+        @Override
+        void explain(StringBuilder sb) {
+            sb.append('(');
+            child.explain(sb);
+            sb.append(")^T");
+        }
+    }
+
+    private static final class LU extends MatrixExpr {
+        private final MatrixExpr child;
+
+        LU(MatrixExpr child) {
+            super(child.numRows(), Math.min(child.numRows(), child.numColumns()));
+            this.child = child;
+        }
+
+        @Override
+        public MatrixExpr transpose() {
+            return new Transposed(this);
+        }
+
+        @Override
+        Operand eval(ComputeBackend backend, MatrixD target) {
+            // P * L has the shape of the input if it isn't wide
+            boolean inPlace = child.numRows() >= child.numColumns();
+            Operand o = child.eval(backend, inPlace ? target : null);
+            if (inPlace && o.owned && o.dense != null && !o.trans) {
+                return Operand.of(backend.luInPlace(o.dense));
+            }
+            return Operand.of(backend.lu(materialize(o)));
+        }
+
+        @Override
+        void explain(StringBuilder sb) {
+            sb.append("lu");
+            explainArgument(child, sb);
+        }
+    }
+
+    private static final class QR extends MatrixExpr {
+        private final MatrixExpr child;
+        private final Orthonormalizer orthonormalizer;
+
+        QR(MatrixExpr child, Orthonormalizer orthonormalizer) {
+            super(child.numRows(), child.numColumns());
+            this.child = child;
+            this.orthonormalizer = orthonormalizer;
+        }
+
+        @Override
+        public MatrixExpr transpose() {
+            return new Transposed(this);
+        }
+
+        @Override
+        Operand eval(ComputeBackend backend, MatrixD target) {
+            MatrixD Y = materialize(child.eval(backend, null));
+            // Householder QR is provided by the backend
+            if (orthonormalizer == Orthonormalization.HOUSEHOLDER) {
+                return Operand.of(backend.qr(Y)[0]);
+            }
+            return Operand.of(orthonormalizer.orthonormalize(Y));
+        }
+
+        @Override
+        void explain(StringBuilder sb) {
+            sb.append("qr");
+            explainArgument(child, sb);
+        }
+    }
+}
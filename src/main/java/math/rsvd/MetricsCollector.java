@@ -0,0 +1,137 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link PhaseListener} that keeps all {@link PhaseStats} it receives and
+ * aggregates them per {@link Phase}. Thread-safe.
+ */
+public class MetricsCollector implements PhaseListener {
+
+    private final ArrayList<PhaseStats> stats = new ArrayList<>();
+    private final EnumMap<Phase, long[]> nanos = new EnumMap<>(Phase.class);
+    private final EnumMap<Phase, double[]> flops = new EnumMap<>(Phase.class);
+    private int passes;
+
+    @Override
+    public void phaseStarted(Phase phase) {
+        // nothing to do
+    }
+
+    @Override
+    public synchronized void phaseCompleted(PhaseStats s) {
+        stats.add(s);
+        long[] t = nanos.get(s.phase);
+        if (t == null) {
+            t = new long[1];
+            nanos.put(s.phase, t);
+        }
+        t[0] += s.nanos;
+        double[] f = flops.get(s.phase);
+        if (f == null) {
+            f = new double[1];
+            flops.put(s.phase, f);
+        }
+        f[0] += s.flops;
+        passes += s.passes;
+    }
+
+    /**
+     * Returns a snapshot of all recorded phases in the order of their
+     * completion.
+     *
+     * @return the list of the recorded {@link PhaseStats}
+     */
+    public synchronized List<PhaseStats> getStats() {
+        return Collections.unmodifiableList(new ArrayList<>(stats));
+    }
+
+    /**
+     * Returns the accumulated wall clock time per phase in nanoseconds.
+     *
+     * @return map from phase to accumulated nanoseconds
+     */
+    public synchronized Map<Phase, Long> getNanosPerPhase() {
+        EnumMap<Phase, Long> map = new EnumMap<>(Phase.class);
+        for (Map.Entry<Phase, long[]> e : nanos.entrySet()) {
+            map.put(e.getKey(), e.getValue()[0]);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the accumulated FLOP estimates per phase.
+     *
+     * @return map from phase to accumulated flops
+     */
+    public synchronized Map<Phase, Double> getFlopsPerPhase() {
+        EnumMap<Phase, Double> map = new EnumMap<>(Phase.class);
+        for (Map.Entry<Phase, double[]> e : flops.entrySet()) {
+            map.put(e.getKey(), e.getValue()[0]);
+        }
+        return map;
+    }
+
+    /**
+     * Returns the total number of passes over the input matrix.
+     *
+     * @return the number of passes over {@code A}
+     */
+    public synchronized int getPasses() {
+        return passes;
+    }
+
+    /**
+     * Returns the total number of bytes allocated in all phases or {@code -1}
+     * if allocation accounting isn't supported.
+     *
+     * @return the allocated bytes
+     */
+    public synchronized long getBytesAllocated() {
+        long total = 0L;
+        for (PhaseStats s : stats) {
+            if (s.bytesAllocated < 0L) {
+                return -1L;
+            }
+            total += s.bytesAllocated;
+        }
+        return total;
+    }
+
+    public synchronized void reset() {
+        stats.clear();
+        nanos.clear();
+        flops.clear();
+        passes = 0;
+    }
+
+    @Override
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder("MetricsCollector[passes=").append(passes);
+        for (Map.Entry<Phase, long[]> e : nanos.entrySet()) {
+            Phase phase = e.getKey();
+            sb.append(", ").append(phase).append("=").append(e.getValue()[0] / 1000000.0).append("ms/")
+                    .append(flops.get(phase)[0]).append("flops");
+        }
+        return sb.append("]").toString();
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A dense {@code m x n} matrix stored outside of the Java heap in column
+ * blocks ("tiles") of direct buffers. Each tile holds {@code tileColumns}
+ * consecutive columns in column-major order and is at most
+ * {@link #MAX_TILE_BYTES} large, so {@code m * n} may exceed {@code 2^31} and
+ * the data is never copied by the garbage collector.
+ * <p>
+ * Products are computed tile by tile on row panels that get copied into a
+ * small heap buffer of at most {@code 2^20} elements and multiplied with
+ * jamu's {@code MatrixD} GEMM. Only the (thin) operands and results of a
+ * product live on the heap.
+ * <p>
+ * The memory of a direct buffer is released when the buffer becomes
+ * unreachable. Reads and products may run concurrently, writes must not run
+ * concurrently with anything else.
+ */
+public final class OffHeapMatrix implements LinearOperator {
+
+    /** Upper bound for the size of a single tile (256 MiB) */
+    public static final long MAX_TILE_BYTES = 1L << 28;
+    /** Upper bound for the number of elements of a heap panel (8 MiB) */
+    static final int PANEL_DOUBLES = 1 << 20;
+
+    private final int rows;
+    private final int cols;
+    private final int tileColumns;
+    private final int panelRows;
+    private final DoubleBuffer[] tiles;
+
+    public OffHeapMatrix(int rows, int cols) {
+        this(rows, cols, defaultTileColumns(rows, cols));
+    }
+
+    public OffHeapMatrix(int rows, int cols, int tileColumns) {
+        this(rows, cols, tileColumns, Math.max(1, Math.min(rows, PANEL_DOUBLES / Math.max(tileColumns, 1))));
+    }
+
+    OffHeapMatrix(int rows, int cols, int tileColumns, int panelRows) {
+        if (rows < 1 || cols < 1) {
+            throw new IllegalArgumentException("illegal dimensions: " + rows + " x " + cols);
+        }
+        if (tileColumns < 1 || 8L * rows * Math.min(tileColumns, cols) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("illegal tileColumns: " + tileColumns);
+        }
+        if (panelRows < 1) {
+            throw new IllegalArgumentException("illegal panelRows: " + panelRows);
+        }
+        this.rows = rows;
+        this.cols = cols;
+        this.tileColumns = Math.min(tileColumns, cols);
+        this.panelRows = Math.min(panelRows, rows);
+        int tileCount = (cols + this.tileColumns - 1) / this.tileColumns;
+        tiles = new DoubleBuffer[tileCount];
+        for (int t = 0; t < tileCount; ++t) {
+            tiles[t] = ByteBuffer.allocateDirect(8 * rows * tileWidth(t)).order(ByteOrder.nativeOrder())
+                    .asDoubleBuffer();
+        }
+    }
+
+    // wraps existing tiles, e.g. the read-only mappings of an SVDFile
+    OffHeapMatrix(int rows, int cols, int tileColumns, DoubleBuffer[] tiles) {
+        this.rows = rows;
+        this.cols = cols;
+        this.tileColumns = tileColumns;
+        this.panelRows = Math.max(1, Math.min(rows, PANEL_DOUBLES / tileColumns));
+        this.tiles = tiles;
+    }
+
+    // a view on the tiles of M with a different panel height
+    private OffHeapMatrix(OffHeapMatrix M, int panelRows) {
+        this.rows = M.rows;
+        this.cols = M.cols;
+        this.tileColumns = M.tileColumns;
+        this.panelRows = Math.max(1, Math.min(panelRows, rows));
+        this.tiles = M.tiles;
+    }
+
+    /**
+     * Creates an off-heap copy of {@code A}.
+     *
+     * @param A
+     *            the matrix to copy
+     * @return the off-heap copy
+     */
+    public static OffHeapMatrix copyOf(MatrixD A) {
+        OffHeapMatrix M = new OffHeapMatrix(A.numRows(), A.numColumns());
+        M.setSubmatrix(0, 0, A);
+        return M;
+    }
+
+    /** The widest tile of {@code rows x cols} that fits into {@link #MAX_TILE_BYTES} */
+    static int defaultTileColumns(int rows, int cols) {
+        return (int) Math.max(1L, Math.min(cols, MAX_TILE_BYTES / (8L * Math.max(rows, 1))));
+    }
+
+    @Override
+    public int numRows() {
+        return rows;
+    }
+
+    @Override
+    public int numColumns() {
+        return cols;
+    }
+
+    public int getTileColumns() {
+        return tileColumns;
+    }
+
+    public long sizeInBytes() {
+        return 8L * rows * cols;
+    }
+
+    int getPanelRows() {
+        return panelRows;
+    }
+
+    /**
+     * Returns a view that shares the data of this matrix but computes its
+     * products on row panels of the given height.
+     */
+    OffHeapMatrix withPanelRows(int panelRows) {
+        return (panelRows == this.panelRows) ? this : new OffHeapMatrix(this, panelRows);
+    }
+
+    public double get(int row, int col) {
+        checkIndex(row, col);
+        return tiles[col / tileColumns].get(row + (col % tileColumns) * rows);
+    }
+
+    public void set(int row, int col, double val) {
+        checkIndex(row, col);
+        tiles[col / tileColumns].put(row + (col % tileColumns) * rows, val);
+    }
+
+    /**
+     * Copies {@code B} into the submatrix whose upper left corner is at
+     * {@code (rowOffset, colOffset)}. This is the efficient way to fill the
+     * matrix block by block.
+     *
+     * @param rowOffset
+     *            the row of the upper left corner
+     * @param colOffset
+     *            the column of the upper left corner
+     * @param B
+     *            the block to copy
+     */
+    public void setSubmatrix(int rowOffset, int colOffset, MatrixD B) {
+        int h = B.numRows();
+        int w = B.numColumns();
+        checkIndex(rowOffset, colOffset);
+        checkIndex(rowOffset + h - 1, colOffset + w - 1);
+        double[] b = B.getArrayUnsafe();
+        for (int j = 0; j < w; ++j) {
+            int col = colOffset + j;
+            DoubleBuffer tile = tiles[col / tileColumns].duplicate();
+            tile.position(rowOffset + (col % tileColumns) * rows);
+            tile.put(b, j * h, h);
+        }
+    }
+
+    /**
+     * Copies the submatrix with the given corners (inclusive) to the heap.
+     *
+     * @param r0
+     *            the first row
+     * @param c0
+     *            the first column
+     * @param r1
+     *            the last row
+     * @param c1
+     *            the last column
+     * @return the submatrix as a {@code MatrixD}
+     */
+    public MatrixD getSubmatrix(int r0, int c0, int r1, int c1) {
+        checkIndex(r0, c0);
+        checkIndex(r1, c1);
+        int h = r1 - r0 + 1;
+        MatrixD B = Matrices.createD(h, c1 - c0 + 1);
+        double[] b = B.getArrayUnsafe();
+        for (int col = c0; col <= c1; ++col) {
+            DoubleBuffer tile = tiles[col / tileColumns].duplicate();
+            tile.position(r0 + (col % tileColumns) * rows);
+            tile.get(b, (col - c0) * h, h);
+        }
+        return B;
+    }
+
+    @Override
+    public MatrixD mult(MatrixD X, MatrixD C) {
+        if (X.numRows() != cols || C.numRows() != rows || C.numColumns() != X.numColumns()) {
+            throw new IllegalArgumentException("dimension mismatch");
+        }
+        int k = X.numColumns();
+        double[] c = C.zeroInplace().getArrayUnsafe();
+        // the panel and product buffers get reused, index 1 is for the
+        // shorter last panel
+        MatrixD[] panels = new MatrixD[2];
+        MatrixD[] products = new MatrixD[2];
+        MatrixD Xt = null;
+        for (int t = 0; t < tiles.length; ++t) {
+            int c0 = t * tileColumns;
+            int width = tileWidth(t);
+            Xt = (width == cols) ? X : copyRows(X, c0, reuse(Xt, width, k));
+            for (int r0 = 0; r0 < rows; r0 += panelRows) {
+                int h = Math.min(panelRows, rows - r0);
+                int s = (h == panelRows) ? 0 : 1;
+                panels[s] = panel(t, r0, reuse(panels[s], h, width));
+                products[s] = panels[s].mult(Xt, reuse(products[s], h, k));
+                double[] p = products[s].getArrayUnsafe();
+                for (int j = 0; j < k; ++j) {
+                    int cj = r0 + j * rows;
+                    int pj = j * h;
+                    for (int i = 0; i < h; ++i) {
+                        c[cj + i] += p[pj + i];
+                    }
+                }
+            }
+        }
+        return C;
+    }
+
+    @Override
+    public MatrixD transAmult(MatrixD Y, MatrixD C) {
+        if (Y.numRows() != rows || C.numRows() != cols || C.numColumns() != Y.numColumns()) {
+            throw new IllegalArgumentException("dimension mismatch");
+        }
+        int k = Y.numColumns();
+        double[] c = C.getArrayUnsafe();
+        // the panel and slice buffers get reused, index 1 is for the shorter
+        // last panel
+        MatrixD[] panels = new MatrixD[2];
+        MatrixD[] slices = new MatrixD[2];
+        MatrixD acc = null;
+        for (int t = 0; t < tiles.length; ++t) {
+            int c0 = t * tileColumns;
+            int width = tileWidth(t);
+            acc = reuse(acc, width, k).zeroInplace();
+            for (int r0 = 0; r0 < rows; r0 += panelRows) {
+                int h = Math.min(panelRows, rows - r0);
+                int s = (h == panelRows) ? 0 : 1;
+                MatrixD Yp = Y;
+                if (h != rows) {
+                    slices[s] = copyRows(Y, r0, reuse(slices[s], h, k));
+                    Yp = slices[s];
+                }
+                panels[s] = panel(t, r0, reuse(panels[s], h, width));
+                panels[s].transAmultAdd(Yp, acc);
+            }
+            double[] a = acc.getArrayUnsafe();
+            for (int j = 0; j < k; ++j) {
+                System.arraycopy(a, j * width, c, c0 + j * cols, width);
+            }
+        }
+        return C;
+    }
+
+    @Override
+    public double normF() {
+        // scaled sum of squares as in LAPACK's dnrm2
+        double scale = 0.0;
+        double ssq = 1.0;
+        for (DoubleBuffer tile : tiles) {
+            for (int i = 0; i < tile.capacity(); ++i) {
+                double x = tile.get(i);
+                if (x != 0.0) {
+                    double absx = Math.abs(x);
+                    if (scale < absx) {
+                        ssq = 1.0 + ssq * (scale / absx) * (scale / absx);
+                        scale = absx;
+                    } else {
+                        ssq += (absx / scale) * (absx / scale);
+                    }
+                }
+            }
+        }
+        return scale * Math.sqrt(ssq);
+    }
+
+    /**
+     * Copies the rows {@code r0} to {@code r0 + P.numRows() - 1} of tile
+     * {@code t} into {@code P}.
+     */
+    private MatrixD panel(int t, int r0, MatrixD P) {
+        int h = P.numRows();
+        double[] p = P.getArrayUnsafe();
+        DoubleBuffer tile = tiles[t].duplicate();
+        for (int j = 0; j < P.numColumns(); ++j) {
+            tile.position(r0 + j * rows);
+            tile.get(p, j * h, h);
+        }
+        return P;
+    }
+
+    /**
+     * Copies the rows {@code r0} to {@code r0 + B.numRows() - 1} of {@code X}
+     * into {@code B}.
+     */
+    private static MatrixD copyRows(MatrixD X, int r0, MatrixD B) {
+        int h = B.numRows();
+        int xRows = X.numRows();
+        double[] x = X.getArrayUnsafe();
+        double[] b = B.getArrayUnsafe();
+        for (int j = 0; j < B.numColumns(); ++j) {
+            System.arraycopy(x, r0 + j * xRows, b, j * h, h);
+        }
+        return B;
+    }
+
+    private static MatrixD reuse(MatrixD B, int rows, int cols) {
+        if (B != null && B.numRows() == rows && B.numColumns() == cols) {
+            return B;
+        }
+        return Matrices.createD(rows, cols);
+    }
+
+    private int tileWidth(int t) {
+        return Math.min(tileColumns, cols - t * tileColumns);
+    }
+
+    private void checkIndex(int row, int col) {
+        if (row < 0 || row >= rows || col < 0 || col >= cols) {
+            throw new IndexOutOfBoundsException("(" + row + ", " + col + ") for a " + rows + " x " + cols + " matrix");
+        }
+    }
+}
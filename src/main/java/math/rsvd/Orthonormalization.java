@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import net.jamu.matrix.QrdD;
+
+/**
+ * The available {@link Orthonormalizer} implementations.
+ * <p>
+ * The Cholesky QR variants reduce the work on the tall {@code m x n} block to
+ * the Gram matrix product {@code Y^T * Y} and the product {@code Y * R^-1},
+ * both of which are GEMM-bound, plus a Cholesky decomposition of a tiny
+ * {@code n x n} matrix. They automatically fall back to {@link #HOUSEHOLDER}
+ * when the Gram matrix is too ill-conditioned.
+ * <p>
+ * Takeshi Fukaya, Ramaseshan Kannan, Yuji Nakatsukasa, Yusaku Yamamoto, and
+ * Yuka Yanagisawa. Shifted Cholesky QR for computing the QR factorization of
+ * ill-conditioned matrices. SIAM J. Sci. Comput. 42(1):A477-A503, 2020.
+ */
+public enum Orthonormalization implements Orthonormalizer {
+
+    /**
+     * Householder QR (LAPACK {@code dgeqrf}). Unconditionally stable.
+     */
+    HOUSEHOLDER {
+        @Override
+        public MatrixD[] factorize(MatrixD Y) {
+            QrdD qrd = Y.qrd();
+            return new MatrixD[] { qrd.getQ(), qrd.getR() };
+        }
+    },
+
+    /**
+     * Cholesky QR applied twice. Orthogonal to working precision as long as
+     * {@code cond(Y)} is below about {@code 10^7}, falls back to
+     * {@link #HOUSEHOLDER} otherwise.
+     */
+    CHOLESKY_QR2 {
+        @Override
+        public MatrixD[] factorize(MatrixD Y) {
+            MatrixD[] QR1 = choleskyQR(Y, 0.0);
+            if (QR1 == null) {
+                return HOUSEHOLDER.factorize(Y);
+            }
+            MatrixD[] QR2 = choleskyQR(QR1[0], 0.0);
+            if (QR2 == null) {
+                return HOUSEHOLDER.factorize(Y);
+            }
+            return new MatrixD[] { QR2[0], QR2[1].times(QR1[1]) };
+        }
+    },
+
+    /**
+     * A shifted Cholesky QR step that brings the condition number down to
+     * about {@code 10^7} followed by {@link #CHOLESKY_QR2}. Works for
+     * {@code cond(Y)} up to about {@code 10^15}, falls back to
+     * {@link #HOUSEHOLDER} otherwise.
+     */
+    SHIFTED_CHOLESKY_QR3 {
+        @Override
+        public MatrixD[] factorize(MatrixD Y) {
+            int m = Y.numRows();
+            int n = Y.numColumns();
+            double normF = Y.normF();
+            // ||Y||_2 <= ||Y||_F
+            double shift = 11.0 * (m * (double) n + n * (n + 1.0)) * MACH_EPS_DBL * normF * normF;
+            MatrixD[] QR1 = choleskyQR(Y, shift);
+            if (QR1 == null) {
+                return HOUSEHOLDER.factorize(Y);
+            }
+            MatrixD[] QR2 = CHOLESKY_QR2.factorize(QR1[0]);
+            return new MatrixD[] { QR2[0], QR2[1].times(QR1[1]) };
+        }
+    };
+
+    /** The IEEE 754 machine epsilon from Cephes: (2^-53) */
+    private static final double MACH_EPS_DBL = 1.11022302462515654042e-16;
+    /** Largest acceptable 1-norm condition number of R for an unshifted step */
+    private static final double MAX_COND_R = 1.0e7;
+
+    @Override
+    public MatrixD orthonormalize(MatrixD Y) {
+        return factorize(Y)[0];
+    }
+
+    /**
+     * One (optionally shifted) Cholesky QR step. Returns {@code null} when the
+     * Cholesky decomposition breaks down or, for an unshifted step, when the
+     * condition of {@code R} indicates a loss of orthogonality. Since
+     * {@code R^-1} is formed explicitly anyway, its 1-norm condition number
+     * {@code ||R||_1 * ||R^-1||_1} is computed exactly (it is within a factor
+     * of {@code n} of the 2-norm condition number, whereas the ratio of the
+     * diagonal entries of {@code R} is only a lower bound).
+     */
+    private static MatrixD[] choleskyQR(MatrixD Y, double shift) {
+        int n = Y.numColumns();
+        if (Y.numRows() < n) {
+            throw new IllegalArgumentException(
+                    "Orthonormalization only works for m x n matrices where m >= n. But this is a "
+                            + Y.numRows() + " x " + n + " matrix");
+        }
+        MatrixD G = Y.transposedTimes();
+        double[] g = G.getArrayUnsafe();
+        if (shift != 0.0) {
+            for (int i = 0; i < n; ++i) {
+                g[i + i * n] += shift;
+            }
+        }
+        if (!cholesky(g, n)) {
+            return null;
+        }
+        MatrixD Rinv = upperTriangularInverse(g, n);
+        if (shift == 0.0 && !(norm1(g, n) * norm1(Rinv.getArrayUnsafe(), n) <= MAX_COND_R)) {
+            return null;
+        }
+        MatrixD R = G;
+        MatrixD Q = Y.times(Rinv);
+        return new MatrixD[] { Q, R };
+    }
+
+    /**
+     * In-place Cholesky decomposition {@code G = R^T * R} of the column-major
+     * {@code n x n} array {@code g}, {@code R} is returned in the upper
+     * triangle, the strictly lower triangle is zeroed.
+     */
+    private static boolean cholesky(double[] g, int n) {
+        for (int j = 0; j < n; ++j) {
+            int cj = j * n;
+            double d = g[j + cj];
+            for (int k = 0; k < j; ++k) {
+                double r = g[k + cj];
+                d -= r * r;
+            }
+            if (!(d > 0.0)) {
+                return false;
+            }
+            d = Math.sqrt(d);
+            g[j + cj] = d;
+            for (int i = j + 1; i < n; ++i) {
+                int ci = i * n;
+                double s = g[j + ci];
+                for (int k = 0; k < j; ++k) {
+                    s -= g[k + cj] * g[k + ci];
+                }
+                g[j + ci] = s / d;
+            }
+            for (int i = j + 1; i < n; ++i) {
+                g[i + cj] = 0.0;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The 1-norm (maximum absolute column sum) of the upper triangular
+     * column-major {@code n x n} array {@code r}.
+     */
+    private static double norm1(double[] r, int n) {
+        double norm = 0.0;
+        for (int j = 0; j < n; ++j) {
+            int cj = j * n;
+            double sum = 0.0;
+            for (int i = 0; i <= j; ++i) {
+                sum += Math.abs(r[i + cj]);
+            }
+            norm = Math.max(norm, sum);
+        }
+        return norm;
+    }
+
+    private static MatrixD upperTriangularInverse(double[] r, int n) {
+        MatrixD Rinv = Matrices.createD(n, n);
+        double[] x = Rinv.getArrayUnsafe();
+        for (int j = 0; j < n; ++j) {
+            int cj = j * n;
+            x[j + cj] = 1.0 / r[j + cj];
+            for (int i = j - 1; i >= 0; --i) {
+                double s = 0.0;
+                for (int k = i + 1; k <= j; ++k) {
+                    s += r[i + k * n] * x[k + cj];
+                }
+                x[i + cj] = -s / r[i + i * n];
+            }
+        }
+        return Rinv;
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Computes an orthonormal basis for the columns of a tall {@code m x n}
+ * matrix ({@code m >= n}). See {@link Orthonormalization} for the available
+ * implementations.
+ */
+public interface Orthonormalizer {
+
+    /**
+     * Returns the {@code m x n} factor {@code Q} of the thin QR decomposition
+     * of {@code Y}.
+     *
+     * @param Y
+     *            a tall {@code m x n} matrix, it is not modified
+     * @return an {@code m x n} matrix with orthonormal columns that span the
+     *         column space of {@code Y}
+     */
+    MatrixD orthonormalize(MatrixD Y);
+
+    /**
+     * Returns the thin QR decomposition {@code Y = Q * R} as an array
+     * {@code {Q, R}} where {@code Q} is {@code m x n} with orthonormal columns
+     * and {@code R} is {@code n x n} upper triangular.
+     *
+     * @param Y
+     *            a tall {@code m x n} matrix, it is not modified
+     * @return the array {@code {Q, R}}
+     */
+    MatrixD[] factorize(MatrixD Y);
+}
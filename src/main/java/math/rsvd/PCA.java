@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Result of a principal component analysis. The {@code components} are the
+ * {@code k x n} principal axes (one per row), {@code mean} is the
+ * {@code 1 x n} row vector of the column means that has been subtracted.
+ */
+public class PCA {
+
+    public final MatrixD components;
+    public final double[] singularValues;
+    public final double[] explainedVariance;
+    public final double[] explainedVarianceRatio;
+    public final MatrixD mean;
+
+    public PCA(MatrixD components, double[] singularValues, double[] explainedVariance,
+            double[] explainedVarianceRatio, MatrixD mean) {
+        this.components = components;
+        this.singularValues = singularValues;
+        this.explainedVariance = explainedVariance;
+        this.explainedVarianceRatio = explainedVarianceRatio;
+        this.mean = mean;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * The phases of the randomized algorithms that get reported to a
+ * {@link PhaseListener}.
+ */
+public enum Phase {
+
+    /**
+     * Preparation of {@code A^T}. The transpose of a dense {@code A} is
+     * folded into the GEMM kernels and not materialized.
+     */
+    TRANSPOSE,
+    /** Multiplication of {@code A} with the random test matrix */
+    SKETCH,
+    /** A multiplication with {@code A} or {@code A^T} in a power iteration */
+    MULTIPLY,
+    /** LU normalization of a block between power iterations */
+    NORMALIZATION,
+    /** QR orthonormalization of a block */
+    ORTHONORMALIZATION,
+    /** Projection of {@code A} onto the basis, {@code B = Q^T * A} */
+    PROJECTION,
+    /** The SVD of the small matrix {@code B} */
+    SMALL_SVD,
+    /** Mapping of the small singular vectors back to the original space */
+    RECOMBINATION,
+    /** Extension of the basis by one vector in the adaptive range finder */
+    BASIS_EXTENSION,
+    /** Update of the probe vectors in the adaptive range finder */
+    PROBE_UPDATE
+}
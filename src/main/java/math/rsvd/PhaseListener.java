@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Receives per-phase timings and metrics from the algorithms that support
+ * instrumentation. Phases never nest, for a given thread each
+ * {@link #phaseStarted(Phase)} is followed by the corresponding
+ * {@link #phaseCompleted(PhaseStats)}. A listener that is shared between
+ * concurrent computations must be thread-safe.
+ */
+public interface PhaseListener {
+
+    /**
+     * Called at the start of a phase.
+     *
+     * @param phase
+     *            the phase that is about to start
+     */
+    void phaseStarted(Phase phase);
+
+    /**
+     * Called at the end of a phase.
+     *
+     * @param stats
+     *            the metrics of the completed phase
+     */
+    void phaseCompleted(PhaseStats stats);
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Forwards phase boundaries to a {@link PhaseListener}. Without a listener
+ * the shared {@link #NOOP} instance is used whose methods reduce to a single
+ * {@code null} check, so instrumentation can stay compiled in.
+ */
+final class PhaseRecorder {
+
+    static final PhaseRecorder NOOP = new PhaseRecorder(null);
+
+    private static final com.sun.management.ThreadMXBean THREAD_BEAN = threadBean();
+
+    private final PhaseListener listener;
+    private long startNanos;
+    private long startBytes;
+
+    private PhaseRecorder(PhaseListener listener) {
+        this.listener = listener;
+    }
+
+    static PhaseRecorder of(PhaseListener listener) {
+        return (listener == null) ? NOOP : new PhaseRecorder(listener);
+    }
+
+    boolean isEnabled() {
+        return listener != null;
+    }
+
+    void start(Phase phase) {
+        if (listener != null) {
+            listener.phaseStarted(phase);
+            startBytes = allocatedBytes();
+            startNanos = System.nanoTime();
+        }
+    }
+
+    void stop(Phase phase, int iteration, double flops, int passes, int basisSize) {
+        if (listener != null) {
+            long nanos = System.nanoTime() - startNanos;
+            long bytes = allocatedBytes();
+            if (bytes >= 0L && startBytes >= 0L) {
+                bytes -= startBytes;
+            } else {
+                bytes = -1L;
+            }
+            listener.phaseCompleted(new PhaseStats(phase, iteration, nanos, flops, passes, bytes, basisSize));
+        }
+    }
+
+    /** Flops of {@code (m x k) * (k x n)} */
+    static double gemm(int m, int k, int n) {
+        return 2.0 * m * k * n;
+    }
+
+    /** Flops of the LU decomposition of an {@code m x n} matrix */
+    static double lu(int m, int n) {
+        double r = Math.max(m, n);
+        double c = Math.min(m, n);
+        return r * c * c - (c * c * c) / 3.0;
+    }
+
+    /** Flops of the Householder QR of a tall {@code m x n} matrix incl. Q */
+    static double qr(int m, int n) {
+        return 4.0 * m * (double) n * n - (4.0 * n * (double) n * n) / 3.0;
+    }
+
+    /** Flops of the economy SVD of an {@code m x n} matrix incl. U and V */
+    static double svd(int m, int n) {
+        double r = Math.max(m, n);
+        double c = Math.min(m, n);
+        return 4.0 * r * c * c + 22.0 * c * c * c;
+    }
+
+    static long allocatedBytes() {
+        if (THREAD_BEAN != null) {
+            return THREAD_BEAN.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return -1L;
+    }
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        try {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean sunBean = (com.sun.management.ThreadMXBean) bean;
+                if (sunBean.isThreadAllocatedMemorySupported() && sunBean.isThreadAllocatedMemoryEnabled()) {
+                    return sunBean;
+                }
+            }
+        } catch (Throwable ignore) {
+            // com.sun.management isn't available on this JVM
+        }
+        return null;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Metrics of a single completed {@link Phase}.
+ */
+public class PhaseStats {
+
+    /** The phase */
+    public final Phase phase;
+    /** The iteration in which the phase occurred (0-based) */
+    public final int iteration;
+    /** Wall clock time in nanoseconds */
+    public final long nanos;
+    /** Estimated number of floating point operations */
+    public final double flops;
+    /** Number of passes over the input matrix {@code A} */
+    public final int passes;
+    /**
+     * Bytes allocated by the current thread during the phase or {@code -1} if
+     * the JVM doesn't support allocation accounting
+     */
+    public final long bytesAllocated;
+    /** The number of columns of the basis after the phase */
+    public final int basisSize;
+
+    public PhaseStats(Phase phase, int iteration, long nanos, double flops, int passes, long bytesAllocated,
+            int basisSize) {
+        this.phase = phase;
+        this.iteration = iteration;
+        this.nanos = nanos;
+        this.flops = flops;
+        this.passes = passes;
+        this.bytesAllocated = bytesAllocated;
+        this.basisSize = basisSize;
+    }
+
+    @Override
+    public String toString() {
+        return phase + "[iteration=" + iteration + ", nanos=" + nanos + ", flops=" + flops + ", passes=" + passes
+                + ", bytesAllocated=" + bytesAllocated + ", basisSize=" + basisSize + "]";
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Truncated Householder QR with column pivoting for the (small) sketch
+ * matrices of the interpolative decompositions. Only the first {@code rank}
+ * rows of R are computed, Q is never formed.
+ */
+final class PivotedQR {
+
+    /** The IEEE 754 machine epsilon from Cephes: (2^-53) */
+    private static final double MACH_EPS_DBL = 1.11022302462515654042e-16;
+
+    private final int rows;
+    private final int cols;
+    private final int[] pivots;
+    // column-major rows x cols working array, R in its upper triangle
+    private final double[] a;
+    private int rank;
+
+    PivotedQR(MatrixD Y, int maxRank) {
+        rows = Y.numRows();
+        cols = Y.numColumns();
+        a = Y.copy().getArrayUnsafe();
+        pivots = new int[cols];
+        for (int j = 0; j < cols; ++j) {
+            pivots[j] = j;
+        }
+        decompose(Math.min(maxRank, Math.min(rows, cols)));
+    }
+
+    /**
+     * The permutation of the column indices, the first {@link #rank()} entries
+     * are the selected columns.
+     */
+    int[] pivots() {
+        return pivots;
+    }
+
+    /**
+     * The numerical rank detected during the factorization, at most the
+     * {@code maxRank} requested.
+     */
+    int rank() {
+        return rank;
+    }
+
+    /**
+     * The indices of the {@link #rank()} selected columns.
+     */
+    int[] selectedColumns() {
+        int[] selected = new int[rank];
+        System.arraycopy(pivots, 0, selected, 0, rank);
+        return selected;
+    }
+
+    /**
+     * Returns the {@code rank x cols} interpolation matrix X such that
+     * {@code Y ~ Y(:, selectedColumns()) * X}.
+     */
+    MatrixD interpolationMatrix() {
+        int k = rank;
+        MatrixD X = Matrices.createD(k, cols);
+        for (int j = 0; j < k; ++j) {
+            X.setUnsafe(j, pivots[j], 1.0);
+        }
+        // T = R11^-1 * R12 by back substitution, column by column
+        double[] t = new double[k];
+        for (int j = k; j < cols; ++j) {
+            for (int i = k - 1; i >= 0; --i) {
+                double sum = a[i + j * rows];
+                for (int l = i + 1; l < k; ++l) {
+                    sum -= a[i + l * rows] * t[l];
+                }
+                t[i] = sum / a[i + i * rows];
+            }
+            int col = pivots[j];
+            for (int i = 0; i < k; ++i) {
+                X.setUnsafe(i, col, t[i]);
+            }
+        }
+        return X;
+    }
+
+    private void decompose(int maxSteps) {
+        final int m = rows;
+        final int n = cols;
+        final double[] a = this.a;
+        double[] norms = new double[n];
+        double[] origNorms = new double[n];
+        for (int j = 0; j < n; ++j) {
+            double sum = 0.0;
+            for (int i = 0, idx = j * m; i < m; ++i, ++idx) {
+                sum += a[idx] * a[idx];
+            }
+            norms[j] = sum;
+            origNorms[j] = sum;
+        }
+        double tolerance = 0.0;
+        int s = 0;
+        for (; s < maxSteps; ++s) {
+            int p = s;
+            for (int j = s + 1; j < n; ++j) {
+                if (norms[j] > norms[p]) {
+                    p = j;
+                }
+            }
+            double pivotNorm = Math.sqrt(norms[p]);
+            if (s == 0) {
+                tolerance = Math.max(m, n) * 1024.0 * MACH_EPS_DBL * pivotNorm;
+            }
+            if (pivotNorm <= tolerance) {
+                break;
+            }
+            if (p != s) {
+                swapColumns(s, p);
+                double tmp = norms[s];
+                norms[s] = norms[p];
+                norms[p] = tmp;
+                tmp = origNorms[s];
+                origNorms[s] = origNorms[p];
+                origNorms[p] = tmp;
+                int ip = pivots[s];
+                pivots[s] = pivots[p];
+                pivots[p] = ip;
+            }
+            // Householder reflector for a(s:m, s)
+            int cs = s * m;
+            double alpha = 0.0;
+            for (int i = s; i < m; ++i) {
+                alpha += a[i + cs] * a[i + cs];
+            }
+            alpha = Math.sqrt(alpha);
+            if (a[s + cs] > 0.0) {
+                alpha = -alpha;
+            }
+            a[s + cs] -= alpha;
+            double vTv = 0.0;
+            for (int i = s; i < m; ++i) {
+                vTv += a[i + cs] * a[i + cs];
+            }
+            if (vTv > 0.0) {
+                for (int j = s + 1; j < n; ++j) {
+                    int cj = j * m;
+                    double dot = 0.0;
+                    for (int i = s; i < m; ++i) {
+                        dot += a[i + cs] * a[i + cj];
+                    }
+                    double f = 2.0 * dot / vTv;
+                    for (int i = s; i < m; ++i) {
+                        a[i + cj] -= f * a[i + cs];
+                    }
+                }
+            }
+            a[s + cs] = alpha;
+            for (int i = s + 1; i < m; ++i) {
+                a[i + cs] = 0.0;
+            }
+            // downdate the remaining column norms
+            for (int j = s + 1; j < n; ++j) {
+                double r = a[s + j * m];
+                double rem = norms[j] - r * r;
+                if (rem <= 1.0e-6 * origNorms[j]) {
+                    // cancellation, recompute from scratch
+                    rem = 0.0;
+                    for (int i = s + 1, idx = s + 1 + j * m; i < m; ++i, ++idx) {
+                        rem += a[idx] * a[idx];
+                    }
+                    origNorms[j] = rem;
+                }
+                norms[j] = rem;
+            }
+        }
+        rank = s;
+    }
+
+    private void swapColumns(int j, int k) {
+        final int m = rows;
+        for (int i = 0, x = j * m, y = k * m; i < m; ++i, ++x, ++y) {
+            double tmp = a[x];
+            a[x] = a[y];
+            a[y] = tmp;
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Receives progress notifications from an asynchronous computation. Called
+ * on the thread that runs the computation after each completed phase.
+ */
+public interface ProgressListener {
+
+    /**
+     * Called after each completed phase.
+     *
+     * @param passesCompleted
+     *            the number of passes over {@code A} completed so far
+     * @param passesTotal
+     *            the (expected) total number of passes over {@code A}
+     * @param stats
+     *            the metrics of the phase that just completed
+     */
+    void progress(int passesCompleted, int passesTotal, PhaseStats stats);
+}
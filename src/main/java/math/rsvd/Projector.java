@@ -0,0 +1,333 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Projects row vectors onto the top {@code k} right singular vectors of a
+ * computed {@link SVD} (LSI fold-in) or onto the principal axes of a
+ * {@link PCA} (PCA transform), optionally whitened, i.e. divided by the
+ * singular values (respectively by the standard deviations of the
+ * components).
+ * <p>
+ * The {@code k x n} projection matrix (with the whitening scale folded in)
+ * and the offset of the mean are computed once in the constructor, so a
+ * batch of {@code b} vectors is projected with a single {@code b x n} by
+ * {@code n x k} GEMM into a caller-provided {@code b x k} buffer, and a
+ * single (dense or sparse) vector with a level-1 kernel, all without
+ * allocating. A {@code Projector} is immutable once the backend has been
+ * set and can be shared by any number of concurrent threads provided each
+ * thread uses its own output buffers.
+ */
+public final class Projector {
+
+    // k x n: Vt with row j divided by the whitening scale of component j
+    private final MatrixD P;
+    // P * mean^T or null if there is no mean to subtract
+    private final double[] offset;
+    private final int k;
+    private final int n;
+    private volatile ComputeBackend backend = ComputeBackend.getDefault();
+
+    /**
+     * Creates a projector onto all right singular vectors of {@code svd}.
+     *
+     * @param svd
+     *            the SVD
+     * @param whiten
+     *            whether to divide the projections by the singular values
+     */
+    public Projector(SVD svd, boolean whiten) {
+        this(svd, svd.Vt.numRows(), whiten);
+    }
+
+    /**
+     * Creates a projector onto the top {@code k} right singular vectors of
+     * {@code svd}.
+     *
+     * @param svd
+     *            the SVD
+     * @param k
+     *            the number of right singular vectors to project onto
+     * @param whiten
+     *            whether to divide the projections by the singular values
+     */
+    public Projector(SVD svd, int k, boolean whiten) {
+        this(svd.Vt, k, whiten ? diagonal(svd.S, k) : null, null);
+    }
+
+    /**
+     * Creates a projector that centers the vectors by the mean of the
+     * {@code pca} and projects them onto its principal axes.
+     *
+     * @param pca
+     *            the PCA
+     * @param whiten
+     *            whether to divide the projections by the square roots of the
+     *            explained variances, so that they have unit variance
+     */
+    public Projector(PCA pca, boolean whiten) {
+        this(pca.components, pca.components.numRows(), whiten ? standardDeviations(pca) : null, pca.mean);
+    }
+
+    private Projector(MatrixD Vt, int k, double[] scale, MatrixD mean) {
+        if (k < 1 || k > Vt.numRows()) {
+            throw new IllegalArgumentException("k must be between 1 and " + Vt.numRows() + ": " + k);
+        }
+        this.k = k;
+        this.n = Vt.numColumns();
+        P = Vt.selectSubmatrix(0, 0, k - 1, n - 1);
+        if (scale != null) {
+            double[] p = P.getArrayUnsafe();
+            for (int j = 0; j < k; ++j) {
+                if (!(scale[j] > 0.0)) {
+                    throw new IllegalArgumentException("can't whiten component " + j + " with scale " + scale[j]);
+                }
+                double s = 1.0 / scale[j];
+                for (int i = j; i < p.length; i += k) {
+                    p[i] *= s;
+                }
+            }
+        }
+        if (mean != null) {
+            offset = new double[k];
+            project(mean.getArrayUnsafe(), offset, P.getArrayUnsafe());
+        } else {
+            offset = null;
+        }
+    }
+
+    /**
+     * Selects the backend used for the batch GEMM. Should be called before
+     * the projector gets shared.
+     *
+     * @param backend
+     *            the backend
+     * @return this
+     */
+    public Projector setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    /**
+     * The number of components {@code k} of a projection.
+     *
+     * @return {@code k}
+     */
+    public int numComponents() {
+        return k;
+    }
+
+    /**
+     * The length {@code n} of the vectors that can be projected.
+     *
+     * @return {@code n}
+     */
+    public int dimension() {
+        return n;
+    }
+
+    /**
+     * Projects the rows of the {@code b x n} matrix {@code X} into the rows
+     * of the {@code b x k} matrix {@code Y}.
+     *
+     * @param X
+     *            the batch of vectors, one per row
+     * @param Y
+     *            the {@code b x k} result buffer
+     * @return {@code Y}
+     */
+    public MatrixD project(MatrixD X, MatrixD Y) {
+        int b = X.numRows();
+        if (X.numColumns() != n) {
+            throw new IllegalArgumentException("X has " + X.numColumns() + " columns, expected " + n);
+        }
+        if (Y.numRows() != b || Y.numColumns() != k) {
+            throw new IllegalArgumentException(
+                    "Y is " + Y.numRows() + " x " + Y.numColumns() + " but must be " + b + " x " + k);
+        }
+        backend.transBmult(X, P, Y);
+        if (offset != null) {
+            double[] y = Y.getArrayUnsafe();
+            for (int j = 0; j < k; ++j) {
+                double o = offset[j];
+                for (int i = j * b; i < (j + 1) * b; ++i) {
+                    y[i] -= o;
+                }
+            }
+        }
+        return Y;
+    }
+
+    /**
+     * Projects the rows of the {@code b x n} matrix {@code X} into a newly
+     * allocated {@code b x k} matrix.
+     *
+     * @param X
+     *            the batch of vectors, one per row
+     * @return the {@code b x k} projections
+     */
+    public MatrixD project(MatrixD X) {
+        return project(X, Matrices.createD(X.numRows(), k));
+    }
+
+    /**
+     * Projects the dense vector {@code x} of length {@code n} into
+     * {@code y}.
+     *
+     * @param x
+     *            the vector
+     * @param y
+     *            the result buffer of length {@code k}
+     * @return {@code y}
+     */
+    public double[] project(double[] x, double[] y) {
+        if (x.length != n) {
+            throw new IllegalArgumentException("x has length " + x.length + ", expected " + n);
+        }
+        checkLength(y);
+        Arrays.fill(y, 0, k, 0.0);
+        project(x, y, P.getArrayUnsafe());
+        subtractOffset(y, 0, 1);
+        return y;
+    }
+
+    /**
+     * Projects the sparse vector of length {@code n} whose {@code nnz}
+     * non-zero entries are {@code values[i]} at {@code indices[i]} into
+     * {@code y}. The cost is {@code O(nnz * k)}.
+     *
+     * @param indices
+     *            the indices of the non-zero entries
+     * @param values
+     *            the non-zero entries
+     * @param nnz
+     *            the number of non-zero entries
+     * @param y
+     *            the result buffer of length {@code k}
+     * @return {@code y}
+     */
+    public double[] project(int[] indices, double[] values, int nnz, double[] y) {
+        checkLength(y);
+        Arrays.fill(y, 0, k, 0.0);
+        accumulate(indices, values, 0, nnz, y, 0, 1);
+        subtractOffset(y, 0, 1);
+        return y;
+    }
+
+    /**
+     * Projects a batch of {@code b} sparse vectors in compressed sparse row
+     * format into the rows of the {@code b x k} matrix {@code Y}. The
+     * non-zero entries of row {@code r} are {@code values[i]} at column
+     * {@code indices[i]} for {@code rowPtr[r] <= i < rowPtr[r + 1]}.
+     *
+     * @param rowPtr
+     *            the {@code b + 1} row pointers
+     * @param indices
+     *            the column indices of the non-zero entries
+     * @param values
+     *            the non-zero entries
+     * @param Y
+     *            the {@code b x k} result buffer
+     * @return {@code Y}
+     */
+    public MatrixD project(int[] rowPtr, int[] indices, double[] values, MatrixD Y) {
+        int b = rowPtr.length - 1;
+        if (Y.numRows() != b || Y.numColumns() != k) {
+            throw new IllegalArgumentException(
+                    "Y is " + Y.numRows() + " x " + Y.numColumns() + " but must be " + b + " x " + k);
+        }
+        double[] y = Y.getArrayUnsafe();
+        Arrays.fill(y, 0.0);
+        for (int r = 0; r < b; ++r) {
+            accumulate(indices, values, rowPtr[r], rowPtr[r + 1], y, r, b);
+            subtractOffset(y, r, b);
+        }
+        return Y;
+    }
+
+    // y += P * x, column i of P is contiguous
+    private void project(double[] x, double[] y, double[] p) {
+        for (int i = 0; i < n; ++i) {
+            double xi = x[i];
+            if (xi != 0.0) {
+                Kernels.axpy(xi, p, i * k, y, 0, k);
+            }
+        }
+    }
+
+    // y[off + j * stride] += sum_i values[i] * P[j, indices[i]] for from <= i < to
+    private void accumulate(int[] indices, double[] values, int from, int to, double[] y, int off, int stride) {
+        double[] p = P.getArrayUnsafe();
+        if (stride == 1) {
+            for (int i = from; i < to; ++i) {
+                Kernels.axpy(values[i], p, column(indices[i]), y, off, k);
+            }
+        } else {
+            for (int i = from; i < to; ++i) {
+                double v = values[i];
+                int col = column(indices[i]);
+                for (int j = 0; j < k; ++j) {
+                    y[off + j * stride] += v * p[col + j];
+                }
+            }
+        }
+    }
+
+    private int column(int index) {
+        if (index < 0 || index >= n) {
+            throw new IndexOutOfBoundsException("index " + index + " out of range [0, " + n + ")");
+        }
+        return index * k;
+    }
+
+    private void subtractOffset(double[] y, int off, int stride) {
+        if (offset != null) {
+            for (int j = 0; j < k; ++j) {
+                y[off + j * stride] -= offset[j];
+            }
+        }
+    }
+
+    private void checkLength(double[] y) {
+        if (y.length < k) {
+            throw new IllegalArgumentException("y has length " + y.length + ", expected at least " + k);
+        }
+    }
+
+    private static double[] diagonal(MatrixD S, int k) {
+        double[] sigma = new double[Math.max(k, 0)];
+        int r = Math.min(sigma.length, Math.min(S.numRows(), S.numColumns()));
+        for (int j = 0; j < r; ++j) {
+            sigma[j] = S.get(j, j);
+        }
+        return sigma;
+    }
+
+    private static double[] standardDeviations(PCA pca) {
+        double[] sd = new double[pca.explainedVariance.length];
+        for (int j = 0; j < sd.length; ++j) {
+            sd[j] = Math.sqrt(pca.explainedVariance[j]);
+        }
+        return sd;
+    }
+}
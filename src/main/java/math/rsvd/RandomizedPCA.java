@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import net.jamu.matrix.SvdD;
+
+/**
+ * Randomized PCA of the rows (observations) of {@code A}. The centered matrix
+ * {@code A - 1 * mu^T} is never formed, it only enters as an implicit operator
+ * in the sketch, the power iterations and the projection {@code B = Q^T * A}.
+ * <p>
+ * Section 4.5 from Nathan Halko, Per-Gunnar Martinsson, and Joel A Tropp.
+ * Finding structure with randomness: Probabilistic algorithms for constructing
+ * approximate matrix decompositions. SIAM review, 53(2):217-288, 2011.
+ */
+public class RandomizedPCA {
+
+    // Oversampling parameter
+    private static final int P = 5;
+    // Number of power iterations
+    private static final int ITERATIONS = 4;
+
+    private final MatrixD A;
+    private final int m;
+    private final int n;
+    private final int numComponents;
+
+    public RandomizedPCA(MatrixD A, int numComponents) {
+        if (numComponents < 1) {
+            throw new IllegalArgumentException("numComponents: " + numComponents);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.m = A.numRows();
+        this.n = A.numColumns();
+        this.numComponents = Math.min(numComponents, Math.min(m, n));
+    }
+
+    public PCA computePCA() {
+        // mu: 1 x n
+        MatrixD mu = Matrices.sumRows(A).scaleInplace(1.0 / m);
+        int l = Math.min(numComponents + P, Math.min(m, n));
+
+        MatrixD Y = Matrices.createD(m, l);
+        MatrixD Z = Matrices.createD(n, l);
+        MatrixD Omega = Matrices.randomUniformD(n, l, -1.0, 1.0);
+
+        MatrixD Q = centeredMult(mu, Omega, Y).lud().getPL();
+        for (int i = 0; i < ITERATIONS; ++i) {
+            Q = centeredTransMult(mu, Q, Z).lud().getPL();
+            Q = centeredMult(mu, Q, Y).lud().getPL();
+        }
+        Q = Q.qrd().getQ();
+
+        // B = Q^T * (A - 1 * mu^T) = Q^T * A - (Q^T * 1) * mu^T : l x n
+        MatrixD B = Matrices.createD(l, n);
+        Q.transAmult(A, B);
+        MatrixD QTones = Matrices.sumRows(Q).transpose();
+        B.addInplace(-1.0, QTones.times(mu));
+
+        SvdD svd = B.svdEcon();
+        double[] sigma = Arrays.copyOf(svd.getS(), numComponents);
+        MatrixD components = svd.getVt().selectSubmatrix(0, 0, numComponents - 1, n - 1);
+
+        double dof = Math.max(m - 1, 1);
+        double totalVariance = centeredSumOfSquares(mu) / dof;
+        double[] explainedVariance = new double[numComponents];
+        double[] explainedVarianceRatio = new double[numComponents];
+        for (int i = 0; i < numComponents; ++i) {
+            explainedVariance[i] = (sigma[i] * sigma[i]) / dof;
+            explainedVarianceRatio[i] = (totalVariance > 0.0) ? explainedVariance[i] / totalVariance : 0.0;
+        }
+        return new PCA(components, sigma, explainedVariance, explainedVarianceRatio, mu);
+    }
+
+    // sum_ij (a_ij - mu_j)^2 without forming the centered matrix,
+    // ||A||_F^2 - m * ||mu||^2 would cancel when |mu| >> std
+    private double centeredSumOfSquares(MatrixD mu) {
+        double[] a = A.getArrayUnsafe();
+        double[] mean = mu.getArrayUnsafe();
+        double sum = 0.0;
+        for (int j = 0; j < n; ++j) {
+            double mu_j = mean[j];
+            for (int i = j * m; i < (j + 1) * m; ++i) {
+                double d = a[i] - mu_j;
+                sum += d * d;
+            }
+        }
+        return sum;
+    }
+
+    // (A - 1 * mu^T) * X = A * X - 1 * (mu^T * X)
+    private MatrixD centeredMult(MatrixD mu, MatrixD X, MatrixD Y) {
+        A.mult(X, Y);
+        MatrixD muX = mu.times(X);
+        return Y.addBroadcastedRowVectorInplace(muX.scaleInplace(-1.0));
+    }
+
+    // (A - 1 * mu^T)^T * Y = A^T * Y - mu * (1^T * Y)
+    private MatrixD centeredTransMult(MatrixD mu, MatrixD Y, MatrixD Z) {
+        A.transAmult(Y, Z);
+        MatrixD colSums = Matrices.sumRows(Y);
+        return Z.addInplace(-1.0, mu.transpose().times(colSums));
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A cache for {@link ApproximateBasis} results with a least recently used
+ * eviction policy that is bounded by the number of bytes of the cached
+ * matrices.
+ * <p>
+ * Entries are keyed by the identity of the matrix {@code A} (which is only
+ * weakly referenced), a caller-supplied version of {@code A} and the
+ * {@link Orthonormalizer}. The caller must change the version whenever the
+ * content of {@code A} changes. The entries of a matrix that has been garbage
+ * collected are dropped on the next access of the cache. An entry holds the
+ * sketch and the SVD of the
+ * largest rank computed so far:
+ * <ul>
+ * <li>a request for a smaller or equal rank is a hit and gets answered by
+ * truncating the cached SVD,</li>
+ * <li>a request for a larger rank is an extension: the cached sketch gets
+ * extended by the missing columns and the power iterations are rerun,</li>
+ * <li>everything else is a miss.</li>
+ * </ul>
+ * The returned {@code SVD}s are copies, so callers may modify them.
+ * <p>
+ * All methods are thread-safe. The computations run outside of the lock, so
+ * concurrent requests for the same key may both compute.
+ */
+public final class SVDCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    // the keys of collected matrices
+    private final ReferenceQueue<MatrixD> collected = new ReferenceQueue<>();
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long extensions;
+    private long evictions;
+
+    /**
+     * Creates a cache that holds at most {@code maxBytes} bytes of matrix
+     * data.
+     *
+     * @param maxBytes
+     *            the upper bound for the size of the cached matrices
+     */
+    public SVDCache(long maxBytes) {
+        if (maxBytes < 0L) {
+            throw new IllegalArgumentException("negative maxBytes: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public SVD computeSVD(MatrixD A, long version, int estimatedRank) {
+        return computeSVD(A, version, estimatedRank, Orthonormalization.HOUSEHOLDER);
+    }
+
+    public SVD computeSVD(MatrixD A, long version, int estimatedRank, Orthonormalizer orthonormalizer) {
+        if (estimatedRank < 0) {
+            throw new IllegalArgumentException("estimatedRank: " + estimatedRank);
+        }
+        Key key = new Key(A, version, orthonormalizer, collected);
+        int rank = Math.min(estimatedRank, Math.min(A.numRows(), A.numColumns()));
+        MatrixD sketch = null;
+        SVD cached = null;
+        synchronized (this) {
+            expungeCollected();
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (rank <= entry.rank()) {
+                    ++hits;
+                    cached = entry.svd;
+                } else {
+                    ++extensions;
+                    sketch = entry.sketch;
+                }
+            } else {
+                ++misses;
+            }
+        }
+        if (cached != null) {
+            // the cached matrices are never modified, copying needs no lock
+            return truncate(cached, rank);
+        }
+        ApproximateBasis basis = new ApproximateBasis(A, rank, orthonormalizer).setSketch(sketch);
+        SVD svd = basis.computeSVD();
+        put(key, new Entry(basis.getSketch(), svd));
+        return copy(svd);
+    }
+
+    /**
+     * Removes all entries of the matrix {@code A}, regardless of their version.
+     *
+     * @param A
+     *            the matrix whose entries should be removed
+     */
+    public synchronized void invalidate(MatrixD A) {
+        expungeCollected();
+        for (Iterator<Map.Entry<Key, Entry>> it = entries.entrySet().iterator(); it.hasNext();) {
+            Map.Entry<Key, Entry> e = it.next();
+            if (e.getKey().get() == A) {
+                bytes -= e.getValue().bytes;
+                it.remove();
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        bytes = 0L;
+    }
+
+    public synchronized int size() {
+        expungeCollected();
+        return entries.size();
+    }
+
+    public synchronized long getBytes() {
+        expungeCollected();
+        return bytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getExtensions() {
+        return extensions;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "SVDCache [entries=" + entries.size() + ", bytes=" + bytes + ", maxBytes=" + maxBytes + ", hits="
+                + hits + ", misses=" + misses + ", extensions=" + extensions + ", evictions=" + evictions + "]";
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        expungeCollected();
+        Entry old = entries.get(key);
+        if (old != null) {
+            if (old.rank() >= entry.rank()) {
+                // a concurrent computation was at least as good
+                return;
+            }
+            bytes -= old.bytes;
+        }
+        entries.put(key, entry);
+        bytes += entry.bytes;
+        for (Iterator<Entry> it = entries.values().iterator(); bytes > maxBytes && it.hasNext();) {
+            bytes -= it.next().bytes;
+            it.remove();
+            ++evictions;
+        }
+    }
+
+    // removes the entries of collected matrices, the caller must hold the lock
+    private void expungeCollected() {
+        for (Reference<? extends MatrixD> ref; (ref = collected.poll()) != null;) {
+            Entry entry = entries.remove(ref);
+            if (entry != null) {
+                bytes -= entry.bytes;
+            }
+        }
+    }
+
+    private static SVD copy(SVD svd) {
+        return new SVD(svd.U.copy(), svd.S.copy(), svd.Vt.copy());
+    }
+
+    private static SVD truncate(SVD svd, int k) {
+        if (k >= svd.U.numColumns()) {
+            return copy(svd);
+        }
+        double[] sigma = new double[k];
+        for (int i = 0; i < k; ++i) {
+            sigma[i] = svd.S.getUnsafe(i, i);
+        }
+        MatrixD U = svd.U.selectConsecutiveColumns(0, k - 1);
+        MatrixD Vt = svd.Vt.selectSubmatrix(0, 0, k - 1, svd.Vt.endCol());
+        return new SVD(U, Matrices.diagD(k, k, sigma), Vt);
+    }
+
+    private static long bytes(MatrixD M) {
+        return (M == null) ? 0L : 8L * M.numRows() * M.numColumns();
+    }
+
+    private static final class Entry {
+        final MatrixD sketch;
+        final SVD svd;
+        final long bytes;
+
+        Entry(MatrixD sketch, SVD svd) {
+            this.sketch = sketch;
+            this.svd = svd;
+            this.bytes = bytes(sketch) + bytes(svd.U) + bytes(svd.S) + bytes(svd.Vt);
+        }
+
+        int rank() {
+            return svd.U.numColumns();
+        }
+    }
+
+    // a collected key is only equal to itself, so it can still be removed
+    private static final class Key extends WeakReference<MatrixD> {
+        final long version;
+        final Orthonormalizer orthonormalizer;
+        final int hash;
+
+        Key(MatrixD A, long version, Orthonormalizer orthonormalizer, ReferenceQueue<MatrixD> queue) {
+            super(Objects.requireNonNull(A), queue);
+            this.version = version;
+            this.orthonormalizer = Objects.requireNonNull(orthonormalizer);
+            this.hash = 31 * (31 * System.identityHashCode(A) + Long.hashCode(version)) + orthonormalizer.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            MatrixD A = get();
+            return A != null && A == other.get() && version == other.version
+                    && orthonormalizer.equals(other.orthonormalizer);
+        }
+    }
+}
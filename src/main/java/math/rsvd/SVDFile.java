@@ -0,0 +1,353 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A versioned binary file format for {@link SVD} results that can be opened
+ * by memory mapping, i.e. without copying the factors into the Java heap.
+ * Any number of processes that open the same file share the page cache, and
+ * opening a file costs next to nothing regardless of its size.
+ * <p>
+ * All numbers are little-endian. The file starts with a 64 byte header
+ * followed by the name of the algorithm; the data sections that follow
+ * are aligned on 64 byte boundaries:
+ *
+ * <pre>
+ *  offset  type     content
+ *       0  int      magic "RSVD" (0x44565352)
+ *       4  int      version (1)
+ *       8  int      m, the number of rows of U
+ *      12  int      n, the number of columns of Vt
+ *      16  int      k, the rank
+ *      20  int      length of the UTF-8 encoded algorithm name
+ *      24  long     seed
+ *      32  double   error estimate (NaN if unknown)
+ *      40  long     offset of sigma (k doubles)
+ *      48  long     offset of U (m x k, column-major)
+ *      56  long     offset of Vt (k x n, column-major)
+ *      64  byte[]   the algorithm name
+ * </pre>
+ *
+ * Files are written sequentially through a small buffer, so the target may
+ * be any {@link WritableByteChannel}, e.g. a socket or a pipe.
+ */
+public final class SVDFile {
+
+    /** The magic number at the start of every file, "RSVD" in ASCII */
+    public static final int MAGIC = 0x44565352;
+    /** The version of the format written by this class */
+    public static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int ALIGNMENT = 64;
+    // doubles per chunk when writing
+    private static final int CHUNK = 1 << 13;
+
+    /**
+     * The metadata stored along with the factors.
+     */
+    public static final class Metadata {
+
+        /** The name of the algorithm that computed the SVD */
+        public final String algorithm;
+        /** The seed of the random number generator, if any */
+        public final long seed;
+        /** An estimate of the approximation error or {@code NaN} */
+        public final double errorEstimate;
+
+        public Metadata(String algorithm, long seed, double errorEstimate) {
+            this.algorithm = Objects.requireNonNull(algorithm);
+            this.seed = seed;
+            this.errorEstimate = errorEstimate;
+        }
+
+        @Override
+        public String toString() {
+            return "Metadata [algorithm=" + algorithm + ", seed=" + seed + ", errorEstimate=" + errorEstimate + "]";
+        }
+    }
+
+    private final Metadata metadata;
+    private final double[] sigma;
+    private final OffHeapMatrix U;
+    private final OffHeapMatrix Vt;
+
+    private SVDFile(Metadata metadata, double[] sigma, OffHeapMatrix U, OffHeapMatrix Vt) {
+        this.metadata = metadata;
+        this.sigma = sigma;
+        this.U = U;
+        this.Vt = Vt;
+    }
+
+    /**
+     * Writes {@code svd} and its {@code metadata} to the file {@code path},
+     * replacing an existing file.
+     *
+     * @param path
+     *            the file to write
+     * @param svd
+     *            the SVD
+     * @param metadata
+     *            the metadata
+     * @throws IOException
+     *             if an I/O error occurs
+     * @throws IllegalArgumentException
+     *             if the factors don't fit together or the rank is zero, the
+     *             file isn't touched then
+     */
+    public static void write(Path path, SVD svd, Metadata metadata) throws IOException {
+        checkSVD(svd);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            write(channel, svd, metadata);
+        }
+    }
+
+    /**
+     * Writes {@code svd} and its {@code metadata} to {@code channel}. The
+     * channel is not closed.
+     *
+     * @param channel
+     *            the target
+     * @param svd
+     *            the SVD
+     * @param metadata
+     *            the metadata
+     * @throws IOException
+     *             if an I/O error occurs
+     * @throws IllegalArgumentException
+     *             if the factors don't fit together or the rank is zero
+     */
+    public static void write(WritableByteChannel channel, SVD svd, Metadata metadata) throws IOException {
+        checkSVD(svd);
+        int m = svd.U.numRows();
+        int k = svd.U.numColumns();
+        int n = svd.Vt.numColumns();
+        byte[] algorithm = metadata.algorithm.getBytes(StandardCharsets.UTF_8);
+        long sigmaOffset = align(HEADER_BYTES + algorithm.length);
+        long uOffset = align(sigmaOffset + 8L * k);
+        long vtOffset = align(uOffset + 8L * m * k);
+
+        ByteBuffer buf = ByteBuffer.allocate(Math.max(8 * CHUNK, (int) sigmaOffset)).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(MAGIC).putInt(VERSION).putInt(m).putInt(n).putInt(k).putInt(algorithm.length);
+        buf.putLong(metadata.seed).putDouble(metadata.errorEstimate);
+        buf.putLong(sigmaOffset).putLong(uOffset).putLong(vtOffset);
+        buf.put(algorithm);
+        buf.position((int) sigmaOffset);
+        buf.flip();
+        writeFully(channel, buf);
+
+        double[] s = new double[k];
+        for (int i = 0; i < k; ++i) {
+            s[i] = svd.S.get(i, i);
+        }
+        long pos = sigmaOffset;
+        pos = writeDoubles(channel, buf, s, k, pos);
+        pos = pad(channel, buf, pos, uOffset);
+        pos = writeDoubles(channel, buf, svd.U.getArrayUnsafe(), m * k, pos);
+        pos = pad(channel, buf, pos, vtOffset);
+        writeDoubles(channel, buf, svd.Vt.getArrayUnsafe(), k * n, pos);
+    }
+
+    /**
+     * Opens the file {@code path} by memory mapping it read-only. The factors
+     * stay in the page cache and are accessed through {@link OffHeapMatrix}
+     * views, only the singular values get copied to the heap. The views are
+     * read-only ({@code set} throws a {@code ReadOnlyBufferException}) and
+     * the mapping stays valid until they become unreachable.
+     *
+     * @param path
+     *            the file to open
+     * @return the mapped file
+     * @throws IOException
+     *             if an I/O error occurs or the file isn't a valid SVD file
+     */
+    public static SVDFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES) {
+                throw new IOException("not an SVD file: " + path);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0L, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("not an SVD file: " + path);
+            }
+            int version = header.getInt();
+            if (version != VERSION) {
+                throw new IOException("unsupported version: " + version);
+            }
+            int m = header.getInt();
+            int n = header.getInt();
+            int k = header.getInt();
+            int nameLength = header.getInt();
+            long seed = header.getLong();
+            double errorEstimate = header.getDouble();
+            long sigmaOffset = header.getLong();
+            long uOffset = header.getLong();
+            long vtOffset = header.getLong();
+            if (m < 1 || n < 1 || k < 1 || nameLength < 0 || sigmaOffset < HEADER_BYTES + (long) nameLength
+                    || uOffset < sigmaOffset + 8L * k || vtOffset < uOffset + 8L * m * k
+                    || size < vtOffset + 8L * k * n) {
+                throw new IOException("corrupt SVD file: " + path);
+            }
+
+            ByteBuffer name = ByteBuffer.allocate(nameLength);
+            readFully(channel, name, HEADER_BYTES);
+            ByteBuffer s = ByteBuffer.allocate(8 * k).order(ByteOrder.LITTLE_ENDIAN);
+            readFully(channel, s, sigmaOffset);
+            double[] sigma = new double[k];
+            s.asDoubleBuffer().get(sigma);
+
+            Metadata metadata = new Metadata(new String(name.array(), StandardCharsets.UTF_8), seed, errorEstimate);
+            return new SVDFile(metadata, sigma, map(channel, uOffset, m, k), map(channel, vtOffset, k, n));
+        }
+    }
+
+    public Metadata getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * The number of singular triplets.
+     *
+     * @return the rank {@code k}
+     */
+    public int rank() {
+        return sigma.length;
+    }
+
+    public double[] getSingularValues() {
+        return sigma.clone();
+    }
+
+    /**
+     * The {@code k x k} diagonal matrix of the singular values.
+     *
+     * @return {@code S} on the heap
+     */
+    public MatrixD getS() {
+        return Matrices.diagD(sigma.length, sigma.length, sigma.clone());
+    }
+
+    /**
+     * The {@code m x k} left singular vectors, a read-only view of the
+     * mapped file.
+     *
+     * @return {@code U}
+     */
+    public OffHeapMatrix getU() {
+        return U;
+    }
+
+    /**
+     * The {@code k x n} right singular vectors (transposed), a read-only view
+     * of the mapped file.
+     *
+     * @return {@code Vt}
+     */
+    public OffHeapMatrix getVt() {
+        return Vt;
+    }
+
+    /**
+     * Copies the factors into the heap.
+     *
+     * @return the SVD as {@code MatrixD}s
+     */
+    public SVD toSVD() {
+        return new SVD(U.getSubmatrix(0, 0, U.numRows() - 1, U.numColumns() - 1), getS(),
+                Vt.getSubmatrix(0, 0, Vt.numRows() - 1, Vt.numColumns() - 1));
+    }
+
+    // maps a column-major rows x cols matrix in tiles of whole columns
+    private static OffHeapMatrix map(FileChannel channel, long offset, int rows, int cols) throws IOException {
+        int tileColumns = OffHeapMatrix.defaultTileColumns(rows, cols);
+        DoubleBuffer[] tiles = new DoubleBuffer[(cols + tileColumns - 1) / tileColumns];
+        for (int t = 0; t < tiles.length; ++t) {
+            int width = Math.min(tileColumns, cols - t * tileColumns);
+            long start = offset + 8L * rows * t * tileColumns;
+            tiles[t] = channel.map(FileChannel.MapMode.READ_ONLY, start, 8L * rows * width)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return new OffHeapMatrix(rows, cols, tileColumns, tiles);
+    }
+
+    // open() rejects files of rank 0, so they aren't written either
+    private static void checkSVD(SVD svd) {
+        int k = svd.U.numColumns();
+        if (k < 1 || svd.Vt.numRows() != k || svd.S.numRows() < k || svd.S.numColumns() < k) {
+            throw new IllegalArgumentException("inconsistent SVD: U is " + svd.U.numRows() + " x " + k + ", S is "
+                    + svd.S.numRows() + " x " + svd.S.numColumns() + ", Vt is " + svd.Vt.numRows() + " x "
+                    + svd.Vt.numColumns());
+        }
+    }
+
+    private static long writeDoubles(WritableByteChannel channel, ByteBuffer buf, double[] a, int len, long pos)
+            throws IOException {
+        for (int off = 0; off < len; off += CHUNK) {
+            int count = Math.min(CHUNK, len - off);
+            buf.clear();
+            buf.asDoubleBuffer().put(a, off, count);
+            buf.limit(8 * count);
+            writeFully(channel, buf);
+        }
+        return pos + 8L * len;
+    }
+
+    private static long pad(WritableByteChannel channel, ByteBuffer buf, long pos, long target) throws IOException {
+        buf.clear();
+        for (long i = pos; i < target; ++i) {
+            buf.put((byte) 0);
+        }
+        buf.flip();
+        writeFully(channel, buf);
+        return target;
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer buf) throws IOException {
+        while (buf.hasRemaining()) {
+            channel.write(buf);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buf, long position) throws IOException {
+        while (buf.hasRemaining()) {
+            if (channel.read(buf, position + buf.position()) < 0) {
+                throw new IOException("unexpected end of file");
+            }
+        }
+        buf.flip();
+    }
+
+    private static long align(long offset) {
+        return (offset + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Scalar level-1 kernels on column-major arrays.
+ */
+final class ScalarKernels {
+
+    static double dot(double[] x, int xOff, double[] y, int yOff, int len) {
+        double s = 0.0;
+        for (int i = 0; i < len; ++i) {
+            s += x[xOff + i] * y[yOff + i];
+        }
+        return s;
+    }
+
+    static void axpy(double a, double[] x, int xOff, double[] y, int yOff, int len) {
+        for (int i = 0; i < len; ++i) {
+            y[yOff + i] += a * x[xOff + i];
+        }
+    }
+
+    static void projectOut(double[] q, double[] Y, int m, int cols) {
+        for (int j = 0; j < cols; ++j) {
+            int off = j * m;
+            axpy(-dot(q, 0, Y, off, m), q, 0, Y, off, m);
+        }
+    }
+
+    private ScalarKernels() {
+        throw new AssertionError();
+    }
+}
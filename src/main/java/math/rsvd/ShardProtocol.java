@@ -0,0 +1,100 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * The wire protocol between {@link ShardedSVD} and its {@link ShardWorker}s.
+ * A request is an opcode followed by a matrix (except for {@link #CLOSE}), a
+ * reply is a status byte, the nanoseconds the worker spent computing and,
+ * depending on the request, a matrix. An error reply carries a message
+ * instead. Matrices are sent as their dimensions followed by the
+ * column-major elements in big-endian order.
+ */
+final class ShardProtocol {
+
+    /** Stores the row block of {@code A}, no result */
+    static final byte LOAD = 1;
+    /** {@code Y = A_i * W}, factorizes {@code Y = Q_i * R_i} and returns {@code R_i} */
+    static final byte MULTIPLY = 2;
+    /** {@code Q_i = Q_i * F_i}, returns {@code A_i^T * Q_i} */
+    static final byte PROJECT = 3;
+    /** Returns {@code Q_i * U} */
+    static final byte RECOMBINE = 4;
+    /** Ends the session */
+    static final byte CLOSE = 5;
+
+    static final byte OK = 0;
+    static final byte ERROR = 1;
+
+    /** The line a worker prints once it listens */
+    static final String PORT_PREFIX = "PORT ";
+
+    // doubles per chunk when (de)serializing
+    private static final int CHUNK = 1 << 13;
+
+    static long bytes(MatrixD A) {
+        return 8L + 8L * A.numRows() * A.numColumns();
+    }
+
+    static long writeMatrix(DataOutputStream out, MatrixD A) throws IOException {
+        out.writeInt(A.numRows());
+        out.writeInt(A.numColumns());
+        double[] a = A.getArrayUnsafe();
+        int len = A.numRows() * A.numColumns();
+        ByteBuffer buf = ByteBuffer.allocate(8 * Math.min(CHUNK, len));
+        DoubleBuffer doubles = buf.asDoubleBuffer();
+        for (int off = 0; off < len; off += CHUNK) {
+            int count = Math.min(CHUNK, len - off);
+            doubles.clear();
+            doubles.put(a, off, count);
+            out.write(buf.array(), 0, 8 * count);
+        }
+        return bytes(A);
+    }
+
+    static MatrixD readMatrix(DataInputStream in) throws IOException {
+        int rows = in.readInt();
+        int cols = in.readInt();
+        if (rows <= 0 || cols <= 0) {
+            throw new IOException("invalid matrix dimension: " + rows + " x " + cols);
+        }
+        MatrixD A = Matrices.createD(rows, cols);
+        double[] a = A.getArrayUnsafe();
+        int len = rows * cols;
+        ByteBuffer buf = ByteBuffer.allocate(8 * Math.min(CHUNK, len));
+        DoubleBuffer doubles = buf.asDoubleBuffer();
+        for (int off = 0; off < len; off += CHUNK) {
+            int count = Math.min(CHUNK, len - off);
+            in.readFully(buf.array(), 0, 8 * count);
+            doubles.clear();
+            doubles.get(a, off, count);
+        }
+        return A;
+    }
+
+    private ShardProtocol() {
+        throw new AssertionError();
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * Metrics of a single shard of a {@link ShardedSVD} computation.
+ */
+public class ShardStats {
+
+    /** The index of the shard (0-based) */
+    public final int shard;
+    /** The number of rows of {@code A} held by the shard */
+    public final int rows;
+    /** The number of requests sent to the shard */
+    public final int requests;
+    /** Nanoseconds the worker spent computing */
+    public final long computeNanos;
+    /**
+     * Nanoseconds from sending the requests until their replies were read,
+     * including transfer and waiting time
+     */
+    public final long roundTripNanos;
+    /** Bytes sent from the coordinator to the shard */
+    public final long bytesSent;
+    /** Bytes received by the coordinator from the shard */
+    public final long bytesReceived;
+
+    public ShardStats(int shard, int rows, int requests, long computeNanos, long roundTripNanos, long bytesSent,
+            long bytesReceived) {
+        this.shard = shard;
+        this.rows = rows;
+        this.requests = requests;
+        this.computeNanos = computeNanos;
+        this.roundTripNanos = roundTripNanos;
+        this.bytesSent = bytesSent;
+        this.bytesReceived = bytesReceived;
+    }
+
+    @Override
+    public String toString() {
+        return "Shard " + shard + "[rows=" + rows + ", requests=" + requests + ", computeNanos=" + computeNanos
+                + ", roundTripNanos=" + roundTripNanos + ", bytesSent=" + bytesSent + ", bytesReceived="
+                + bytesReceived + "]";
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A worker process of a {@link ShardedSVD}. It holds one row block
+ * {@code A_i} of {@code A} and the corresponding row block {@code Q_i} of the
+ * current basis and executes the requests of the coordinator on them.
+ * <p>
+ * Usage: {@code java -cp ... math.rsvd.ShardWorker [port [bindAddress]]}.
+ * The worker listens on the given port (default {@code 0}, an ephemeral port)
+ * of the given address (default: the loopback address), prints
+ * {@code PORT <port>} to standard output once it is ready and serves a
+ * single coordinator connection.
+ */
+public final class ShardWorker {
+
+    private final ComputeBackend backend = ComputeBackend.getDefault();
+    private MatrixD A;
+    private MatrixD Q;
+
+    public static void main(String[] args) throws IOException {
+        int port = (args.length > 0) ? Integer.parseInt(args[0]) : 0;
+        InetAddress address = (args.length > 1) ? InetAddress.getByName(args[1]) : InetAddress.getLoopbackAddress();
+        try (ServerSocket server = new ServerSocket(port, 1, address)) {
+            // load the native BLAS before the coordinator starts the next
+            // worker
+            Matrices.createD(2, 2).times(Matrices.createD(2, 2));
+            System.out.println(ShardProtocol.PORT_PREFIX + server.getLocalPort());
+            System.out.flush();
+            try (Socket socket = server.accept()) {
+                new ShardWorker().serve(socket);
+            }
+        }
+    }
+
+    /**
+     * Serves the requests arriving on {@code socket} until the coordinator
+     * closes the session.
+     */
+    void serve(Socket socket) throws IOException {
+        socket.setTcpNoDelay(true);
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        int op;
+        while ((op = in.read()) >= 0 && op != ShardProtocol.CLOSE) {
+            MatrixD arg = ShardProtocol.readMatrix(in);
+            long start = System.nanoTime();
+            MatrixD result = null;
+            try {
+                result = execute(op, arg);
+            } catch (RuntimeException e) {
+                out.writeByte(ShardProtocol.ERROR);
+                out.writeUTF(String.valueOf(e));
+                out.flush();
+                continue;
+            }
+            out.writeByte(ShardProtocol.OK);
+            out.writeLong(System.nanoTime() - start);
+            if (result != null) {
+                ShardProtocol.writeMatrix(out, result);
+            }
+            out.flush();
+        }
+    }
+
+    private MatrixD execute(int op, MatrixD arg) {
+        switch (op) {
+        case ShardProtocol.LOAD:
+            A = arg;
+            Q = null;
+            return null;
+        case ShardProtocol.MULTIPLY:
+            MatrixD[] QR = backend.qr(MatrixExpr.of(loaded()).times(arg).evaluate(backend));
+            Q = QR[0];
+            return QR[1];
+        case ShardProtocol.PROJECT:
+            Q = MatrixExpr.of(basis()).times(arg).evaluate(backend);
+            // A_i^T * Q_i
+            return MatrixExpr.of(loaded()).transpose().times(Q).evaluate(backend);
+        case ShardProtocol.RECOMBINE:
+            return MatrixExpr.of(basis()).times(arg).evaluate(backend);
+        default:
+            throw new IllegalArgumentException("unknown request: " + op);
+        }
+    }
+
+    private MatrixD loaded() {
+        if (A == null) {
+            throw new IllegalStateException("no row block loaded");
+        }
+        return A;
+    }
+
+    private MatrixD basis() {
+        if (Q == null) {
+            throw new IllegalStateException("no basis computed");
+        }
+        return Q;
+    }
+}
@@ -0,0 +1,507 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Row-sharded randomized SVD. Each {@link ShardWorker} process holds a row
+ * block {@code A_i} of {@code A} and computes its part of {@code A * W} and
+ * {@code A^T * Q}. The coordinator combines the parts over sockets:
+ * <ul>
+ * <li>the sketch {@code Y = A * W} gets orthonormalized by a TSQR reduction
+ * tree over the {@code l x l} triangular factors of the shards' local QR
+ * decompositions, the shards apply the resulting {@code l x l} factors to
+ * their blocks {@code Q_i} of the basis,</li>
+ * <li>{@code A^T * Q} is the sum of the shards' {@code A_i^T * Q_i},</li>
+ * <li>the final {@code U = Q * U~} is assembled from the shards' blocks.</li>
+ * </ul>
+ * Only {@code l x l} and {@code n x l} matrices travel between the coordinator
+ * and the workers after {@link #distribute(MatrixD)}. Each shard must hold at
+ * least {@code l = estimatedRank + 5} (but at most {@code n}) rows.
+ * <p>
+ * The power iterations are orthonormalized with QR (TSQR on the row side)
+ * since an LU normalization would have to pivot across shards.
+ * <p>
+ * {@link #getShardStats()} reports per-shard timings and transfer volumes.
+ */
+public final class ShardedSVD implements Closeable {
+
+    // Oversampling parameter
+    private static final int P = 5;
+    // Number of power iterations
+    private static final int ITERATIONS = 4;
+    // how long close() waits for a launched worker to exit
+    private static final long EXIT_TIMEOUT_SECONDS = 5L;
+
+    private final List<Shard> shards;
+    private final List<Process> processes = new ArrayList<>();
+    private final ComputeBackend backend = ComputeBackend.getDefault();
+    private int m = -1;
+    private int n = -1;
+    private int powerIterations = ITERATIONS;
+    private long reductionNanos;
+
+    private ShardedSVD(List<Shard> shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * Connects to already running workers.
+     *
+     * @param workers
+     *            the addresses the workers listen on
+     * @return the coordinator for these workers
+     * @throws IOException
+     *             if a worker can't be reached
+     */
+    public static ShardedSVD connect(List<InetSocketAddress> workers) throws IOException {
+        if (workers.isEmpty()) {
+            throw new IllegalArgumentException("no workers");
+        }
+        List<Shard> shards = new ArrayList<>(workers.size());
+        try {
+            for (InetSocketAddress address : workers) {
+                shards.add(new Shard(shards.size(), new Socket(address.getAddress(), address.getPort())));
+            }
+        } catch (IOException e) {
+            for (Shard shard : shards) {
+                shard.closeQuietly();
+            }
+            throw e;
+        }
+        return new ShardedSVD(shards);
+    }
+
+    /**
+     * Starts {@code workers} worker JVMs on this machine, using the class
+     * path and the {@code java} executable of the current JVM, and connects
+     * to them. The workers are terminated by {@link #close()}.
+     *
+     * @param workers
+     *            the number of worker processes
+     * @param jvmArgs
+     *            additional options for the worker JVMs (e.g. {@code -Xmx4g})
+     * @return the coordinator for the started workers
+     * @throws IOException
+     *             if a worker can't be started or reached
+     */
+    public static ShardedSVD launchLocal(int workers, String... jvmArgs) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("workers must be positive: " + workers);
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        List<Process> started = new ArrayList<>(workers);
+        List<InetSocketAddress> addresses = new ArrayList<>(workers);
+        try {
+            // one at a time: a worker reports its port only after it has
+            // loaded the native BLAS, concurrent loads of the shared library
+            // from the same temporary file can crash the JVMs
+            for (int i = 0; i < workers; ++i) {
+                List<String> command = new ArrayList<>();
+                command.add(java);
+                command.addAll(Arrays.asList(jvmArgs));
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add(ShardWorker.class.getName());
+                Process process = new ProcessBuilder(command).redirectError(Redirect.INHERIT).start();
+                started.add(process);
+                addresses.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(process)));
+            }
+            ShardedSVD sharded = connect(addresses);
+            sharded.processes.addAll(started);
+            return sharded;
+        } catch (IOException | RuntimeException e) {
+            for (Process process : started) {
+                process.destroy();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Sets the number of power iterations (default: 4).
+     *
+     * @param iterations
+     *            the number of power iterations
+     * @return this {@code ShardedSVD}
+     */
+    public ShardedSVD setPowerIterations(int iterations) {
+        if (iterations < 0) {
+            throw new IllegalArgumentException("negative iterations: " + iterations);
+        }
+        powerIterations = iterations;
+        return this;
+    }
+
+    /**
+     * Splits {@code A} into contiguous row blocks of (almost) equal size and
+     * sends one to each worker. Resets the {@link #getShardStats() metrics}.
+     *
+     * @param A
+     *            the matrix to decompose
+     * @throws IOException
+     *             if the communication with a worker fails
+     */
+    public void distribute(MatrixD A) throws IOException {
+        int p = shards.size();
+        if (A.numRows() < p) {
+            throw new IllegalArgumentException(
+                    "can't distribute " + A.numRows() + " rows over " + p + " shards");
+        }
+        m = A.numRows();
+        n = A.numColumns();
+        reductionNanos = 0L;
+        int[] firstRow = new int[p];
+        int row = 0;
+        for (int i = 0; i < p; ++i) {
+            Shard shard = shards.get(i);
+            shard.reset();
+            shard.rows = m / p + ((i < m % p) ? 1 : 0);
+            firstRow[i] = row;
+            row += shard.rows;
+        }
+        exchange(ShardProtocol.LOAD,
+                i -> A.selectSubmatrix(firstRow[i], 0, firstRow[i] + shards.get(i).rows - 1, A.endCol()), false);
+    }
+
+    /**
+     * Computes the rank {@code estimatedRank} approximate SVD of the matrix
+     * last {@link #distribute(MatrixD) distributed}.
+     *
+     * @param estimatedRank
+     *            the target rank
+     * @return the approximate SVD
+     * @throws IOException
+     *             if the communication with a worker fails
+     */
+    public SVD computeSVD(int estimatedRank) throws IOException {
+        if (n < 0) {
+            throw new IllegalStateException("no matrix has been distributed");
+        }
+        if (estimatedRank < 1) {
+            throw new IllegalArgumentException("estimatedRank: " + estimatedRank);
+        }
+        final int p = shards.size();
+        final int k = Math.min(estimatedRank, Math.min(m, n));
+        final int l = Math.min(k + P, n);
+        for (Shard shard : shards) {
+            if (shard.rows < l) {
+                throw new IllegalArgumentException("shard " + shard.index + " holds " + shard.rows
+                        + " rows, but at least " + l + " are needed");
+            }
+        }
+
+        MatrixD W = Matrices.randomUniformD(n, l, -1.0, 1.0);
+        MatrixD Z = null;
+        for (int it = 0; it <= powerIterations; ++it) {
+            // A_i * W = Q_i * R_i
+            List<MatrixD> R = exchange(ShardProtocol.MULTIPLY, W, true);
+            long start = System.nanoTime();
+            MatrixD[] F = new MatrixD[p];
+            tsqr(R, 0, p - 1, F);
+            reductionNanos += System.nanoTime() - start;
+
+            // Z = A^T * Q = sum of A_i^T * (Q_i * F_i)
+            List<MatrixD> Z_i = exchange(ShardProtocol.PROJECT, i -> F[i], true);
+            start = System.nanoTime();
+            Z = Z_i.get(0);
+            for (int i = 1; i < p; ++i) {
+                Z.addInplace(Z_i.get(i));
+            }
+            reductionNanos += System.nanoTime() - start;
+            if (it < powerIterations) {
+                start = System.nanoTime();
+                W = backend.qr(Z)[0];
+                reductionNanos += System.nanoTime() - start;
+            }
+        }
+
+        // B = Q^T * A = Z^T, so Z = V * S * U~^T
+        long start = System.nanoTime();
+        SVD svd = backend.svd(Z);
+        MatrixD U_tilde = svd.Vt.transpose().selectConsecutiveColumns(0, k - 1);
+        MatrixD Vt = svd.U.selectConsecutiveColumns(0, k - 1).transpose();
+        double[] sigma = new double[k];
+        for (int i = 0; i < k; ++i) {
+            sigma[i] = svd.S.getUnsafe(i, i);
+        }
+        reductionNanos += System.nanoTime() - start;
+
+        // U = Q * U~, assembled from the Q_i * U~
+        List<MatrixD> blocks = exchange(ShardProtocol.RECOMBINE, U_tilde, true);
+        MatrixD U = Matrices.createD(m, k);
+        int row = 0;
+        for (MatrixD U_i : blocks) {
+            U.setSubmatrixInplace(row, 0, U_i, 0, 0, U_i.endRow(), U_i.endCol());
+            row += U_i.numRows();
+        }
+        return new SVD(U, Matrices.diagD(k, k, sigma), Vt);
+    }
+
+    /**
+     * Returns the metrics of each shard accumulated since the last
+     * {@link #distribute(MatrixD)} call (which is included).
+     *
+     * @return the per-shard metrics
+     */
+    public List<ShardStats> getShardStats() {
+        List<ShardStats> stats = new ArrayList<>(shards.size());
+        for (Shard shard : shards) {
+            stats.add(shard.stats());
+        }
+        return stats;
+    }
+
+    /**
+     * Returns the nanoseconds the coordinator spent in the reductions (TSQR
+     * tree, sums, QR and the small SVD) since the last
+     * {@link #distribute(MatrixD)} call.
+     *
+     * @return the coordinator's compute time in nanoseconds
+     */
+    public long getReductionNanos() {
+        return reductionNanos;
+    }
+
+    public int getNumShards() {
+        return shards.size();
+    }
+
+    /**
+     * Ends the sessions with all workers and waits for launched workers to
+     * exit (destroying those that don't).
+     */
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Shard shard : shards) {
+            try {
+                shard.close();
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                    process.destroy();
+                }
+            } catch (InterruptedException e) {
+                process.destroy();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Sends the request {@code op} with the same argument to all shards.
+     */
+    private List<MatrixD> exchange(byte op, MatrixD arg, boolean hasResult) throws IOException {
+        return exchange(op, i -> arg, hasResult);
+    }
+
+    /**
+     * Sends the request {@code op} with the argument {@code arg.apply(i)} to
+     * shard {@code i} and returns the replies in shard order. When a shard
+     * fails, the replies of all other shards that got the request are still
+     * read before the first failure is rethrown, so that the connections
+     * stay in step for the next request.
+     */
+    private List<MatrixD> exchange(byte op, IntFunction<MatrixD> arg, boolean hasResult) throws IOException {
+        IOException failure = null;
+        int sent = 0;
+        try {
+            for (; sent < shards.size(); ++sent) {
+                shards.get(sent).send(op, arg.apply(sent));
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+        List<MatrixD> replies = new ArrayList<>(sent);
+        for (int i = 0; i < sent; ++i) {
+            try {
+                replies.add(shards.get(i).receive(hasResult));
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return replies;
+    }
+
+    /**
+     * Binary TSQR tree over the triangular factors {@code R[lo..hi]}. Returns
+     * the combined triangular factor and stores in {@code F[i]} the
+     * {@code l x l} matrix that turns the local {@code Q_i} into the rows of
+     * the global {@code Q}.
+     */
+    private MatrixD tsqr(List<MatrixD> R, int lo, int hi, MatrixD[] F) {
+        if (lo == hi) {
+            F[lo] = Matrices.identityD(R.get(lo).numColumns());
+            return R.get(lo);
+        }
+        int mid = (lo + hi) >>> 1;
+        MatrixD R_top = tsqr(R, lo, mid, F);
+        MatrixD R_bottom = tsqr(R, mid + 1, hi, F);
+        int l = R_top.numRows();
+        MatrixD stacked = Matrices.createD(l + R_bottom.numRows(), R_top.numColumns());
+        stacked.setSubmatrixInplace(0, 0, R_top, 0, 0, R_top.endRow(), R_top.endCol());
+        stacked.setSubmatrixInplace(l, 0, R_bottom, 0, 0, R_bottom.endRow(), R_bottom.endCol());
+        MatrixD[] QR = backend.qr(stacked);
+        MatrixD Q_top = QR[0].selectSubmatrix(0, 0, l - 1, QR[0].endCol());
+        MatrixD Q_bottom = QR[0].selectSubmatrix(l, 0, QR[0].endRow(), QR[0].endCol());
+        for (int i = lo; i <= hi; ++i) {
+            F[i] = F[i].times((i <= mid) ? Q_top : Q_bottom);
+        }
+        return QR[1];
+    }
+
+    private static int readPort(Process process) throws IOException {
+        BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII));
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.startsWith(ShardProtocol.PORT_PREFIX)) {
+                drain(reader);
+                return Integer.parseInt(line.substring(ShardProtocol.PORT_PREFIX.length()).trim());
+            }
+        }
+        throw new IOException("worker exited before it was listening");
+    }
+
+    // keeps a chatty worker from blocking on a full stdout pipe
+    private static void drain(BufferedReader reader) {
+        Thread drainer = new Thread(() -> {
+            try {
+                while (reader.readLine() != null) {
+                    // discard
+                }
+            } catch (IOException ignore) {
+                // the worker is gone
+            }
+        }, "ShardWorker-stdout");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    private static final class Shard {
+        final int index;
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+        int rows;
+        int requests;
+        long computeNanos;
+        long roundTripNanos;
+        long bytesSent;
+        long bytesReceived;
+        long sentAt;
+
+        Shard(int index, Socket socket) throws IOException {
+            this.index = index;
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        void send(byte op, MatrixD arg) throws IOException {
+            sentAt = System.nanoTime();
+            out.writeByte(op);
+            bytesSent += 1L + ShardProtocol.writeMatrix(out, arg);
+            out.flush();
+            ++requests;
+        }
+
+        MatrixD receive(boolean hasResult) throws IOException {
+            int status = in.readUnsignedByte();
+            if (status != ShardProtocol.OK) {
+                throw new IOException("shard " + index + ": " + in.readUTF());
+            }
+            computeNanos += in.readLong();
+            bytesReceived += 9L;
+            MatrixD result = null;
+            if (hasResult) {
+                result = ShardProtocol.readMatrix(in);
+                bytesReceived += ShardProtocol.bytes(result);
+            }
+            roundTripNanos += System.nanoTime() - sentAt;
+            return result;
+        }
+
+        void reset() {
+            requests = 0;
+            computeNanos = 0L;
+            roundTripNanos = 0L;
+            bytesSent = 0L;
+            bytesReceived = 0L;
+        }
+
+        ShardStats stats() {
+            return new ShardStats(index, rows, requests, computeNanos, roundTripNanos, bytesSent, bytesReceived);
+        }
+
+        void close() throws IOException {
+            try {
+                out.writeByte(ShardProtocol.CLOSE);
+                out.flush();
+            } finally {
+                socket.close();
+            }
+        }
+
+        void closeQuietly() {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+                // nothing to do
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.ArrayDeque;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * A sketch of the most recent {@code W} rows of a stream of rows with
+ * {@code n} columns. The window is partitioned into blocks of
+ * {@code ceil(W / numBlocks)} rows, each of which is summarized by its own
+ * {@link FrequentDirections} sketch. After each update the oldest whole
+ * blocks expire as long as the remaining blocks (including the incomplete
+ * current one) still cover at least {@code W} rows, so once {@code W} rows
+ * have been seen a query covers between {@code W} and
+ * {@code W + blockSize - 1} rows. A query merges the (at most
+ * {@code numBlocks + 1}) block sketches, which costs
+ * {@code O(numBlocks * l^2 * n)} regardless of {@code W}.
+ * <p>
+ * Memory is {@code O(numBlocks * l * n)}. The merged sketch inherits the
+ * {@link FrequentDirections} guarantee for the rows in the window, with an
+ * error of at most {@code 2 * ||A_W||_F^2 / l} (the block sketches and
+ * their merge contribute at most {@code ||A_W||_F^2 / l} each).
+ * <p>
+ * Instances are not thread-safe.
+ */
+public class SlidingWindowSketch {
+
+    private final int n;
+    private final int l;
+    private final long windowSize;
+    private final long blockSize;
+    // completed blocks, oldest first
+    private final ArrayDeque<FrequentDirections> blocks = new ArrayDeque<>();
+    private FrequentDirections current;
+
+    public SlidingWindowSketch(int n, int sketchSize, long windowSize, int numBlocks) {
+        if (windowSize < 1L) {
+            throw new IllegalArgumentException("windowSize must be at least 1. windowSize = " + windowSize);
+        }
+        if (numBlocks < 1) {
+            throw new IllegalArgumentException("numBlocks must be at least 1. numBlocks = " + numBlocks);
+        }
+        this.current = new FrequentDirections(n, sketchSize);
+        this.n = n;
+        this.l = sketchSize;
+        this.windowSize = windowSize;
+        this.blockSize = (windowSize + numBlocks - 1) / numBlocks;
+    }
+
+    /**
+     * Appends the row {@code row} of length {@code n} to the stream.
+     *
+     * @param row
+     *            the next row
+     * @return this {@code SlidingWindowSketch}
+     */
+    public SlidingWindowSketch update(double[] row) {
+        current.update(row);
+        if (current.getRowsSeen() == blockSize) {
+            completeBlock();
+        }
+        expire();
+        return this;
+    }
+
+    /**
+     * Appends all rows of {@code rows} to the stream.
+     *
+     * @param rows
+     *            a block of rows with {@code n} columns
+     * @return this {@code SlidingWindowSketch}
+     */
+    public SlidingWindowSketch update(MatrixD rows) {
+        int start = 0;
+        int end = rows.numRows();
+        while (start < end) {
+            int count = (int) Math.min(blockSize - current.getRowsSeen(), end - start);
+            if (start == 0 && count == end) {
+                current.update(rows);
+            } else {
+                current.update(rows.selectSubmatrix(start, 0, start + count - 1, n - 1));
+            }
+            start += count;
+            if (current.getRowsSeen() == blockSize) {
+                completeBlock();
+            }
+            expire();
+        }
+        return this;
+    }
+
+    /**
+     * Returns an {@code l x n} sketch of the rows in the current window.
+     *
+     * @return the sketch of the window
+     */
+    public MatrixD getSketch() {
+        return merge().getSketch();
+    }
+
+    /**
+     * Computes the rank-{@code k} SVD of the sketch of the current window.
+     *
+     * @param k
+     *            the rank, at most {@code min(l, n)}
+     * @return the rank-{@code k} SVD of the window sketch
+     * @see FrequentDirections#computeSVD(int)
+     */
+    public SVD computeSVD(int k) {
+        return merge().computeSVD(k);
+    }
+
+    /**
+     * Returns an upper bound for {@code ||A_W^T * A_W - B^T * B||_2} where
+     * {@code A_W} are the rows in the current window and {@code B} is the
+     * sketch that {@link #getSketch()} returns.
+     *
+     * @return the error bound of the window sketch
+     */
+    public double shrinkage() {
+        return merge().shrinkage();
+    }
+
+    /**
+     * Returns the number of rows that the current window covers.
+     *
+     * @return the number of rows in the window
+     */
+    public long getWindowRows() {
+        return blocks.size() * blockSize + current.getRowsSeen();
+    }
+
+    public long getWindowSize() {
+        return windowSize;
+    }
+
+    public long getBlockSize() {
+        return blockSize;
+    }
+
+    private void completeBlock() {
+        blocks.addLast(current);
+        current = new FrequentDirections(n, l);
+    }
+
+    private void expire() {
+        while (!blocks.isEmpty() && getWindowRows() - blockSize >= windowSize) {
+            blocks.removeFirst();
+        }
+    }
+
+    private FrequentDirections merge() {
+        FrequentDirections merged = new FrequentDirections(n, l);
+        for (FrequentDirections block : blocks) {
+            merged.merge(block);
+        }
+        return merged.merge(current);
+    }
+}
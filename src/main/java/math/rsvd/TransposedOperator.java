@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Objects;
+
+import net.jamu.matrix.MatrixD;
+
+/**
+ * The transpose of a {@link LinearOperator} as a view.
+ */
+final class TransposedOperator implements LinearOperator {
+
+    private final LinearOperator A;
+
+    TransposedOperator(LinearOperator A) {
+        this.A = Objects.requireNonNull(A);
+    }
+
+    @Override
+    public int numRows() {
+        return A.numColumns();
+    }
+
+    @Override
+    public int numColumns() {
+        return A.numRows();
+    }
+
+    @Override
+    public MatrixD mult(MatrixD X, MatrixD C) {
+        return A.transAmult(X, C);
+    }
+
+    @Override
+    public MatrixD transAmult(MatrixD Y, MatrixD C) {
+        return A.mult(Y, C);
+    }
+
+    @Override
+    public double normF() {
+        return A.normF();
+    }
+
+    @Override
+    public LinearOperator transpose() {
+        return A;
+    }
+}
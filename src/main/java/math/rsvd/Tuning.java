@@ -0,0 +1,105 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+/**
+ * The decision of an {@link AutoTuner}: the algorithm and its parameters
+ * together with the probe data the decision is based on.
+ */
+public class Tuning {
+
+    /**
+     * The algorithms an {@link AutoTuner} chooses from.
+     */
+    public enum Algorithm {
+        /**
+         * A single sketch ({@code randomizedSVD.RanRangeFinder}), Halko et al.
+         * algorithm 4.1. For a rapidly decaying spectrum.
+         */
+        RAN_RANGE_FINDER,
+        /**
+         * Subspace iteration with {@link #iterations} {@code q}
+         * ({@code randomizedSVD.RanSubspaceIteration}), Halko et al.
+         * algorithm 4.4. Applies an odd power {@code 2q - 1} of {@code A}.
+         */
+        RAN_SUBSPACE_ITERATION,
+        /**
+         * {@link ApproximateBasis} with {@link #iterations} LU normalized power
+         * iterations. Applies an even power {@code 2q + 2} of {@code A}.
+         */
+        APPROXIMATE_BASIS,
+        /**
+         * {@link AdaRangeFinderFast} for a target accuracy when the rank isn't
+         * known.
+         */
+        ADA_RANGE_FINDER_FAST
+    }
+
+    /** The chosen algorithm */
+    public final Algorithm algorithm;
+    /** The rank of the approximation, 0 if the algorithm determines it */
+    public final int targetRank;
+    /** The oversampling parameter */
+    public final int oversampling;
+    /** The algorithm's iteration parameter {@code q}, 0 if it has none */
+    public final int iterations;
+    /** The estimated number of passes over {@code A} incl. the projection */
+    public final int passes;
+    /** The estimated number of floating-point operations */
+    public final double estimatedFlops;
+    /** The predicted error {@code ||A - U * S * Vt||_2 / ||A||_2} */
+    public final double estimatedError;
+    /** The requested relative accuracy */
+    public final double tolerance;
+    /** Whether the requested accuracy is reachable with the target rank */
+    public final boolean reachable;
+    /** The sampled fraction of non-zero entries, {@code NaN} if unknown */
+    public final double density;
+    /** The probed leading singular values (lower bounds) */
+    public final double[] probedSingularValues;
+
+    public Tuning(Algorithm algorithm, int targetRank, int oversampling, int iterations, int passes,
+            double estimatedFlops, double estimatedError, double tolerance, boolean reachable, double density,
+            double[] probedSingularValues) {
+        this.algorithm = algorithm;
+        this.targetRank = targetRank;
+        this.oversampling = oversampling;
+        this.iterations = iterations;
+        this.passes = passes;
+        this.estimatedFlops = estimatedFlops;
+        this.estimatedError = estimatedError;
+        this.tolerance = tolerance;
+        this.reachable = reachable;
+        this.density = density;
+        this.probedSingularValues = probedSingularValues;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sigma = new StringBuilder();
+        for (int i = 0; i < probedSingularValues.length && i < 5; ++i) {
+            sigma.append((i == 0) ? "" : ", ").append(String.format("%.4g", probedSingularValues[i]));
+        }
+        if (probedSingularValues.length > 5) {
+            sigma.append(", ...");
+        }
+        return "Tuning[algorithm=" + algorithm + ", targetRank=" + targetRank + ", oversampling=" + oversampling
+                + ", iterations=" + iterations + ", passes=" + passes + ", estimatedFlops="
+                + String.format("%.3g", estimatedFlops) + ", estimatedError=" + String.format("%.3g", estimatedError)
+                + ", tolerance=" + tolerance + ", reachable=" + reachable + ", density=" + density
+                + ", probedSingularValues=[" + sigma + "]]";
+    }
+}
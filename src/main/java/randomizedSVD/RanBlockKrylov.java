@@ -0,0 +1,156 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package randomizedSVD;
+
+import java.util.Objects;
+
+import math.rsvd.ComputeBackend;
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Block Krylov iteration for the fixed-rank problem. In contrast to
+ * {@link RanSubspaceIteration}, which only keeps the last block, the whole
+ * Krylov block {@code [A*Omega, (A*A^T)*A*Omega, ..., (A*A^T)^(q-1)*A*Omega]}
+ * is retained, so for matrices whose singular values decay slowly the same
+ * accuracy is reached with far fewer passes over {@code A}. Each new block is
+ * orthogonalized against the Krylov basis by two passes of block Gram-Schmidt
+ * and then orthonormalized by a Householder QR of the block alone before it
+ * is appended. The top {@code targetRank + oversampling} subspace is then
+ * extracted by a Rayleigh-Ritz step on the Krylov basis.
+ * <p>
+ * Algorithm 2 from Cameron Musco and Christopher Musco. Randomized block
+ * Krylov methods for stronger and faster approximate singular value
+ * decomposition. NIPS 2015, 1396-1404.
+ */
+public class RanBlockKrylov {
+
+    // Default oversampling parameter
+    private static final int P = 10;
+
+    private final MatrixD A;
+    private final int m;
+    private final int n;
+    private final int targetRank;
+    private int oversampling = P;
+    private final int q;
+    private ComputeBackend backend = ComputeBackend.getDefault();
+
+    public RanBlockKrylov(MatrixD A, int estimatedRank, int q) {
+        if (estimatedRank < 0) {
+            throw new IllegalArgumentException("negative target rank: " + estimatedRank);
+        }
+        if (q < 1) {
+            throw new IllegalArgumentException("q must be at least 1. q = " + q);
+        }
+        this.A = Objects.requireNonNull(A);
+        this.m = A.numRows();
+        this.n = A.numColumns();
+        this.targetRank = estimatedRank;
+        this.q = q;
+    }
+
+    /**
+     * Sets the oversampling parameter (default: 10).
+     *
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @return this {@code RanBlockKrylov}
+     */
+    public RanBlockKrylov setOversampling(int oversampling) {
+        if (oversampling < 0) {
+            throw new IllegalArgumentException("negative oversampling: " + oversampling);
+        }
+        this.oversampling = oversampling;
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM, Householder QR
+     * and the SVD of the Rayleigh-Ritz step). The default is
+     * {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code RanBlockKrylov}
+     */
+    public RanBlockKrylov setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    public MatrixD computeQ() {
+        // work on the tall orientation M = A (m >= n) or M = A^T (m < n)
+        // without forming A^T; for m < n the returned basis spans the row
+        // space of A
+        int cols = Math.min(m, n);
+        int l = Math.min(targetRank + oversampling, cols);
+
+        MatrixD Omega = Matrices.randomNormalD(cols, l);
+        MatrixD K = decompose(timesM(Omega));
+        // the Krylov space can't have a dimension larger than cols
+        for (int j = 1; j < q && K.numColumns() < cols; ++j) {
+            MatrixD block = timesM(timesMT(K.selectConsecutiveColumns(K.numColumns() - l, K.numColumns() - 1)));
+            // block Gram-Schmidt against K, twice is enough
+            for (int pass = 0; pass < 2; ++pass) {
+                MatrixD C = backend.transAmult(K, block, Matrices.createD(K.numColumns(), l));
+                block = block.minus(times(K, C));
+            }
+            if (block.normF() == 0.0) {
+                // the Krylov space is an invariant subspace of M * M^T
+                break;
+            }
+            block = decompose(block);
+            int width = Math.min(l, cols - K.numColumns());
+            if (width < l) {
+                block = block.selectConsecutiveColumns(0, width - 1);
+            }
+            K = K.appendMatrix(block);
+        }
+
+        // Rayleigh-Ritz: the leading left singular vectors of K^T * M are
+        // the leading right singular vectors of M^T * K
+        MatrixD U = backend.svd(timesMT(K)).Vt.transpose();
+        if (U.numColumns() > l) {
+            U = U.selectConsecutiveColumns(0, l - 1);
+        }
+        return times(K, U);
+    }
+
+    // M * X
+    private MatrixD timesM(MatrixD X) {
+        if (m >= n) {
+            return times(A, X);
+        }
+        return backend.transAmult(A, X, Matrices.createD(n, X.numColumns()));
+    }
+
+    // M^T * Y
+    private MatrixD timesMT(MatrixD Y) {
+        if (m >= n) {
+            return backend.transAmult(A, Y, Matrices.createD(n, Y.numColumns()));
+        }
+        return times(A, Y);
+    }
+
+    private MatrixD times(MatrixD X, MatrixD Y) {
+        return backend.mult(X, Y, Matrices.createD(X.numRows(), Y.numColumns()));
+    }
+
+    private MatrixD decompose(MatrixD Y) {
+        return backend.qr(Y)[0];
+    }
+}
@@ -17,6 +17,10 @@ package randomizedSVD;
 
 import java.util.Objects;
 
+import math.rsvd.ComputeBackend;
+import math.rsvd.ExecutionPlan;
+import math.rsvd.ExecutionPlan.Strategy;
+import math.rsvd.LinearOperator;
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 
@@ -31,63 +35,187 @@ import net.jamu.matrix.MatrixD;
  */
 public class RanPowerIteration {
 
-    // Oversampling parameter
+    // Default oversampling parameter
     private static final int P = 10;
 
-    private final MatrixD A;
+    private final LinearOperator A;
+    // the explicit matrix, null if A is only accessible through products
+    private final MatrixD dense;
     private final int m;
     private final int n;
     private final int targetRank;
+    private int oversampling = P;
     private final int q;
+    private long memoryBudget = ExecutionPlan.UNLIMITED;
+    private ComputeBackend backend = ComputeBackend.getDefault();
 
     public RanPowerIteration(MatrixD A, int estimatedRank, int q) {
+        this(LinearOperator.of(Objects.requireNonNull(A)), A, estimatedRank, q);
+    }
+
+    /**
+     * Creates a {@code RanPowerIteration} for a matrix that is only accessible
+     * through products, e.g. a {@link math.rsvd.OffHeapMatrix}. The power
+     * iteration is always applied to the sketch then, with the transpose
+     * folded into the products.
+     */
+    public RanPowerIteration(LinearOperator A, int estimatedRank, int q) {
+        this(Objects.requireNonNull(A), null, estimatedRank, q);
+    }
+
+    private RanPowerIteration(LinearOperator A, MatrixD dense, int estimatedRank, int q) {
         if (estimatedRank < 0) {
             throw new IllegalArgumentException("negative target rank: " + estimatedRank);
         }
         if (q < 1) {
             throw new IllegalArgumentException("q must be at least 1. q = " + q);
         }
-        this.A = Objects.requireNonNull(A);
+        this.A = A;
+        this.dense = dense;
         this.m = A.numRows();
         this.n = A.numColumns();
         this.targetRank = estimatedRank;
         this.q = q;
     }
 
+    /**
+     * Sets the oversampling parameter (default: 10).
+     *
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @return this {@code RanPowerIteration}
+     */
+    public RanPowerIteration setOversampling(int oversampling) {
+        if (oversampling < 0) {
+            throw new IllegalArgumentException("negative oversampling: " + oversampling);
+        }
+        this.oversampling = oversampling;
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM and Householder
+     * QR). The default is {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code RanPowerIteration}
+     */
+    public RanPowerIteration setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
+    /**
+     * Limits the heap memory used for the workspace (the memory occupied by
+     * {@code A} itself isn't counted). If the explicit {@code (A * A^T)^q * A}
+     * doesn't fit into the budget the power iteration gets applied to the
+     * sketch instead (see {@link ExecutionPlan#forRanPowerIteration}).
+     *
+     * @param bytes
+     *            the memory budget in bytes, {@link ExecutionPlan#UNLIMITED}
+     *            for no limit (the default)
+     * @return this {@code RanPowerIteration}
+     */
+    public RanPowerIteration setMemoryBudget(long bytes) {
+        if (bytes < 1L) {
+            throw new IllegalArgumentException("memory budget must be positive: " + bytes);
+        }
+        memoryBudget = bytes;
+        return this;
+    }
+
+    /**
+     * Returns the execution plan {@link #computeQ()} will follow.
+     *
+     * @return the plan for the current memory budget
+     * @throws IllegalArgumentException
+     *             if the memory budget is too small
+     */
+    public ExecutionPlan getPlan() {
+        if (dense == null) {
+            return ExecutionPlan.forRanPowerIteration(A, targetRank, oversampling, memoryBudget);
+        }
+        return ExecutionPlan.forRanPowerIteration(m, n, targetRank, oversampling, memoryBudget);
+    }
+
     public MatrixD computeQ() {
+        ExecutionPlan plan = getPlan();
+        plan.log();
+        if (plan.strategy == Strategy.STREAMING) {
+            return computeQStreaming(plan.materializeTranspose);
+        }
         // AT: n x m
-        MatrixD AT = A.transpose();
+        MatrixD AT = dense.transpose();
         // tmp2: m x m
-        MatrixD tmp2 = Matrices.createD(A.numRows(), A.numRows());
+        MatrixD tmp2 = Matrices.createD(m, m);
         // m x m
-        MatrixD B = A.mult(AT, tmp2);
+        MatrixD B = backend.mult(dense, AT, tmp2);
         // tmp1: n x m
-        MatrixD tmp1 = Matrices.createD(n, A.numRows());
+        MatrixD tmp1 = Matrices.createD(n, m);
         for (int i = 2; i <= q; ++i) {
             // B = AT.times(B);
             // (n x m) * (m x m) = (n x m)
-            tmp1 = AT.mult(B, tmp1);
+            tmp1 = backend.mult(AT, B, tmp1);
             // B = A.times(B);
             // (m x n) * (n x m) = m x m
-            B = A.mult(tmp1, tmp2);
+            B = backend.mult(dense, tmp1, tmp2);
         }
         // (m x m) * (m x n) = (m x n)
-        B = B.times(A);
+        B = backend.mult(B, dense, Matrices.createD(m, n));
         MatrixD Y = null;
         MatrixD Q = null;
         if (m >= n) {
-            MatrixD Omega = Matrices.randomNormalD(n, targetRank + P);
-            Y = B.times(Omega);
+            MatrixD Omega = Matrices.randomNormalD(n, targetRank + oversampling);
+            Y = backend.mult(B, Omega, Matrices.createD(m, Omega.numColumns()));
             Q = decompose(Y);
         } else {
-            MatrixD Omega = Matrices.randomNormalD(targetRank + P, m);
-            Y = Omega.times(B).transpose();
+            // (Omega * B)^T = B^T * Omega^T
+            MatrixD OmegaT = Matrices.randomNormalD(m, targetRank + oversampling);
+            Y = backend.transAmult(B, OmegaT, Matrices.createD(n, OmegaT.numColumns()));
             Q = decompose(Y);
         }
         return Q;
     }
 
+    /**
+     * The same subspace as {@link #computeQ()} in {@code O((m + n) * l)}
+     * workspace (plus {@code A^T} if {@code materializeTranspose} is set):
+     * {@code (A * A^T)^q} is applied to the sketch {@code Y} one factor at a
+     * time.
+     */
+    private MatrixD computeQStreaming(boolean materializeTranspose) {
+        int l = targetRank + oversampling;
+        MatrixD AT = materializeTranspose ? dense.transpose() : null;
+        MatrixD Z = Matrices.createD(n, l);
+        // Y = A * Omega or, for a wide A, Y = Omega^T and the result gets
+        // transposed at the end
+        MatrixD Y = (m >= n) ? mult(Matrices.randomNormalD(n, l), Matrices.createD(m, l))
+                : Matrices.randomNormalD(l, m).transpose();
+        for (int i = 1; i <= q; ++i) {
+            // Y = A * (A^T * Y)
+            transAmult(AT, Y, Z);
+            mult(Z, Y);
+        }
+        if (m >= n) {
+            return decompose(Y);
+        }
+        // (Omega * (A * A^T)^q * A)^T = A^T * (A * A^T)^q * Omega^T
+        return decompose(transAmult(AT, Y, Z));
+    }
+
+    private MatrixD mult(MatrixD X, MatrixD Y) {
+        return (dense != null) ? backend.mult(dense, X, Y) : A.mult(X, Y);
+    }
+
+    private MatrixD transAmult(MatrixD AT, MatrixD Y, MatrixD Z) {
+        if (AT != null) {
+            return backend.mult(AT, Y, Z);
+        }
+        return (dense != null) ? backend.transAmult(dense, Y, Z) : A.transAmult(Y, Z);
+    }
+
     private MatrixD decompose(MatrixD Y) {
-        return Y.qrd().getQ();
+        return backend.qr(Y)[0];
     }
 }
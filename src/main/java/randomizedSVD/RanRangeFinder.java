@@ -17,6 +17,8 @@ package randomizedSVD;
 
 import java.util.Objects;
 
+import math.rsvd.ComputeBackend;
+import math.rsvd.LinearOperator;
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 
@@ -30,15 +32,25 @@ import net.jamu.matrix.MatrixD;
  */
 public class RanRangeFinder {
 
-    // Oversampling parameter
+    // Default oversampling parameter
     private static final int P = 10;
 
-    private final MatrixD A;
+    private final LinearOperator A;
     private final int m;
     private final int n;
     private final int targetRank;
+    private int oversampling = P;
+    private ComputeBackend backend = ComputeBackend.getDefault();
 
     public RanRangeFinder(MatrixD A, int estimatedRank) {
+        this(LinearOperator.of(Objects.requireNonNull(A)), estimatedRank);
+    }
+
+    /**
+     * Creates a {@code RanRangeFinder} for a matrix that is only accessible
+     * through products, e.g. a {@link math.rsvd.OffHeapMatrix}.
+     */
+    public RanRangeFinder(LinearOperator A, int estimatedRank) {
         if (estimatedRank < 0) {
             throw new IllegalArgumentException("negative target rank: " + estimatedRank);
         }
@@ -48,21 +60,50 @@ public class RanRangeFinder {
         this.targetRank = estimatedRank;
     }
 
+    /**
+     * Sets the oversampling parameter (default: 10).
+     *
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @return this {@code RanRangeFinder}
+     */
+    public RanRangeFinder setOversampling(int oversampling) {
+        if (oversampling < 0) {
+            throw new IllegalArgumentException("negative oversampling: " + oversampling);
+        }
+        this.oversampling = oversampling;
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM and Householder
+     * QR). The default is {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code RanRangeFinder}
+     */
+    public RanRangeFinder setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
+    }
+
     public MatrixD computeQ() {
         if (m >= n) {
-            MatrixD Omega = Matrices.randomNormalD(n, targetRank + P);
-            MatrixD Y = A.times(Omega);
+            MatrixD Omega = Matrices.randomNormalD(n, targetRank + oversampling);
+            MatrixD Y = backend.times(A, Omega);
             MatrixD Q = decompose(Y);
             return Q;
         } else {
-            MatrixD Omega = Matrices.randomNormalD(targetRank + P, m);
-            MatrixD Y = Omega.times(A).transpose();
+            // (Omega * A)^T = A^T * Omega^T
+            MatrixD Omega = Matrices.randomNormalD(m, targetRank + oversampling);
+            MatrixD Y = backend.transTimes(A, Omega);
             MatrixD Q = decompose(Y);
             return Q;
         }
     }
 
     private MatrixD decompose(MatrixD Y) {
-        return Y.qrd().getQ();
+        return backend.qr(Y)[0];
     }
 }
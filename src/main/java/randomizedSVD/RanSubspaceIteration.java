@@ -17,6 +17,10 @@ package randomizedSVD;
 
 import java.util.Objects;
 
+import math.rsvd.ComputeBackend;
+import math.rsvd.LinearOperator;
+import math.rsvd.Orthonormalization;
+import math.rsvd.Orthonormalizer;
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 
@@ -31,16 +35,31 @@ import net.jamu.matrix.MatrixD;
  */
 public class RanSubspaceIteration {
 
-    // Oversampling parameter
+    // Default oversampling parameter
     private static final int P = 10;
 
-    private final MatrixD A;
+    private final LinearOperator A;
     private final int m;
     private final int n;
     private final int targetRank;
+    private int oversampling = P;
     private final int q;
+    private final Orthonormalizer orthonormalizer;
+    private ComputeBackend backend = ComputeBackend.getDefault();
 
     public RanSubspaceIteration(MatrixD A, int estimatedRank, int q) {
+        this(A, estimatedRank, q, Orthonormalization.HOUSEHOLDER);
+    }
+
+    public RanSubspaceIteration(MatrixD A, int estimatedRank, int q, Orthonormalizer orthonormalizer) {
+        this(LinearOperator.of(Objects.requireNonNull(A)), estimatedRank, q, orthonormalizer);
+    }
+
+    /**
+     * Creates a {@code RanSubspaceIteration} for a matrix that is only
+     * accessible through products, e.g. a {@link math.rsvd.OffHeapMatrix}.
+     */
+    public RanSubspaceIteration(LinearOperator A, int estimatedRank, int q, Orthonormalizer orthonormalizer) {
         if (estimatedRank < 0) {
             throw new IllegalArgumentException("negative target rank: " + estimatedRank);
         }
@@ -52,35 +71,99 @@ public class RanSubspaceIteration {
         this.n = A.numColumns();
         this.targetRank = estimatedRank;
         this.q = q;
+        this.orthonormalizer = Objects.requireNonNull(orthonormalizer);
+    }
+
+    /**
+     * Sets the oversampling parameter (default: 10).
+     *
+     * @param oversampling
+     *            the number of additional sketch columns
+     * @return this {@code RanSubspaceIteration}
+     */
+    public RanSubspaceIteration setOversampling(int oversampling) {
+        if (oversampling < 0) {
+            throw new IllegalArgumentException("negative oversampling: " + oversampling);
+        }
+        this.oversampling = oversampling;
+        return this;
+    }
+
+    /**
+     * Sets the backend that provides the dense kernels (GEMM, Householder QR
+     * and LU). The default is {@link ComputeBackend#getDefault()}.
+     *
+     * @param backend
+     *            the backend to use
+     * @return this {@code RanSubspaceIteration}
+     */
+    public RanSubspaceIteration setBackend(ComputeBackend backend) {
+        this.backend = Objects.requireNonNull(backend);
+        return this;
     }
 
     public MatrixD computeQ() {
-        MatrixD AT = A.transpose();
+        LinearOperator AT = A.transpose();
         MatrixD Omega = null;
         MatrixD Y = null;
         if (m >= n) {
-            Omega = Matrices.randomNormalD(n, targetRank + P);
-            Y = A.times(Omega);
+            Omega = Matrices.randomNormalD(n, targetRank + oversampling);
+            Y = backend.times(A, Omega);
         } else {
-            Omega = Matrices.randomNormalD(targetRank + P, m);
-            Y = Omega.times(A).transpose();
+            // (Omega * A)^T = A^T * Omega^T
+            Omega = Matrices.randomNormalD(m, targetRank + oversampling);
+            Y = backend.times(AT, Omega);
+        }
+        return iterate(decompose(Y), AT, q - 1);
+    }
+
+    /**
+     * Warm start for a matrix that has changed only slightly since
+     * {@code Q0} was computed. {@code Q0} gets padded with random columns if
+     * it has less than {@code estimatedRank + oversampling} columns and then {@code q}
+     * iterations get applied (instead of the {@code q - 1} iterations after
+     * the initial sketch of a cold start). Usually a {@code q} of 1 or 2
+     * suffices for a good {@code Q0}.
+     *
+     * @param Q0
+     *            a basis returned from a previous {@link #computeQ()} call for
+     *            a matrix of the same shape
+     * @return the basis for {@code A}
+     */
+    public MatrixD computeQ(MatrixD Q0) {
+        int rows = Math.max(m, n);
+        if (Q0.numRows() != rows) {
+            throw new IllegalArgumentException("Q0 must have " + rows + " rows, but has " + Q0.numRows());
         }
-        MatrixD Q = decompose(Y);
+        LinearOperator AT = A.transpose();
+        int missing = targetRank + oversampling - Q0.numColumns();
+        MatrixD Y = Q0;
+        if (missing > 0) {
+            if (m >= n) {
+                Y = Q0.appendMatrix(backend.times(A, Matrices.randomNormalD(n, missing)));
+            } else {
+                Y = Q0.appendMatrix(backend.times(AT, Matrices.randomNormalD(m, missing)));
+            }
+        }
+        return iterate(decompose(Y), AT, q);
+    }
 
+    private MatrixD iterate(MatrixD Q, LinearOperator AT, int iterations) {
+        MatrixD Y = null;
         if (m >= n) {
-            for (int j = 1; j < q; ++j) {
-                Y = AT.times(Q);
+            for (int j = 0; j < iterations; ++j) {
+                Y = backend.times(AT, Q);
                 Q = decompose(Y);
-                Y = A.times(Q);
+                Y = backend.times(A, Q);
                 Q = decompose(Y);
             }
         } else {
             // XXX ???
             //throw new UnsupportedOperationException("m < k not yet implemented");
-            for (int j = 1; j < q; ++j) {
-                Y = A.times(Q);
+            for (int j = 0; j < iterations; ++j) {
+                Y = backend.times(A, Q);
                 Q = decompose(Y);
-                Y = AT.times(Q);
+                Y = backend.times(AT, Q);
                 Q = decompose(Y);
             }
         }
@@ -91,9 +174,11 @@ public class RanSubspaceIteration {
     private MatrixD decompose(MatrixD Y) {
         MatrixD Q = null;
         if (Y.numRows() < Y.numColumns()) {
-            Q = Y.lud().getPL();
+            Q = backend.lu(Y);
+        } else if (orthonormalizer == Orthonormalization.HOUSEHOLDER) {
+            Q = backend.qr(Y)[0];
         } else {
-            Q = Y.qrd().getQ();
+            Q = orthonormalizer.orthonormalize(Y);
         }
         return Q;
     }
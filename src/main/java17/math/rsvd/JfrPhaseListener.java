@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A {@link PhaseListener} that emits a JDK Flight Recorder event for each
+ * phase. The events are only committed while a recording that enables
+ * {@code math.rsvd.Phase} is running.
+ * <p>
+ * This is the Java 17 version from the multi-release jar.
+ */
+public class JfrPhaseListener implements PhaseListener {
+
+    static boolean emitsEvents() {
+        return true;
+    }
+
+    @Name("math.rsvd.Phase")
+    @Label("rSVD Phase")
+    @Category("rSVD")
+    static final class PhaseEvent extends Event {
+        @Label("Phase")
+        String phase;
+        @Label("Iteration")
+        int iteration;
+        @Label("Estimated FLOPs")
+        double flops;
+        @Label("Passes over A")
+        int passes;
+        @Label("Bytes Allocated")
+        @DataAmount
+        long bytesAllocated;
+        @Label("Basis Size")
+        int basisSize;
+    }
+
+    private final ThreadLocal<PhaseEvent> current = new ThreadLocal<PhaseEvent>();
+
+    @Override
+    public void phaseStarted(Phase phase) {
+        PhaseEvent event = new PhaseEvent();
+        event.begin();
+        current.set(event);
+    }
+
+    @Override
+    public void phaseCompleted(PhaseStats stats) {
+        PhaseEvent event = current.get();
+        current.remove();
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = stats.phase.name();
+            event.iteration = stats.iteration;
+            event.flops = stats.flops;
+            event.passes = stats.passes;
+            event.bytesAllocated = stats.bytesAllocated;
+            event.basisSize = stats.basisSize;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API implementations of the {@link Kernels}.
+ */
+final class VectorKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    static final int LANES = SPECIES.length();
+
+    static double dot(double[] x, int xOff, double[] y, int yOff, int len) {
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff + i);
+            acc = vx.fma(vy, acc);
+        }
+        double s = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < len; ++i) {
+            s += x[xOff + i] * y[yOff + i];
+        }
+        return s;
+    }
+
+    static void axpy(double a, double[] x, int xOff, double[] y, int yOff, int len) {
+        DoubleVector va = DoubleVector.broadcast(SPECIES, a);
+        int bound = SPECIES.loopBound(len);
+        int i = 0;
+        for (; i < bound; i += LANES) {
+            DoubleVector vx = DoubleVector.fromArray(SPECIES, x, xOff + i);
+            DoubleVector vy = DoubleVector.fromArray(SPECIES, y, yOff + i);
+            vx.fma(va, vy).intoArray(y, yOff + i);
+        }
+        for (; i < len; ++i) {
+            y[yOff + i] += a * x[xOff + i];
+        }
+    }
+
+    static void projectOut(double[] q, double[] Y, int m, int cols) {
+        for (int j = 0; j < cols; ++j) {
+            int off = j * m;
+            axpy(-dot(q, 0, Y, off, m), q, 0, Y, off, m);
+        }
+    }
+
+    private VectorKernels() {
+        throw new AssertionError();
+    }
+}
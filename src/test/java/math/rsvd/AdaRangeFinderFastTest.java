@@ -15,6 +15,8 @@
  */
 package math.rsvd;
 
+import static org.junit.Assert.assertTrue;
+
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 import randomizedSVD.Checks;
@@ -77,6 +79,19 @@ public class AdaRangeFinderFastTest {
         Checks.checkSVD2(B, Q, A, TOLERANCE);
     }
 
+    @Test
+    public void testTolerance() {
+        // rank 10 plus noise, a probe of the noise has a norm of about 0.1
+        MatrixD A = Matrices.randomNormalD(m, 10).times(Matrices.randomNormalD(10, n))
+                .plus(Matrices.randomNormalD(m, n).scaleInplace(0.001));
+        AdaRangeFinderFast finder = new AdaRangeFinderFast(A).setTolerance(2.0);
+        MatrixD Q = finder.computeQ();
+        assertTrue(finder.getErrorEstimate() <= 2.0);
+        assertTrue("basis size " + Q.numColumns(), Q.numColumns() < 20);
+        double error = A.minus(Q.times(Q.transpose().times(A))).norm2();
+        assertTrue("error " + error, error <= 2.0);
+    }
+
     private MatrixD getQ(MatrixD A) {
         return new AdaRangeFinderFast(A).computeQ();
     }
@@ -15,6 +15,8 @@
  */
 package math.rsvd;
 
+import static org.junit.Assert.assertEquals;
+
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 import randomizedSVD.Checks;
@@ -79,6 +81,29 @@ public class AdaRangeFinderTest {
         Checks.checkSVD2(B, Q, A, TOLERANCE);
     }
 
+    @Test
+    public void testProbes() {
+        MatrixD A = Matrices.randomNormalD(m, n);
+        for (int r : new int[] { 1, 5, 20 }) {
+            MatrixD Q = new AdaRangeFinder(A, r).computeQ();
+            MatrixD B = Checks.checkFactorization2(Q, A, TOLERANCE);
+            Checks.checkSVD2(B, Q, A, TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testLowRank() {
+        MatrixD A = Matrices.randomNormalD(m, 7).times(Matrices.randomNormalD(7, n));
+        MatrixD Q = new AdaRangeFinder(A, 3).computeQ();
+        assertEquals(7, Q.numColumns());
+        Checks.checkFactorization2(Q, A, TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNoProbes() {
+        new AdaRangeFinder(Matrices.randomNormalD(m, n), 0);
+    }
+
     private MatrixD getQ(MatrixD A) {
         return new AdaRangeFinder(A).computeQ();
     }
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class AnytimeSVDTest {
+
+    private static final double TOLERANCE = 1.0e-6;
+
+    @Test
+    public void testUnlimitedBudgetTall() {
+        checkUnlimited(Matrices.randomNormalD(220, 150), 20);
+    }
+
+    @Test
+    public void testUnlimitedBudgetWide() {
+        checkUnlimited(Matrices.randomNormalD(150, 220), 20);
+    }
+
+    @Test
+    public void testZeroBudgetTall() {
+        checkZeroBudget(Matrices.randomNormalD(220, 150), 20);
+    }
+
+    @Test
+    public void testZeroBudgetWide() {
+        checkZeroBudget(Matrices.randomNormalD(150, 220), 20);
+    }
+
+    @Test
+    public void testGivenSketch() {
+        MatrixD A = Matrices.randomNormalD(1000, 800);
+        ApproximateBasis basis = new ApproximateBasis(A, 50);
+        basis.computeSVD();
+        // nothing gets sampled, so the sketch can't be used to estimate the
+        // duration of an iteration (about 200 MFLOP)
+        basis.setSketch(basis.getSketch());
+        AnytimeSVD result = basis.computeSVD(1L, TimeUnit.MILLISECONDS);
+        assertFalse(result.complete);
+        assertEquals(0, result.iterations);
+    }
+
+    @Test
+    public void testUnmeasuredSketch() {
+        MatrixD A = Matrices.randomNormalD(1000, 800);
+        // a completely given sketch on a fresh instance leaves the rate
+        // unmeasured, the first iteration is then considered unaffordable
+        ApproximateBasis basis = new ApproximateBasis(A, 50).setSketch(Matrices.randomNormalD(1000, 55));
+        AnytimeSVD result = basis.computeSVD(1L, TimeUnit.HOURS);
+        assertFalse(result.complete);
+        assertEquals(0, result.iterations);
+        checkError(result, A, 50);
+    }
+
+    @Test
+    public void testAdaRangeFinderFast() {
+        MatrixD A = Matrices.naturalNumbersD(220, 150);
+        AdaRangeFinderFast finder = new AdaRangeFinderFast(A);
+        MatrixD Q = finder.computeQ(1L, TimeUnit.HOURS);
+        assertTrue(finder.getErrorEstimate() <= 1.0);
+        MatrixD Q_partial = finder.computeQ(0L, TimeUnit.NANOSECONDS);
+        assertEquals(1, Q_partial.numColumns());
+        assertTrue(Q_partial.numColumns() <= Q.numColumns());
+        assertTrue(finder.getErrorEstimate() > 0.0);
+    }
+
+    private static void checkUnlimited(MatrixD A, int rank) {
+        AnytimeSVD result = new ApproximateBasis(A, rank).computeSVD(1L, TimeUnit.HOURS);
+        assertTrue(result.complete);
+        assertEquals(4, result.iterations);
+        checkError(result, A, rank);
+    }
+
+    private static void checkZeroBudget(MatrixD A, int rank) {
+        AnytimeSVD result = new ApproximateBasis(A, rank).computeSVD(0L, TimeUnit.NANOSECONDS);
+        assertFalse(result.complete);
+        assertEquals(0, result.iterations);
+        checkError(result, A, rank);
+    }
+
+    private static void checkError(AnytimeSVD result, MatrixD A, int rank) {
+        SVD svd = result.svd;
+        assertEquals(rank, svd.U.numColumns());
+        double error = A.minus(svd.U.timesTimes(svd.S, svd.Vt)).normF();
+        assertEquals(error, result.errorEstimate, TOLERANCE * A.normF());
+        assertEquals(error / A.normF(), result.relativeError, TOLERANCE);
+    }
+}
@@ -15,7 +15,10 @@
  */
 package math.rsvd;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.junit.Test;
 
@@ -86,6 +89,109 @@ public class ApproximateBasisTest {
         checkSVD(svd, A, TOLERANCE);
     }
 
+    @Test
+    public void testLowRankTallCholeskyQR() {
+        int m = 800;
+        int n = 150;
+        int estimatedRank = 10;
+        MatrixD A = Matrices.randomNormalD(m, estimatedRank).times(Matrices.randomNormalD(estimatedRank, n));
+        SVD svd = new ApproximateBasis(A, estimatedRank, Orthonormalization.CHOLESKY_QR2).computeSVD();
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testLowRankWideCholeskyQR() {
+        int m = 150;
+        int n = 800;
+        int estimatedRank = 10;
+        MatrixD A = Matrices.randomNormalD(m, estimatedRank).times(Matrices.randomNormalD(estimatedRank, n));
+        SVD svd = new ApproximateBasis(A, estimatedRank, Orthonormalization.CHOLESKY_QR2).computeSVD();
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testWarmStartTall() {
+        checkWarmStart(800, 150, 20);
+    }
+
+    @Test
+    public void testWarmStartWide() {
+        checkWarmStart(150, 800, 20);
+    }
+
+    @Test
+    public void testConsumeInputTall() {
+        checkConsumeInput(800, 150, 10);
+    }
+
+    @Test
+    public void testConsumeInputWide() {
+        checkConsumeInput(150, 800, 10);
+    }
+
+    @Test
+    public void testConsumeInputWithoutPowerIterations() {
+        MatrixD A = Matrices.randomNormalD(800, 10).times(Matrices.randomNormalD(10, 150));
+        MatrixD A_copy = A.copy();
+        SVD previous = new ApproximateBasis(A, 10).computeSVD();
+        SVD svd = new ApproximateBasis(A, 10).setConsumeInput(true).computeSVD(previous, 0);
+        checkRelativeError(svd, A_copy);
+    }
+
+    @Test
+    public void testOversamplingAndIterations() {
+        MatrixD A = Matrices.randomNormalD(800, 10).times(Matrices.randomNormalD(10, 150));
+        MetricsCollector metrics = new MetricsCollector();
+        ApproximateBasis basis = new ApproximateBasis(A, 10).setOversampling(12).setPowerIterations(1)
+                .setPhaseListener(metrics);
+        assertEquals(22, basis.getPlan().sketchWidth);
+        checkRelativeError(basis.computeSVD(), A);
+        // sketch + 2 multiplies + final multiply + projection
+        assertEquals(5, metrics.getPasses());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeOversampling() {
+        new ApproximateBasis(Matrices.randomNormalD(40, 30), 10).setOversampling(-1);
+    }
+
+    private void checkConsumeInput(int m, int n, int estimatedRank) {
+        MatrixD A = Matrices.randomNormalD(m, estimatedRank).times(Matrices.randomNormalD(estimatedRank, n));
+        MatrixD A_copy = A.copy();
+        ApproximateBasis basis = new ApproximateBasis(A, estimatedRank).setConsumeInput(true);
+        checkRelativeError(basis.computeSVD(), A_copy);
+        assertNull(basis.getSketch());
+        try {
+            basis.computeSVD();
+            fail("A has been consumed");
+        } catch (IllegalStateException expected) {
+            // expected
+        }
+    }
+
+    private void checkWarmStart(int m, int n, int k) {
+        // sigma_j = 1 / sqrt(j) decays too slowly for a single power iteration
+        MatrixD A0 = SpectralMatrices.withSpectrum(m, n, SpectralMatrices.polynomial(Math.min(m, n), 0.5), 3L);
+        SVD exact = Backend.JAMU.svd(A0);
+        SVD previous = new SVD(exact.U.selectConsecutiveColumns(0, k - 1), exact.S.selectSubmatrix(0, 0, k - 1, k - 1),
+                exact.Vt.selectSubmatrix(0, 0, k - 1, n - 1));
+        // A changes slightly
+        MatrixD A = A0.plus(Matrices.randomNormalD(m, n).scaleInplace(1.0e-4 / Math.sqrt(Math.max(m, n))));
+        double optimal = A.svdEcon().getS()[k];
+
+        SVD warm = new ApproximateBasis(A, k).computeSVD(previous, 1);
+        SVD cold = new ApproximateBasis(A, k).setPowerIterations(1).computeSVD();
+        double warmError = A.minus(warm.U.timesTimes(warm.S, warm.Vt)).norm2();
+        double coldError = A.minus(cold.U.timesTimes(cold.S, cold.Vt)).norm2();
+        assertTrue("warm " + warmError + ", cold " + coldError, warmError < coldError);
+        assertTrue("warm " + warmError + ", optimal " + optimal, warmError < 1.01 * optimal);
+    }
+
+    private void checkRelativeError(SVD svd, MatrixD A) {
+        double error = A.minus(svd.U.timesTimes(svd.S, svd.Vt)).normF() / A.normF();
+        assertTrue("relative error " + error, error < TOLERANCE);
+    }
+
     private void checkSVD(SVD svd, MatrixD A_expected, double tolerance) {
         MatrixD U = svd.U;
         MatrixD S = svd.S;
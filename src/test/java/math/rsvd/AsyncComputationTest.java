@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class AsyncComputationTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterClass
+    public static void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testProgress() throws Exception {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        final AtomicInteger completed = new AtomicInteger();
+        final AtomicInteger total = new AtomicInteger();
+        SVD svd = new ApproximateBasis(A, 150).computeSVDAsync(executor, (passesCompleted, passesTotal, stats) -> {
+            assertTrue(passesCompleted >= completed.get());
+            completed.set(passesCompleted);
+            total.set(passesTotal);
+        }).get();
+        assertEquals(11, completed.get());
+        assertEquals(11, total.get());
+        MatrixD A_approx = svd.U.timesTimes(svd.S, svd.Vt);
+        double residual = A_approx.minus(A).normF() / A.normF();
+        assertTrue("reconstruction of A: " + residual, residual < TOLERANCE);
+    }
+
+    @Test
+    public void testCancellation() throws Exception {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        final CompletableFuture<?>[] future = new CompletableFuture<?>[1];
+        final AtomicInteger phases = new AtomicInteger();
+        ApproximateBasis basis = new ApproximateBasis(A, 20).setPhaseListener(new PhaseListener() {
+            @Override
+            public void phaseStarted(Phase phase) {
+                phases.incrementAndGet();
+            }
+
+            @Override
+            public void phaseCompleted(PhaseStats stats) {
+                if (stats.phase == Phase.MULTIPLY) {
+                    future[0].cancel(false);
+                }
+            }
+        });
+        // hold the computation back until the future is published
+        CompletableFuture<Void> gate = new CompletableFuture<>();
+        executor.execute(() -> gate.join());
+        future[0] = basis.computeSVDAsync(executor);
+        gate.complete(null);
+        try {
+            future[0].get();
+            fail("CancellationException expected");
+        } catch (CancellationException expected) {
+        }
+        // wait for the worker to unwind
+        executor.submit(() -> null).get();
+        // sketch, transpose, first multiply, no further phase
+        assertEquals(3, phases.get());
+    }
+
+    @Test
+    public void testDeadline() throws Exception {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        CompletableFuture<SVD> future = new ApproximateBasis(A, 20).computeSVDAsync(executor, null, 0L,
+                TimeUnit.NANOSECONDS);
+        try {
+            future.get();
+            fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        }
+    }
+
+    @Test
+    public void testDeadlineDuringPhase() throws Exception {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger phases = new AtomicInteger();
+        // the sketch phase blocks like a long GEMM would
+        ApproximateBasis basis = new ApproximateBasis(A, 20).setPhaseListener(new PhaseListener() {
+            @Override
+            public void phaseStarted(Phase phase) {
+                if (phases.incrementAndGet() == 1) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void phaseCompleted(PhaseStats stats) {
+            }
+        });
+        CompletableFuture<SVD> future = basis.computeSVDAsync(executor, null, 50L, TimeUnit.MILLISECONDS);
+        try {
+            future.get(10L, TimeUnit.SECONDS);
+            fail("TimeoutException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof TimeoutException);
+        } finally {
+            release.countDown();
+        }
+        // the computation gets abandoned at the start of the next phase
+        executor.submit(() -> null).get();
+        assertEquals(1, phases.get());
+    }
+}
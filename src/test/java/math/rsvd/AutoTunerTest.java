@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import math.rsvd.Tuning.Algorithm;
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class AutoTunerTest {
+
+    @Test
+    public void testExactlyLowRankTall() {
+        checkSingleSketch(lowRank(300, 200, 10));
+    }
+
+    @Test
+    public void testExactlyLowRankWide() {
+        checkSingleSketch(lowRank(200, 300, 10));
+    }
+
+    @Test
+    public void testOperator() {
+        MatrixD A = lowRank(200, 300, 10);
+        AutoTuner tuner = new AutoTuner(OffHeapMatrix.copyOf(A), 10, 1.0e-6);
+        Tuning tuning = tuner.getTuning();
+        // a single sketch
+        assertEquals(Algorithm.RAN_RANGE_FINDER, tuning.algorithm);
+        assertEquals(2, tuning.passes);
+        assertTrue(Double.isNaN(tuning.density));
+        checkError(tuner.computeSVD(), A, 1.0e-6, 10);
+    }
+
+    @Test
+    public void testSlowDecay() {
+        // sigma_j = 1 / j, the optimal rank 10 error is 1/11
+        MatrixD A = SpectralMatrices.withSpectrum(300, 200, SpectralMatrices.polynomial(150, 1.0), 1L);
+        AutoTuner tuner = new AutoTuner(A, 10, 0.1);
+        Tuning tuning = tuner.getTuning();
+        assertTrue(tuning.toString(), tuning.reachable);
+        assertNotEquals(tuning.toString(), Algorithm.RAN_RANGE_FINDER, tuning.algorithm);
+        assertTrue(tuning.toString(), tuning.passes > 2);
+        checkError(tuner.computeSVD(), A, 0.1, 10);
+    }
+
+    @Test
+    public void testUnreachable() {
+        MatrixD A = Matrices.randomNormalD(300, 200);
+        AutoTuner tuner = new AutoTuner(A, 10, 1.0e-3);
+        Tuning tuning = tuner.getTuning();
+        assertFalse(tuning.reachable);
+        assertTrue(tuning.toString(), tuning.passes > 2);
+        double optimal = A.svdEcon().getS()[10] / A.norm2();
+        checkError(tuner.computeSVD(), A, 1.2 * optimal, 10);
+    }
+
+    @Test
+    public void testUnknownRank() {
+        MatrixD A = SpectralMatrices.withSpectrum(200, 150, SpectralMatrices.exponential(100, 0.5), 2L);
+        AutoTuner tuner = new AutoTuner(A, 0, 1.0e-4);
+        Tuning tuning = tuner.getTuning();
+        assertEquals(Algorithm.ADA_RANGE_FINDER_FAST, tuning.algorithm);
+        SVD svd = tuner.computeSVD();
+        // sigma_14 = 2^-14 < 10^-4
+        assertTrue(svd.U.numColumns() >= 14);
+        checkError(svd, A, 1.0e-4, svd.U.numColumns());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeRank() {
+        new AutoTuner(Matrices.randomNormalD(30, 20), -1, 0.1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveTolerance() {
+        new AutoTuner(Matrices.randomNormalD(30, 20), 5, 0.0);
+    }
+
+    private static void checkSingleSketch(MatrixD A) {
+        AutoTuner tuner = new AutoTuner(A, 10, 1.0e-6);
+        Tuning tuning = tuner.getTuning();
+        assertEquals(Algorithm.RAN_RANGE_FINDER, tuning.algorithm);
+        assertEquals(2, tuning.passes);
+        assertTrue(tuning.reachable);
+        assertEquals(1.0, tuning.density, 0.0);
+        checkError(tuner.computeSVD(), A, 1.0e-6, 10);
+    }
+
+    private static void checkError(SVD svd, MatrixD A, double tolerance, int rank) {
+        assertEquals(rank, svd.U.numColumns());
+        assertEquals(rank, svd.Vt.numRows());
+        double error = A.minus(svd.U.timesTimes(svd.S, svd.Vt)).norm2() / A.norm2();
+        assertTrue("relative error " + error, error <= tolerance);
+    }
+
+    private static MatrixD lowRank(int m, int n, int rank) {
+        return Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+    }
+}
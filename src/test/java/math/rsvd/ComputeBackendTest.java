@@ -0,0 +1,196 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import randomizedSVD.RanBlockKrylov;
+import randomizedSVD.RanPowerIteration;
+import randomizedSVD.RanRangeFinder;
+import randomizedSVD.RanSubspaceIteration;
+
+public class ComputeBackendTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    @Test
+    public void testForName() {
+        assertSame(Backend.JAVA, ComputeBackend.forName("java"));
+        assertSame(Backend.JAMU, ComputeBackend.forName("JAMU"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBackend() {
+        ComputeBackend.forName("no such backend");
+    }
+
+    @Test
+    public void testGemm() {
+        MatrixD A = Matrices.randomNormalD(700, 300);
+        MatrixD B = Matrices.randomNormalD(300, 25);
+        MatrixD Y = Matrices.randomNormalD(700, 25);
+        MatrixD expected = A.times(B);
+        MatrixD actual = Backend.JAVA.mult(A, B, Matrices.createD(700, 25));
+        assertTrue(expected.minus(actual).normF() <= TOLERANCE * expected.normF());
+        expected = A.transpose().times(Y);
+        actual = Backend.JAVA.transAmult(A, Y, Matrices.createD(300, 25));
+        assertTrue(expected.minus(actual).normF() <= TOLERANCE * expected.normF());
+        MatrixD X = Matrices.randomNormalD(25, 300);
+        expected = A.times(X.transpose());
+        actual = Backend.JAVA.transBmult(A, X, Matrices.createD(700, 25));
+        assertTrue(expected.minus(actual).normF() <= TOLERANCE * expected.normF());
+    }
+
+    @Test
+    public void testQR() {
+        MatrixD Y = Matrices.randomNormalD(600, 40);
+        MatrixD[] QR = Backend.JAVA.qr(Y);
+        double orthogonality = QR[0].transposedTimes().minus(Matrices.identityD(40)).normF();
+        assertTrue("loss of orthogonality " + orthogonality, orthogonality < TOLERANCE);
+        for (int j = 0; j < 40; ++j) {
+            for (int i = j + 1; i < 40; ++i) {
+                assertEquals(0.0, QR[1].get(i, j), 0.0);
+            }
+        }
+        assertTrue(QR[0].times(QR[1]).minus(Y).normF() <= TOLERANCE * Y.normF());
+    }
+
+    @Test
+    public void testLU() {
+        for (MatrixD Y : new MatrixD[] { Matrices.randomNormalD(300, 30), Matrices.randomNormalD(30, 50) }) {
+            MatrixD expected = Backend.JAMU.lu(Y);
+            MatrixD actual = Backend.JAVA.lu(Y);
+            assertTrue(expected.minus(actual).normF() <= 1.0e-10 * expected.normF());
+        }
+    }
+
+    @Test
+    public void testSVD() {
+        for (MatrixD B : new MatrixD[] { Matrices.randomNormalD(60, 25), Matrices.randomNormalD(25, 60) }) {
+            SVD expected = Backend.JAMU.svd(B);
+            SVD actual = Backend.JAVA.svd(B);
+            assertEquals(25, actual.S.numRows());
+            for (int i = 0; i < 25; ++i) {
+                assertEquals(expected.S.get(i, i), actual.S.get(i, i), TOLERANCE * expected.S.get(0, 0));
+            }
+            MatrixD B_approx = actual.U.timesTimes(actual.S, actual.Vt);
+            assertTrue(B_approx.minus(B).normF() <= TOLERANCE * B.normF());
+        }
+    }
+
+    @Test
+    public void testSVDRankDeficient() {
+        // the last 5 columns are zero, so are the last 5 singular values
+        MatrixD B = Matrices.randomNormalD(40, 15).appendMatrix(Matrices.createD(40, 5));
+        for (MatrixD M : new MatrixD[] { B, B.transpose() }) {
+            SVD svd = Backend.JAVA.svd(M);
+            assertEquals(0.0, svd.S.get(19, 19), 0.0);
+            // both factors have orthonormal columns or rows nonetheless
+            MatrixD I = Matrices.identityD(20);
+            assertTrue(svd.U.transpose().times(svd.U).minus(I).normF() <= TOLERANCE * 20);
+            assertTrue(svd.Vt.times(svd.Vt.transpose()).minus(I).normF() <= TOLERANCE * 20);
+            MatrixD M_approx = svd.U.timesTimes(svd.S, svd.Vt);
+            assertTrue(M_approx.minus(M).normF() <= TOLERANCE * M.normF());
+        }
+    }
+
+    @Test
+    public void testApproximateBasis() {
+        for (MatrixD A : new MatrixD[] { Matrices.randomNormalD(220, 150), Matrices.randomNormalD(150, 220) }) {
+            SVD svd = new ApproximateBasis(A, 150).setBackend(Backend.JAVA).computeSVD();
+            MatrixD A_approx = svd.U.timesTimes(svd.S, svd.Vt);
+            assertTrue(A_approx.minus(A).normF() <= 1.0e-10 * A.normF());
+        }
+    }
+
+    @Test
+    public void testRanSubspaceIteration() {
+        MatrixD A = Matrices.randomNormalD(400, 10).times(Matrices.randomNormalD(10, 200));
+        MatrixD Q = new RanSubspaceIteration(A, 10, 2).setBackend(Backend.JAVA).computeQ();
+        MatrixD A_approx = Q.times(Q.transpose().times(A));
+        assertTrue(A_approx.minus(A).normF() <= 1.0e-10 * A.normF());
+    }
+
+    @Test
+    public void testRangeFindersUseBackend() {
+        MatrixD A = Matrices.randomNormalD(300, 10).times(Matrices.randomNormalD(10, 200));
+        MatrixD[] bases = new MatrixD[5];
+        CountingBackend[] backends = new CountingBackend[bases.length + 1];
+        for (int i = 0; i < backends.length; ++i) {
+            backends[i] = new CountingBackend();
+        }
+        bases[0] = new RanRangeFinder(A, 10).setBackend(backends[0]).computeQ();
+        bases[1] = new RanPowerIteration(A, 10, 2).setBackend(backends[1]).computeQ();
+        bases[2] = new RanBlockKrylov(A, 10, 2).setBackend(backends[2]).computeQ();
+        bases[3] = new AdaRangeFinder(A).setBackend(backends[3]).computeQ();
+        bases[4] = new AdaRangeFinderFast(A).setTolerance(1.0e-8 * A.normF()).setBackend(backends[4]).computeQ();
+        for (int i = 0; i < bases.length; ++i) {
+            MatrixD Q = bases[i];
+            MatrixD A_approx = Q.times(Q.transpose().times(A));
+            assertTrue("basis " + i, A_approx.minus(A).normF() <= 1.0e-8 * A.normF());
+            assertTrue("backend " + i, backends[i].calls > 0);
+        }
+        SVD svd = new DashSVD(A, 10).setBackend(backends[5]).computeSVD();
+        MatrixD A_approx = svd.U.timesTimes(svd.S, svd.Vt);
+        assertTrue(A_approx.minus(A).normF() <= 1.0e-8 * A.normF());
+        assertTrue(backends[5].calls > 0);
+    }
+
+    private static final class CountingBackend implements ComputeBackend {
+        int calls;
+
+        @Override
+        public String name() {
+            return "counting";
+        }
+
+        @Override
+        public MatrixD mult(MatrixD A, MatrixD B, MatrixD C) {
+            ++calls;
+            return Backend.JAVA.mult(A, B, C);
+        }
+
+        @Override
+        public MatrixD transAmult(MatrixD A, MatrixD B, MatrixD C) {
+            ++calls;
+            return Backend.JAVA.transAmult(A, B, C);
+        }
+
+        @Override
+        public MatrixD[] qr(MatrixD Y) {
+            ++calls;
+            return Backend.JAVA.qr(Y);
+        }
+
+        @Override
+        public MatrixD lu(MatrixD Y) {
+            ++calls;
+            return Backend.JAVA.lu(Y);
+        }
+
+        @Override
+        public SVD svd(MatrixD B) {
+            ++calls;
+            return Backend.JAVA.svd(B);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class DashSVDTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testNaturalNumbersTall() {
+        int m = 220;
+        int n = 150;
+        int estimatedRank = 2;
+        MatrixD A = Matrices.naturalNumbersD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testNaturalNumbersWide() {
+        int m = 150;
+        int n = 220;
+        int estimatedRank = 2;
+        MatrixD A = Matrices.naturalNumbersD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testRandomNormalTall() {
+        int m = 220;
+        int n = 150;
+        int estimatedRank = Math.min(m, n);
+        MatrixD A = Matrices.randomNormalD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testRandomNormalWide() {
+        int m = 150;
+        int n = 220;
+        int estimatedRank = Math.min(m, n);
+        MatrixD A = Matrices.randomNormalD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testRandomUniformTall() {
+        int m = 220;
+        int n = 150;
+        int estimatedRank = Math.min(m, n);
+        MatrixD A = Matrices.randomUniformD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testRandomUniformWide() {
+        int m = 150;
+        int n = 220;
+        int estimatedRank = Math.min(m, n);
+        MatrixD A = Matrices.randomUniformD(m, n);
+        SVD svd = getSVD(A, estimatedRank);
+        checkSVD(svd, A, TOLERANCE);
+    }
+
+    @Test
+    public void testSlowDecay() {
+        int m = 300;
+        int n = 200;
+        int estimatedRank = 10;
+        // sigma_i = 1 / sqrt(i)
+        double[] sigma = new double[n];
+        for (int i = 0; i < n; ++i) {
+            sigma[i] = 1.0 / Math.sqrt(i + 1.0);
+        }
+        MatrixD U = Matrices.randomNormalD(m, n).qrd().getQ();
+        MatrixD V = Matrices.randomNormalD(n, n).qrd().getQ();
+        MatrixD A = U.timesTimes(Matrices.diagD(sigma), V.transpose());
+
+        DashSVD dash = new DashSVD(A, estimatedRank, 20, 1.0e-3);
+        SVD svd = dash.computeSVD();
+        assertTrue("should stop before the iteration limit", dash.getIterations() < 20);
+        for (int i = 0; i < estimatedRank; ++i) {
+            assertEquals(sigma[i], svd.S.get(i, i), 0.02 * sigma[i]);
+        }
+    }
+
+    private void checkSVD(SVD svd, MatrixD A_expected, double tolerance) {
+        MatrixD U = svd.U;
+        MatrixD S = svd.S;
+        MatrixD Vt = svd.Vt;
+
+        // elementwise comparisons fail sporadically for entries close to 0
+        MatrixD A_approx = U.timesTimes(S, Vt);
+        double error = A_approx.minus(A_expected).normF() / A_expected.normF();
+        assertTrue("relative error of the reconstruction of A " + error, error < tolerance);
+    }
+
+    private SVD getSVD(MatrixD A, int estimatedRank) {
+        return new DashSVD(A, estimatedRank).computeSVD();
+    }
+}
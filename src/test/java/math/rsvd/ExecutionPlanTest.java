@@ -0,0 +1,203 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import math.rsvd.ExecutionPlan.Strategy;
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import randomizedSVD.RanPowerIteration;
+
+public class ExecutionPlanTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testUnlimited() {
+        ExecutionPlan plan = new ApproximateBasis(Matrices.randomNormalD(400, 300), 10).getPlan();
+        assertEquals(Strategy.IN_MEMORY, plan.strategy);
+        assertEquals(15, plan.sketchWidth);
+        assertFalse(plan.materializeTranspose);
+        assertEquals(ExecutionPlan.UNLIMITED, plan.budgetBytes);
+    }
+
+    @Test
+    public void testSketchWidthCappedAtMinDimension() {
+        ExecutionPlan plan = new ApproximateBasis(Matrices.randomNormalD(400, 12), 10).getPlan();
+        assertEquals(12, plan.sketchWidth);
+    }
+
+    @Test
+    public void testBudgetReducesOversampling() {
+        MatrixD A = lowRank(400, 300, 10);
+        ApproximateBasis basis = new ApproximateBasis(A, 10);
+        long unlimited = basis.getPlan().estimatedBytes;
+        ExecutionPlan plan = basis.setMemoryBudget(unlimited - 1L).getPlan();
+        assertTrue(plan.sketchWidth < 15);
+        assertTrue(plan.sketchWidth >= 10);
+        assertTrue(plan.estimatedBytes < unlimited);
+
+        SVD svd = basis.computeSVD();
+        assertEquals(10, svd.U.numColumns());
+        double residual = svd.U.timesTimes(svd.S, svd.Vt).minus(A).normF() / A.normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBudgetTooSmall() {
+        new ApproximateBasis(Matrices.randomNormalD(400, 300), 10).setMemoryBudget(100_000L).getPlan();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonPositiveBudget() {
+        new ApproximateBasis(Matrices.randomNormalD(40, 30), 10).setMemoryBudget(0L);
+    }
+
+    @Test
+    public void testOffHeapPanels() {
+        MatrixD A = lowRank(400, 300, 10);
+        OffHeapMatrix M = OffHeapMatrix.copyOf(A);
+        ApproximateBasis basis = new ApproximateBasis(M, 10, Orthonormalization.HOUSEHOLDER);
+        ExecutionPlan unlimited = basis.getPlan();
+        assertEquals(Strategy.STREAMING, unlimited.strategy);
+        assertEquals(M.getPanelRows(), unlimited.panelRows);
+
+        ExecutionPlan plan = basis.setMemoryBudget(unlimited.estimatedBytes - 1L).getPlan();
+        assertTrue(plan.panelRows < unlimited.panelRows);
+        assertEquals(unlimited.sketchWidth, plan.sketchWidth);
+
+        SVD svd = basis.computeSVD();
+        double residual = svd.U.timesTimes(svd.S, svd.Vt).minus(A).normF() / A.normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+
+        // the smaller panels only apply to that computation
+        assertEquals(unlimited.panelRows, basis.setMemoryBudget(ExecutionPlan.UNLIMITED).getPlan().panelRows);
+        assertEquals(M.getPanelRows(), unlimited.panelRows);
+    }
+
+    @Test
+    public void testRanPowerIterationStrategies() {
+        checkRanPowerIteration(lowRank(300, 200, 8));
+        checkRanPowerIteration(lowRank(200, 300, 8));
+    }
+
+    @Test
+    public void testRanPowerIterationOperator() {
+        MatrixD A = lowRank(300, 200, 8);
+        RanPowerIteration rpi = new RanPowerIteration(OffHeapMatrix.copyOf(A), 8, 1);
+        ExecutionPlan plan = rpi.getPlan();
+        assertEquals(Strategy.STREAMING, plan.strategy);
+        assertFalse(plan.materializeTranspose);
+        assertEquals(new RanPowerIteration(A, 8, 1).setMemoryBudget(plan.estimatedBytes).getPlan().estimatedBytes,
+                plan.estimatedBytes);
+        checkBasis(rpi.computeQ(), A);
+    }
+
+    @Test
+    public void testInPlaceLU() {
+        // the estimates don't count an m x l workspace for the LU
+        MatrixD Y = Matrices.randomNormalD(20_000, 20);
+        for (Backend backend : Backend.values()) {
+            backend.luInPlace(Y.copy());
+            MatrixD Z = Y.copy();
+            long before = PhaseRecorder.allocatedBytes();
+            backend.luInPlace(Z);
+            long allocated = PhaseRecorder.allocatedBytes() - before;
+            if (before >= 0L) {
+                assertTrue(backend + " allocated " + allocated, allocated < 8L * Y.numRows() * Y.numColumns() / 2L);
+            }
+        }
+    }
+
+    @Test
+    public void testLogging() {
+        Logger logger = Logger.getLogger(ExecutionPlan.class.getName());
+        final List<LogRecord> records = new ArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        logger.addHandler(handler);
+        try {
+            MatrixD A = Matrices.randomNormalD(100, 80);
+            new ApproximateBasis(A, 10).setMemoryBudget(1L << 30).computeSVD();
+        } finally {
+            logger.removeHandler(handler);
+        }
+        assertEquals(1, records.size());
+        assertEquals(Level.INFO, records.get(0).getLevel());
+        assertTrue(records.get(0).getMessage().startsWith("ApproximateBasis plan[strategy=IN_MEMORY"));
+    }
+
+    private static void checkRanPowerIteration(MatrixD A) {
+        RanPowerIteration rpi = new RanPowerIteration(A, 8, 1);
+        ExecutionPlan inMemory = rpi.getPlan();
+        assertEquals(Strategy.IN_MEMORY, inMemory.strategy);
+        checkBasis(rpi.computeQ(), A);
+
+        ExecutionPlan transposed = rpi.setMemoryBudget(inMemory.estimatedBytes - 1L).getPlan();
+        assertEquals(Strategy.STREAMING, transposed.strategy);
+        assertTrue(transposed.materializeTranspose);
+        checkBasis(rpi.computeQ(), A);
+
+        ExecutionPlan folded = rpi.setMemoryBudget(transposed.estimatedBytes - 1L).getPlan();
+        assertEquals(Strategy.STREAMING, folded.strategy);
+        assertFalse(folded.materializeTranspose);
+        checkBasis(rpi.computeQ(), A);
+
+        try {
+            rpi.setMemoryBudget(folded.estimatedBytes - 1L).getPlan();
+            assertTrue("budget should be too small", false);
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
+
+    private static void checkBasis(MatrixD Q, MatrixD A) {
+        // ||A - Q * Q^T * A|| (||A - A * Q * Q^T|| for a wide A) is tiny
+        // when A has rank <= l
+        MatrixD A_approx = (A.numRows() >= A.numColumns()) ? Q.times(Q.transpose().times(A))
+                : A.times(Q).times(Q.transpose());
+        double residual = A_approx.minus(A).normF() / A.normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+    }
+
+    private static MatrixD lowRank(int m, int n, int rank) {
+        return Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+    }
+}
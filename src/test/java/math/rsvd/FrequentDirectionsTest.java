@@ -0,0 +1,86 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class FrequentDirectionsTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testCovarianceBound() {
+        int m = 2000;
+        int n = 100;
+        int l = 20;
+        MatrixD A = Matrices.randomNormalD(m, n);
+        FrequentDirections fd = new FrequentDirections(n, l).update(A);
+        MatrixD B = fd.getSketch();
+        assertEquals(l, B.numRows());
+        assertEquals(m, fd.getRowsSeen());
+
+        double error = A.transposedTimes().minus(B.transposedTimes()).norm2();
+        double normF = A.normF();
+        assertEquals(normF * normF, fd.normFSquared(), TOLERANCE * normF * normF);
+        assertTrue("error " + error + " > shrinkage " + fd.shrinkage(), error <= fd.shrinkage() * (1.0 + TOLERANCE));
+        assertTrue(fd.shrinkage() <= normF * normF / l);
+    }
+
+    @Test
+    public void testLowRankIsExact() {
+        int m = 500;
+        int n = 60;
+        int k = 5;
+        MatrixD A = Matrices.randomNormalD(m, k).times(Matrices.randomNormalD(k, n));
+        FrequentDirections fd = new FrequentDirections(n, 10);
+        double[] row = new double[n];
+        for (int i = 0; i < m; ++i) {
+            for (int j = 0; j < n; ++j) {
+                row[j] = A.get(i, j);
+            }
+            fd.update(row);
+        }
+        SVD svd = fd.computeSVD(k);
+        double[] expected = A.singularValues();
+        for (int i = 0; i < k; ++i) {
+            assertEquals(expected[i], svd.S.get(i, i), TOLERANCE * expected[0]);
+        }
+        // A * V * V^T == A
+        MatrixD AV = A.transBmult(svd.Vt, Matrices.createD(m, k));
+        MatrixD A_approx = AV.times(svd.Vt);
+        double residual = A.minus(A_approx).normF() / A.normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+    }
+
+    @Test
+    public void testBlocksEqualRows() {
+        int n = 30;
+        MatrixD A = Matrices.randomNormalD(100, n);
+        MatrixD B1 = new FrequentDirections(n, 8).update(A).getSketch();
+        FrequentDirections fd = new FrequentDirections(n, 8);
+        for (int i = 0; i < 100; i += 25) {
+            fd.update(A.selectSubmatrix(i, 0, i + 24, n - 1));
+        }
+        MatrixD B2 = fd.getSketch();
+        assertEquals(0.0, B1.minus(B2).normF(), 0.0);
+    }
+}
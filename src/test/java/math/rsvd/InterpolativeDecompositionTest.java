@@ -0,0 +1,78 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class InterpolativeDecompositionTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testNaturalNumbersTall() {
+        MatrixD A = Matrices.naturalNumbersD(220, 150);
+        checkAll(A, 2);
+    }
+
+    @Test
+    public void testNaturalNumbersWide() {
+        MatrixD A = Matrices.naturalNumbersD(150, 220);
+        checkAll(A, 2);
+    }
+
+    @Test
+    public void testLowRankNormalTall() {
+        MatrixD A = lowRank(220, 150, 12);
+        checkAll(A, 12);
+    }
+
+    @Test
+    public void testLowRankNormalWide() {
+        MatrixD A = lowRank(150, 220, 12);
+        checkAll(A, 12);
+    }
+
+    @Test
+    public void testOverestimatedRank() {
+        MatrixD A = lowRank(220, 150, 7);
+        checkAll(A, 20);
+    }
+
+    private static MatrixD lowRank(int m, int n, int rank) {
+        return Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+    }
+
+    private void checkAll(MatrixD A, int estimatedRank) {
+        InterpolativeDecomposition id = new InterpolativeDecomposition(A, estimatedRank);
+
+        ID colID = id.computeColumnID();
+        MatrixD A_approx = InterpolativeDecomposition.selectColumns(A, colID.indices).times(colID.P);
+        assertTrue("column ID should reconstruct A", Matrices.approxEqual(A_approx, A, TOLERANCE));
+
+        ID rowID = id.computeRowID();
+        A_approx = rowID.P.times(InterpolativeDecomposition.selectRows(A, rowID.indices));
+        assertTrue("row ID should reconstruct A", Matrices.approxEqual(A_approx, A, TOLERANCE));
+
+        CUR cur = id.computeCUR();
+        A_approx = cur.C.timesTimes(cur.U, cur.R);
+        assertTrue("CUR should reconstruct A", Matrices.approxEqual(A_approx, A, TOLERANCE));
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Random;
+
+/**
+ * Compares the scalar kernels with the (possibly vectorized) {@link Kernels}
+ * on the projection {@code Y = (I - q * q^T) * Y} that dominates the adaptive
+ * range finders. Run with {@code --add-modules jdk.incubator.vector} on Java
+ * 17+ against the multi-release jar to measure the Vector API path.
+ */
+public class KernelsBenchmark {
+
+    private static final int WARMUP = 5;
+    private static final int RUNS = 10;
+
+    public static void main(String[] args) {
+        int m = (args.length > 0) ? Integer.parseInt(args[0]) : 20_000;
+        int cols = (args.length > 1) ? Integer.parseInt(args[1]) : 10;
+        int reps = (args.length > 2) ? Integer.parseInt(args[2]) : 2_000;
+
+        Random rnd = new Random(42);
+        double[] q = new double[m];
+        double[] Y = new double[m * cols];
+        double norm = 0.0;
+        for (int i = 0; i < m; ++i) {
+            q[i] = rnd.nextGaussian();
+            norm += q[i] * q[i];
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < m; ++i) {
+            q[i] /= norm;
+        }
+        for (int i = 0; i < Y.length; ++i) {
+            Y[i] = rnd.nextGaussian();
+        }
+
+        System.out.println("m = " + m + ", cols = " + cols + ", reps = " + reps + ", vectorized = "
+                + Kernels.isVectorized());
+        double scalar = 0.0;
+        double kernels = 0.0;
+        for (int run = 0; run < WARMUP + RUNS; ++run) {
+            long t0 = System.nanoTime();
+            for (int r = 0; r < reps; ++r) {
+                ScalarKernels.projectOut(q, Y, m, cols);
+            }
+            long t1 = System.nanoTime();
+            for (int r = 0; r < reps; ++r) {
+                Kernels.projectOut(q, Y, m, cols);
+            }
+            long t2 = System.nanoTime();
+            if (run >= WARMUP) {
+                scalar += (t1 - t0);
+                kernels += (t2 - t1);
+            }
+        }
+        // 4 flops per element: dot (mul + add), axpy (mul + add)
+        double flops = 4.0 * m * (double) cols * reps * RUNS;
+        System.out.printf("scalar : %8.2f ms, %6.2f GFlop/s%n", scalar / 1.0e6 / RUNS, flops / scalar);
+        System.out.printf("kernels: %8.2f ms, %6.2f GFlop/s%n", kernels / 1.0e6 / RUNS, flops / kernels);
+        System.out.printf("speedup: %.2fx%n", scalar / kernels);
+    }
+}
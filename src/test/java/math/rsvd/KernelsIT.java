@@ -0,0 +1,33 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+/**
+ * Runs the {@link KernelsTest} checks from the multi-release jar with the
+ * {@code jdk.incubator.vector} module added, i.e. against the Vector API
+ * kernels (see the {@code java17} profile).
+ */
+public class KernelsIT extends KernelsTest {
+
+    @Test
+    public void testVectorized() {
+        assertTrue(Kernels.isVectorized());
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class KernelsTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    @Test
+    public void testDotAndAxpy() {
+        Random rnd = new Random(7);
+        // lengths around the usual vector widths to exercise the tails
+        for (int len = 0; len <= 37; ++len) {
+            double[] x = random(rnd, len + 3);
+            double[] y = random(rnd, len + 5);
+            double expected = 0.0;
+            for (int i = 0; i < len; ++i) {
+                expected += x[3 + i] * y[5 + i];
+            }
+            assertEquals(expected, Kernels.dot(x, 3, y, 5, len), TOLERANCE);
+
+            double[] z = y.clone();
+            Kernels.axpy(-0.5, x, 3, z, 5, len);
+            for (int i = 0; i < y.length; ++i) {
+                double e = (i >= 5 && i < 5 + len) ? y[i] - 0.5 * x[i - 2] : y[i];
+                assertEquals(e, z[i], TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void testProjectOut() {
+        int m = 203;
+        MatrixD q = Matrices.randomNormalD(m, 1);
+        q.scaleInplace(1.0 / q.norm2());
+        MatrixD Y = Matrices.randomNormalD(m, 9);
+        MatrixD expected = Y.minus(q.times(q.transpose().times(Y)));
+
+        Kernels.projectOut(q.getArrayUnsafe(), Y.getArrayUnsafe(), m, Y.numColumns());
+        assertEquals(0.0, Y.minus(expected).normF(), TOLERANCE);
+        assertEquals(0.0, q.transpose().times(Y).normF(), TOLERANCE);
+    }
+
+    private static double[] random(Random rnd, int len) {
+        double[] a = new double[len];
+        for (int i = 0; i < len; ++i) {
+            a[i] = rnd.nextGaussian();
+        }
+        return a;
+    }
+}
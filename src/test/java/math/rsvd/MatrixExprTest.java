@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class MatrixExprTest {
+
+    private static final double TOLERANCE = 1.0e-10;
+
+    @Test
+    public void testChainOrder() {
+        MatrixD A = Matrices.randomNormalD(10, 300);
+        MatrixD B = Matrices.randomNormalD(300, 10);
+        MatrixD C = Matrices.randomNormalD(10, 300);
+        MatrixExpr e = MatrixExpr.of(A).times(B).times(C);
+        assertEquals("(([10x300] * [300x10]) * [10x300])", e.explain());
+        check(A.times(B).times(C), e);
+
+        // the same chain built from the right gets reassociated
+        e = MatrixExpr.of(A).times(MatrixExpr.of(B).times(C));
+        assertEquals("(([10x300] * [300x10]) * [10x300])", e.explain());
+
+        MatrixD D = Matrices.randomNormalD(300, 5);
+        e = MatrixExpr.of(B).times(C).times(D);
+        assertEquals("([300x10] * ([10x300] * [300x5]))", e.explain());
+        check(B.times(C.times(D)), e);
+    }
+
+    @Test
+    public void testTransposeFolding() {
+        MatrixD A = Matrices.randomNormalD(50, 40);
+        MatrixD B = Matrices.randomNormalD(50, 30);
+        MatrixD C = Matrices.randomNormalD(20, 40);
+        MatrixExpr e = MatrixExpr.of(A).transpose().times(B);
+        assertEquals("([50x40]^T * [50x30])", e.explain());
+        check(A.transpose().times(B), e);
+        check(A.times(C.transpose()), MatrixExpr.of(A).times(MatrixExpr.of(C).transpose()));
+        MatrixD D = Matrices.randomNormalD(20, 50);
+        check(A.transpose().times(D.transpose()),
+                MatrixExpr.of(A).transpose().times(MatrixExpr.of(D).transpose()));
+
+        // (A^T * B)^T = B^T * A
+        e = MatrixExpr.of(A).transpose().times(B).transpose();
+        assertEquals("([50x30]^T * [50x40])", e.explain());
+        check(B.transpose().times(A), e);
+        assertEquals("[50x40]", MatrixExpr.of(A).transpose().transpose().explain());
+    }
+
+    @Test
+    public void testLU() {
+        MatrixD A = Matrices.randomNormalD(200, 100);
+        MatrixD Q = Matrices.randomNormalD(100, 12);
+        for (Backend backend : Backend.values()) {
+            MatrixExpr e = MatrixExpr.of(A).times(Q).normalizeLU();
+            assertEquals("lu([200x100] * [100x12])", e.explain());
+            MatrixD expected = backend.lu(A.times(Q));
+            assertEquals(0.0, e.evaluate(backend).minus(expected).normF(), TOLERANCE);
+
+            // the LU normalization of a product is done in the result buffer
+            MatrixD C = Matrices.createD(200, 12);
+            assertSame(C, e.evaluate(backend, C));
+            assertEquals(0.0, C.minus(expected).normF(), TOLERANCE);
+        }
+        // a wide input isn't normalized in place
+        MatrixExpr wide = MatrixExpr.of(Q).transpose().times(Matrices.randomNormalD(100, 30)).normalizeLU();
+        assertEquals(12, wide.numRows());
+        assertEquals(12, wide.numColumns());
+        MatrixD PL = wide.evaluate();
+        assertEquals(12, PL.numColumns());
+    }
+
+    @Test
+    public void testLUInPlace() {
+        MatrixD Y = Matrices.randomNormalD(150, 20);
+        MatrixD expected = Y.lud().getPL();
+        for (Backend backend : Backend.values()) {
+            MatrixD Z = Y.copy();
+            assertSame(Z, backend.luInPlace(Z));
+            assertEquals(0.0, Z.minus(expected).normF(), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testOrthonormalize() {
+        MatrixD A = Matrices.randomNormalD(120, 80);
+        MatrixD X = Matrices.randomNormalD(80, 10);
+        for (Orthonormalization method : Orthonormalization.values()) {
+            MatrixD Q = MatrixExpr.of(A).times(X).orthonormalize(method).evaluate();
+            assertEquals(0.0, Q.transposedTimes().minus(Matrices.identityD(10)).normF(), TOLERANCE);
+            // A * X lies in the range of Q
+            MatrixD Y = A.times(X);
+            assertEquals(0.0, Y.minus(Q.times(Q.transpose().times(Y))).normF() / Y.normF(), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testOperator() {
+        MatrixD A = Matrices.randomNormalD(70, 40);
+        LinearOperator op = OffHeapMatrix.copyOf(A);
+        MatrixD X = Matrices.randomNormalD(40, 6);
+        MatrixD Y = Matrices.randomNormalD(70, 6);
+        MatrixD Z = Matrices.randomNormalD(6, 40);
+        check(A.times(X), MatrixExpr.of(op).times(X));
+        check(A.transpose().times(Y), MatrixExpr.of(op).transpose().times(Y));
+        check(A.transpose().times(Y), MatrixExpr.of(op.transpose()).times(Y));
+        // operator on the right
+        check(Y.transpose().times(A), MatrixExpr.of(Y).transpose().times(MatrixExpr.of(op)));
+        check(Z.times(A.transpose()), MatrixExpr.of(Z).times(MatrixExpr.of(op).transpose()));
+        check(A, MatrixExpr.of(op));
+    }
+
+    @Test
+    public void testMaterializeOperator() {
+        // wider than one block of unit vectors
+        MatrixD A = Matrices.randomNormalD(90, 150);
+        final LinearOperator offHeap = OffHeapMatrix.copyOf(A);
+        LinearOperator op = new LinearOperator() {
+            @Override
+            public int numRows() {
+                return offHeap.numRows();
+            }
+
+            @Override
+            public int numColumns() {
+                return offHeap.numColumns();
+            }
+
+            @Override
+            public MatrixD mult(MatrixD X, MatrixD C) {
+                return offHeap.mult(X, C);
+            }
+
+            @Override
+            public MatrixD transAmult(MatrixD Y, MatrixD C) {
+                return offHeap.transAmult(Y, C);
+            }
+
+            @Override
+            public double normF() {
+                return offHeap.normF();
+            }
+        };
+        for (LinearOperator M : new LinearOperator[] { offHeap, op }) {
+            check(A, MatrixExpr.of(M));
+            check(A.transpose(), MatrixExpr.of(M).transpose());
+            // both factors are operators, the right one gets materialized
+            check(A.times(A.transpose()), MatrixExpr.of(M).times(MatrixExpr.of(M).transpose()));
+            check(A.transpose().lud().getPL(), MatrixExpr.of(M).transpose().normalizeLU());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDimensionMismatch() {
+        MatrixExpr.of(Matrices.randomNormalD(5, 4)).times(Matrices.randomNormalD(5, 4));
+    }
+
+    private static void check(MatrixD expected, MatrixExpr e) {
+        assertEquals(expected.numRows(), e.numRows());
+        assertEquals(expected.numColumns(), e.numColumns());
+        for (Backend backend : Backend.values()) {
+            MatrixD actual = e.evaluate(backend);
+            double error = actual.minus(expected).normF() / expected.normF();
+            assertTrue(backend + ": " + e.explain() + " error " + error, error < TOLERANCE);
+        }
+    }
+}
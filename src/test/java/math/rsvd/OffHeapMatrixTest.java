@@ -0,0 +1,130 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+import randomizedSVD.RanPowerIteration;
+import randomizedSVD.RanRangeFinder;
+import randomizedSVD.RanSubspaceIteration;
+
+public class OffHeapMatrixTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    @Test
+    public void testProducts() {
+        MatrixD A = Matrices.randomNormalD(230, 170);
+        // many tiles and row panels
+        OffHeapMatrix M = new OffHeapMatrix(230, 170, 16, 50);
+        for (int j = 0; j < 170; j += 10) {
+            M.setSubmatrix(0, j, A.selectConsecutiveColumns(j, j + 9));
+        }
+        assertEquals(A.get(229, 169), M.get(229, 169), 0.0);
+        assertEquals(0.0, A.selectSubmatrix(3, 5, 40, 20).minus(M.getSubmatrix(3, 5, 40, 20)).normF(), 0.0);
+        assertEquals(A.normF(), M.normF(), TOLERANCE * A.normF());
+
+        MatrixD X = Matrices.randomNormalD(170, 7);
+        MatrixD Y = Matrices.randomNormalD(230, 7);
+        MatrixD AX = A.times(X);
+        MatrixD ATY = A.transpose().times(Y);
+        assertTrue(AX.minus(M.times(X)).normF() <= TOLERANCE * AX.normF());
+        assertTrue(ATY.minus(M.transAmult(Y, Matrices.createD(170, 7))).normF() <= TOLERANCE * ATY.normF());
+        LinearOperator MT = M.transpose();
+        assertTrue(ATY.minus(MT.times(Y)).normF() <= TOLERANCE * ATY.normF());
+    }
+
+    @Test
+    public void testProductBuffersReused() {
+        // 200 row panels times 4 tiles, a fresh 10 x 100 panel per pair
+        // would allocate more than 6 MB
+        OffHeapMatrix M = new OffHeapMatrix(2000, 400, 10, 100);
+        M.setSubmatrix(0, 0, Matrices.randomNormalD(2000, 400));
+        MatrixD X = Matrices.randomNormalD(400, 5);
+        MatrixD Y = Matrices.randomNormalD(2000, 5);
+        MatrixD C1 = Matrices.createD(2000, 5);
+        MatrixD C2 = Matrices.createD(400, 5);
+        // warm up
+        M.mult(X, C1);
+        M.transAmult(Y, C2);
+        long before = PhaseRecorder.allocatedBytes();
+        M.mult(X, C1);
+        M.transAmult(Y, C2);
+        long allocated = PhaseRecorder.allocatedBytes() - before;
+        if (before >= 0L) {
+            assertTrue("allocated " + allocated, allocated < 1000000L);
+        }
+    }
+
+    @Test
+    public void testApproximateBasisTall() {
+        checkApproximateBasis(800, 150, 10);
+    }
+
+    @Test
+    public void testApproximateBasisWide() {
+        checkApproximateBasis(150, 800, 10);
+    }
+
+    @Test
+    public void testRanSubspaceIteration() {
+        int rank = 10;
+        MatrixD A = Matrices.randomNormalD(600, rank).times(Matrices.randomNormalD(rank, 200));
+        OffHeapMatrix M = new OffHeapMatrix(600, 200, 32);
+        M.setSubmatrix(0, 0, A);
+        MatrixD Q = new RanSubspaceIteration(M, rank, 2, Orthonormalization.HOUSEHOLDER).computeQ();
+        MatrixD A_approx = Q.times(Q.transpose().times(A));
+        double error = A.minus(A_approx).normF() / A.normF();
+        assertTrue("relative error " + error, error < 1.0e-10);
+    }
+
+    @Test
+    public void testRanRangeFinder() {
+        checkBasis(600, 200, 10, false);
+        checkBasis(200, 600, 10, false);
+    }
+
+    @Test
+    public void testRanPowerIteration() {
+        checkBasis(600, 200, 10, true);
+        checkBasis(200, 600, 10, true);
+    }
+
+    private static void checkBasis(int m, int n, int rank, boolean power) {
+        MatrixD A = Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+        OffHeapMatrix M = new OffHeapMatrix(m, n, 32);
+        M.setSubmatrix(0, 0, A);
+        MatrixD Q = power ? new RanPowerIteration(M, rank, 1).computeQ() : new RanRangeFinder(M, rank).computeQ();
+        // Q spans the column space of A for a tall, the row space for a wide A
+        MatrixD A_approx = (m >= n) ? Q.times(Q.transpose().times(A)) : A.times(Q).times(Q.transpose());
+        double error = A.minus(A_approx).normF() / A.normF();
+        assertTrue("relative error " + error, error < 1.0e-8);
+    }
+
+    private static void checkApproximateBasis(int m, int n, int rank) {
+        MatrixD A = Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+        OffHeapMatrix M = new OffHeapMatrix(m, n, 64);
+        M.setSubmatrix(0, 0, A);
+        SVD svd = new ApproximateBasis(M, rank, Orthonormalization.HOUSEHOLDER).computeSVD();
+        double error = A.minus(svd.U.timesTimes(svd.S, svd.Vt)).normF() / A.normF();
+        assertTrue("relative error " + error, error < 1.0e-10);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class OrthonormalizationTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    @Test
+    public void testWellConditioned() {
+        MatrixD Y = Matrices.randomNormalD(500, 30);
+        for (Orthonormalization method : Orthonormalization.values()) {
+            checkQR(method, Y);
+        }
+    }
+
+    @Test
+    public void testIllConditioned() {
+        // cond(Y) = 10^12
+        MatrixD Y = withCondition(500, 30, 1.0e12);
+        for (Orthonormalization method : Orthonormalization.values()) {
+            checkQR(method, Y);
+        }
+    }
+
+    @Test
+    public void testIllConditionedUnitDiagonal() {
+        // R = I - strictly upper ones has a unit diagonal (the ratio of its
+        // diagonal entries says nothing) but cond(R) grows like 2^n
+        int n = 24;
+        MatrixD R = Matrices.identityD(n);
+        for (int j = 0; j < n; ++j) {
+            for (int i = 0; i < j; ++i) {
+                R.set(i, j, -1.0);
+            }
+        }
+        MatrixD Y = Matrices.randomNormalD(500, n).qrd().getQ().times(R);
+        for (Orthonormalization method : Orthonormalization.values()) {
+            checkQR(method, Y);
+        }
+    }
+
+    @Test
+    public void testApproximateBasis() {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        for (Orthonormalization method : Orthonormalization.values()) {
+            SVD svd = new ApproximateBasis(A, 150, method).computeSVD();
+            MatrixD A_approx = svd.U.timesTimes(svd.S, svd.Vt);
+            assertTrue(method + ": reconstruction of A", Matrices.approxEqual(A_approx, A, 1.0e-8));
+        }
+    }
+
+    private static MatrixD withCondition(int m, int n, double cond) {
+        MatrixD U = Matrices.randomNormalD(m, n).qrd().getQ();
+        MatrixD V = Matrices.randomNormalD(n, n).qrd().getQ();
+        double[] sigma = new double[n];
+        for (int i = 0; i < n; ++i) {
+            sigma[i] = Math.pow(cond, -i / (n - 1.0));
+        }
+        return U.timesTimes(Matrices.diagD(sigma), V.transpose());
+    }
+
+    private static void checkQR(Orthonormalizer method, MatrixD Y) {
+        MatrixD Y_copy = Y.copy();
+        MatrixD[] QR = method.factorize(Y);
+        MatrixD Q = QR[0];
+        MatrixD R = QR[1];
+        assertTrue(method + ": Y must not be modified", Matrices.approxEqual(Y, Y_copy, 0.0));
+
+        int n = Y.numColumns();
+        MatrixD I = Matrices.identityD(n);
+        double orthogonality = Q.transposedTimes().minus(I).normF();
+        assertTrue(method + ": loss of orthogonality " + orthogonality, orthogonality < TOLERANCE);
+
+        for (int j = 0; j < n; ++j) {
+            for (int i = j + 1; i < n; ++i) {
+                assertTrue(method + ": R not upper triangular", R.get(i, j) == 0.0);
+            }
+        }
+        double residual = Q.times(R).minus(Y).normF() / Y.normF();
+        assertTrue(method + ": residual " + residual, residual < TOLERANCE);
+    }
+}
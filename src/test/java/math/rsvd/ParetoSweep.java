@@ -0,0 +1,227 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import math.rsvd.SpectralMatrices.Profile;
+import net.jamu.matrix.MatrixD;
+import randomizedSVD.RanBlockKrylov;
+import randomizedSVD.RanRangeFinder;
+import randomizedSVD.RanSubspaceIteration;
+
+/**
+ * Sweeps algorithm, oversampling, iteration count and rank over the
+ * {@link Profile spectral profiles} and writes the runtime, the passes over
+ * {@code A} and the spectral and Frobenius norm errors of the rank {@code k}
+ * approximations (relative to {@code ||A||}) together with the optimal rank
+ * {@code k} errors to a CSV file. The {@code pareto} column marks the
+ * configurations that no other configuration for the same profile and rank
+ * beats in both runtime and spectral error.
+ * <p>
+ * Usage: {@code ParetoSweep [file [m [n [repeats]]]]}, the defaults are
+ * {@code pareto.csv 1000 600 3}. The runtime is the minimum over the
+ * repeats. The matrices are reproducible, the random sketches are not.
+ */
+public class ParetoSweep {
+
+    enum Algorithm {
+        RAN_RANGE_FINDER, RAN_SUBSPACE_ITERATION, RAN_BLOCK_KRYLOV, APPROXIMATE_BASIS
+    }
+
+    static final String HEADER = "profile,m,n,rank,algorithm,oversampling,iterations,passes,millis,"
+            + "spectral_error,frobenius_error,optimal_spectral_error,optimal_frobenius_error,pareto";
+
+    private static final int[] RANKS = { 10, 40 };
+    private static final int[] OVERSAMPLINGS = { 5, 10, 20 };
+    private static final int[] ITERATIONS = { 0, 1, 2, 4 };
+    private static final long SEED = 42L;
+
+    static final class Result {
+        final Profile profile;
+        final int m;
+        final int n;
+        final int rank;
+        final Algorithm algorithm;
+        final int oversampling;
+        final int iterations;
+        final int passes;
+        final double millis;
+        final double spectralError;
+        final double frobeniusError;
+        final double optimalSpectralError;
+        final double optimalFrobeniusError;
+        boolean pareto;
+
+        Result(Profile profile, int m, int n, int rank, Algorithm algorithm, int oversampling, int iterations,
+                int passes, double millis, double spectralError, double frobeniusError,
+                double optimalSpectralError, double optimalFrobeniusError) {
+            this.profile = profile;
+            this.m = m;
+            this.n = n;
+            this.rank = rank;
+            this.algorithm = algorithm;
+            this.oversampling = oversampling;
+            this.iterations = iterations;
+            this.passes = passes;
+            this.millis = millis;
+            this.spectralError = spectralError;
+            this.frobeniusError = frobeniusError;
+            this.optimalSpectralError = optimalSpectralError;
+            this.optimalFrobeniusError = optimalFrobeniusError;
+        }
+
+        String toCsv() {
+            return String.format(Locale.ROOT, "%s,%d,%d,%d,%s,%d,%d,%d,%.3f,%.6e,%.6e,%.6e,%.6e,%b", profile, m, n,
+                    rank, algorithm, oversampling, iterations, passes, millis, spectralError, frobeniusError,
+                    optimalSpectralError, optimalFrobeniusError, pareto);
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path file = Paths.get((args.length > 0) ? args[0] : "pareto.csv");
+        int m = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+        int n = (args.length > 2) ? Integer.parseInt(args[2]) : 600;
+        int repeats = (args.length > 3) ? Integer.parseInt(args[3]) : 3;
+
+        List<Result> results = sweep(m, n, RANKS, OVERSAMPLINGS, ITERATIONS, repeats);
+        write(results, file);
+        System.out.println(results.size() + " configurations written to " + file.toAbsolutePath());
+    }
+
+    static List<Result> sweep(int m, int n, int[] ranks, int[] oversamplings, int[] iterations, int repeats) {
+        List<Result> results = new ArrayList<>();
+        for (Profile profile : Profile.values()) {
+            MatrixD A = profile.create(m, n, SEED);
+            double[] sigma = A.svdEcon().getS();
+            double normF = A.normF();
+            for (int rank : ranks) {
+                double tail = 0.0;
+                for (int j = rank; j < sigma.length; ++j) {
+                    tail += sigma[j] * sigma[j];
+                }
+                double optimalSpectral = (rank < sigma.length) ? sigma[rank] / sigma[0] : 0.0;
+                double optimalFrobenius = Math.sqrt(tail) / normF;
+                List<Result> group = new ArrayList<>();
+                for (Algorithm algorithm : Algorithm.values()) {
+                    for (int p : oversamplings) {
+                        for (int q : iterations) {
+                            if (!isValid(algorithm, q)) {
+                                continue;
+                            }
+                            long nanos = Long.MAX_VALUE;
+                            SVD svd = null;
+                            for (int r = 0; r < Math.max(repeats, 1); ++r) {
+                                long start = System.nanoTime();
+                                svd = run(algorithm, A, rank, p, q);
+                                nanos = Math.min(nanos, System.nanoTime() - start);
+                            }
+                            MatrixD residual = A.minus(svd.U.timesTimes(svd.S, svd.Vt));
+                            group.add(new Result(profile, m, n, rank, algorithm, p, q, passes(algorithm, q),
+                                    nanos / 1.0e6, residual.norm2() / sigma[0], residual.normF() / normF,
+                                    optimalSpectral, optimalFrobenius));
+                        }
+                    }
+                }
+                markPareto(group);
+                results.addAll(group);
+            }
+        }
+        return results;
+    }
+
+    static void write(List<Result> results, Path file) throws IOException {
+        try (Writer out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            out.write(HEADER);
+            out.write('\n');
+            for (Result r : results) {
+                out.write(r.toCsv());
+                out.write('\n');
+            }
+        }
+    }
+
+    // the algorithms' own iteration parameter q
+    private static boolean isValid(Algorithm algorithm, int q) {
+        switch (algorithm) {
+        case RAN_RANGE_FINDER:
+            return q == 0;
+        case RAN_SUBSPACE_ITERATION:
+        case RAN_BLOCK_KRYLOV:
+            return q >= 1;
+        default:
+            return q >= 0;
+        }
+    }
+
+    // passes over A incl. the projection onto the basis
+    private static int passes(Algorithm algorithm, int q) {
+        switch (algorithm) {
+        case RAN_RANGE_FINDER:
+            return 2;
+        case RAN_SUBSPACE_ITERATION:
+            // sketch, q - 1 iterations of two products, projection
+            return 2 * q;
+        case RAN_BLOCK_KRYLOV:
+            // sketch, q - 1 blocks of two products, Rayleigh-Ritz, projection
+            return 2 * q + 1;
+        default:
+            // sketch, q iterations of two products, final product, projection
+            return 2 * q + 3;
+        }
+    }
+
+    private static SVD run(Algorithm algorithm, MatrixD A, int rank, int p, int q) {
+        boolean rowSpace = A.numRows() < A.numColumns();
+        ComputeBackend backend = ComputeBackend.getDefault();
+        MatrixD Q = null;
+        switch (algorithm) {
+        case RAN_RANGE_FINDER:
+            Q = new RanRangeFinder(A, rank).setOversampling(p).computeQ();
+            break;
+        case RAN_SUBSPACE_ITERATION:
+            Q = new RanSubspaceIteration(A, rank, q).setOversampling(p).computeQ();
+            break;
+        case RAN_BLOCK_KRYLOV:
+            Q = new RanBlockKrylov(A, rank, q).setOversampling(p).computeQ();
+            break;
+        default:
+            return new ApproximateBasis(A, rank).setOversampling(p).setPowerIterations(q).computeSVD();
+        }
+        return AutoTuner.fromBasis(backend, LinearOperator.of(A), Q, rowSpace, rank);
+    }
+
+    private static void markPareto(List<Result> group) {
+        for (Result r : group) {
+            r.pareto = true;
+            for (Result s : group) {
+                if (s != r && s.millis <= r.millis && s.spectralError <= r.spectralError
+                        && (s.millis < r.millis || s.spectralError < r.spectralError)) {
+                    r.pareto = false;
+                    break;
+                }
+            }
+        }
+    }
+}
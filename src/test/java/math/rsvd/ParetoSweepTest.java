@@ -0,0 +1,67 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+import math.rsvd.ParetoSweep.Result;
+import math.rsvd.SpectralMatrices.Profile;
+
+public class ParetoSweepTest {
+
+    @Test
+    public void testSweep() throws IOException {
+        List<Result> results = ParetoSweep.sweep(120, 80, new int[] { 5 }, new int[] { 5 }, new int[] { 0, 1 }, 1);
+        // RanRangeFinder (q = 0), RanSubspaceIteration and RanBlockKrylov (q = 1),
+        // ApproximateBasis (q = 0, 1) for every profile
+        assertEquals(5 * Profile.values().length, results.size());
+        for (Profile profile : Profile.values()) {
+            boolean pareto = false;
+            for (Result r : results) {
+                if (r.profile == profile) {
+                    pareto |= r.pareto;
+                }
+            }
+            assertTrue("no Pareto optimal configuration for " + profile, pareto);
+        }
+        for (Result r : results) {
+            // no rank 5 approximation beats the truncated SVD
+            assertTrue(r.toCsv(), r.spectralError >= r.optimalSpectralError * (1.0 - 1.0e-8));
+            assertTrue(r.toCsv(), r.frobeniusError >= r.optimalFrobeniusError * (1.0 - 1.0e-8));
+            assertTrue(r.toCsv(), r.passes >= 2);
+        }
+
+        Path file = Files.createTempFile("pareto", ".csv");
+        try {
+            ParetoSweep.write(results, file);
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals(results.size() + 1, lines.size());
+            assertEquals(ParetoSweep.HEADER, lines.get(0));
+            assertEquals(ParetoSweep.HEADER.split(",").length, lines.get(1).split(",").length);
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
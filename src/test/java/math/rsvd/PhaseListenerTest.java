@@ -0,0 +1,134 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class PhaseListenerTest {
+
+    @Test
+    public void testApproximateBasisTall() {
+        checkApproximateBasis(Matrices.randomNormalD(220, 150), 20);
+    }
+
+    @Test
+    public void testApproximateBasisWide() {
+        checkApproximateBasis(Matrices.randomNormalD(150, 220), 20);
+    }
+
+    @Test
+    public void testAdaRangeFinderFast() {
+        MatrixD A = Matrices.naturalNumbersD(220, 150);
+        MetricsCollector metrics = new MetricsCollector();
+        MatrixD Q = new AdaRangeFinderFast(A).setPhaseListener(metrics).computeQ();
+
+        List<PhaseStats> stats = metrics.getStats();
+        int probeUpdates = 0;
+        int lastBasisSize = 0;
+        for (PhaseStats s : stats) {
+            if (s.phase == Phase.PROBE_UPDATE) {
+                ++probeUpdates;
+            }
+            if (s.phase == Phase.BASIS_EXTENSION) {
+                assertTrue(s.basisSize >= lastBasisSize);
+                lastBasisSize = s.basisSize;
+            }
+        }
+        // 10 probes + one matrix-vector product per probe update
+        assertEquals(10 + probeUpdates, metrics.getPasses());
+        assertEquals(Q.numColumns(), probeUpdates);
+    }
+
+    @Test
+    public void testJfrListener() {
+        // the Java 8 version warns once when jdk.jfr is available
+        final AtomicInteger warnings = new AtomicInteger();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                if (record.getLevel() == Level.WARNING) {
+                    warnings.incrementAndGet();
+                }
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(JfrPhaseListener.class.getName());
+        logger.addHandler(handler);
+        try {
+            MatrixD A = Matrices.randomNormalD(220, 150);
+            SVD svd = new ApproximateBasis(A, 20).setPhaseListener(new JfrPhaseListener()).computeSVD();
+            assertEquals(20, svd.U.numColumns());
+            new JfrPhaseListener();
+        } finally {
+            logger.removeHandler(handler);
+        }
+        boolean jfr = true;
+        try {
+            Class.forName("jdk.jfr.Event");
+        } catch (ClassNotFoundException e) {
+            jfr = false;
+        }
+        assertEquals(jfr && !JfrPhaseListener.emitsEvents() ? 1 : 0, warnings.get());
+    }
+
+    private static void checkApproximateBasis(MatrixD A, int rank) {
+        MetricsCollector metrics = new MetricsCollector();
+        SVD svd = new ApproximateBasis(A, rank).setPhaseListener(metrics).computeSVD();
+        assertEquals(rank, svd.U.numColumns());
+
+        // sketch + 9 multiplies + projection, A^T isn't materialized
+        assertEquals(11, metrics.getPasses());
+        Map<Phase, Long> nanos = metrics.getNanosPerPhase();
+        for (Phase phase : new Phase[] { Phase.SKETCH, Phase.TRANSPOSE, Phase.MULTIPLY, Phase.NORMALIZATION,
+                Phase.ORTHONORMALIZATION, Phase.PROJECTION, Phase.SMALL_SVD, Phase.RECOMBINATION }) {
+            assertTrue("missing phase " + phase, nanos.containsKey(phase));
+            assertTrue(metrics.getFlopsPerPhase().get(phase) >= 0.0);
+        }
+        assertEquals(8, count(metrics.getStats(), Phase.NORMALIZATION));
+        assertEquals(1, count(metrics.getStats(), Phase.ORTHONORMALIZATION));
+    }
+
+    private static int count(List<PhaseStats> stats, Phase phase) {
+        int count = 0;
+        for (PhaseStats s : stats) {
+            if (s.phase == phase) {
+                ++count;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class ProjectorTest {
+
+    private static final double TOLERANCE = 1.0e-10;
+
+    @Test
+    public void testBatch() {
+        MatrixD A = Matrices.randomNormalD(80, 50);
+        SVD svd = Backend.JAMU.svd(A);
+        MatrixD X = Matrices.randomNormalD(7, 50);
+        for (Backend backend : Backend.values()) {
+            Projector projector = new Projector(svd, 10, false).setBackend(backend);
+            assertEquals(10, projector.numComponents());
+            assertEquals(50, projector.dimension());
+            MatrixD expected = X.times(svd.Vt.selectSubmatrix(0, 0, 9, 49).transpose());
+            checkClose(expected, projector.project(X));
+        }
+    }
+
+    @Test
+    public void testBatchWithoutAllocation() {
+        // P^T alone would take 800 KB
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(60, 2000));
+        MatrixD X = Matrices.randomNormalD(10, 2000);
+        MatrixD Y = Matrices.createD(10, 50);
+        for (Backend backend : Backend.values()) {
+            Projector projector = new Projector(svd, 50, false).setBackend(backend);
+            // warm up
+            projector.project(X, Y);
+            long before = PhaseRecorder.allocatedBytes();
+            projector.project(X, Y);
+            long allocated = PhaseRecorder.allocatedBytes() - before;
+            if (before >= 0L) {
+                assertTrue(backend + " allocated " + allocated, allocated < 100000L);
+            }
+        }
+    }
+
+    @Test
+    public void testWhitenedFoldIn() {
+        // A * V * S^-1 = U
+        MatrixD A = Matrices.randomNormalD(80, 50);
+        SVD svd = Backend.JAMU.svd(A);
+        MatrixD Y = new Projector(svd, 10, true).project(A, Matrices.createD(80, 10));
+        checkClose(svd.U.selectSubmatrix(0, 0, 79, 9), Y);
+    }
+
+    @Test
+    public void testSingleAndSparseVectors() {
+        MatrixD A = Matrices.randomNormalD(60, 40);
+        Projector projector = new Projector(Backend.JAMU.svd(A), 8, true);
+        MatrixD X = sparse(5, 40);
+        MatrixD Y = projector.project(X);
+
+        int nnz = 0;
+        for (double x : X.getArrayUnsafe()) {
+            nnz += (x != 0.0) ? 1 : 0;
+        }
+        int[] rowPtr = new int[X.numRows() + 1];
+        int[] indices = new int[nnz];
+        double[] values = new double[nnz];
+        for (int r = 0, p = 0; r < X.numRows(); ++r) {
+            for (int c = 0; c < X.numColumns(); ++c) {
+                if (X.get(r, c) != 0.0) {
+                    indices[p] = c;
+                    values[p++] = X.get(r, c);
+                }
+            }
+            rowPtr[r + 1] = p;
+        }
+        MatrixD Ycsr = projector.project(rowPtr, indices, values, Matrices.createD(5, 8));
+        checkClose(Y, Ycsr);
+
+        double[] y = new double[8];
+        for (int r = 0; r < X.numRows(); ++r) {
+            double[] expected = Y.selectSubmatrix(r, 0, r, 7).getArrayUnsafe();
+            double[] x = X.selectSubmatrix(r, 0, r, 39).getArrayUnsafe();
+            assertArrayEquals(expected, projector.project(x, y), TOLERANCE);
+            int from = rowPtr[r];
+            int len = rowPtr[r + 1] - from;
+            int[] idx = Arrays.copyOfRange(indices, from, from + len);
+            double[] val = Arrays.copyOfRange(values, from, from + len);
+            assertArrayEquals(expected, projector.project(idx, val, len, y), TOLERANCE);
+        }
+    }
+
+    @Test
+    public void testPCA() {
+        int m = 60;
+        int n = 8;
+        MatrixD A = Matrices.randomNormalD(m, n).addBroadcastedRowVectorInplace(Matrices.randomUniformD(1, n, 1.0, 5.0));
+        PCA pca = new RandomizedPCA(A, n).computePCA();
+
+        MatrixD centered = A.copy().addBroadcastedRowVectorInplace(pca.mean.copy().scaleInplace(-1.0));
+        MatrixD expected = centered.times(pca.components.transpose());
+        checkClose(expected, new Projector(pca, false).project(A));
+
+        // whitened components have unit variance
+        MatrixD Y = new Projector(pca, true).project(A);
+        for (int j = 0; j < n; ++j) {
+            double ss = 0.0;
+            for (int i = 0; i < m; ++i) {
+                ss += Y.get(i, j) * Y.get(i, j);
+            }
+            assertEquals(1.0, ss / (m - 1), 1.0e-8);
+        }
+    }
+
+    @Test
+    public void testConcurrentReaders() throws Exception {
+        MatrixD A = Matrices.randomNormalD(100, 64);
+        final Projector projector = new Projector(Backend.JAMU.svd(A), 16, true);
+        final MatrixD X = Matrices.randomNormalD(32, 64);
+        final MatrixD expected = projector.project(X);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; ++t) {
+                results.add(pool.submit(() -> {
+                    MatrixD Y = Matrices.createD(32, 16);
+                    boolean ok = true;
+                    for (int i = 0; i < 200; ++i) {
+                        ok &= Matrices.approxEqual(projector.project(X, Y), expected, 0.0);
+                    }
+                    return ok;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongBuffer() {
+        Projector projector = new Projector(Backend.JAMU.svd(Matrices.randomNormalD(20, 10)), 5, false);
+        projector.project(Matrices.randomNormalD(3, 10), Matrices.createD(3, 4));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroSingularValue() {
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(20, 10));
+        svd.S.set(9, 9, 0.0);
+        new Projector(svd, 9, true);
+        new Projector(svd, 10, true);
+    }
+
+    private static MatrixD sparse(int rows, int cols) {
+        MatrixD X = Matrices.randomNormalD(rows, cols);
+        double[] x = X.getArrayUnsafe();
+        for (int i = 0; i < x.length; ++i) {
+            if (i % 3 != 0) {
+                x[i] = 0.0;
+            }
+        }
+        return X;
+    }
+
+    private static void checkClose(MatrixD expected, MatrixD actual) {
+        double error = actual.minus(expected).normF() / expected.normF();
+        assertTrue("relative error " + error, error < TOLERANCE);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class RandomizedPCATest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testLowRankTall() {
+        checkPCA(shiftedLowRank(220, 150, 6), 6);
+    }
+
+    @Test
+    public void testLowRankWide() {
+        checkPCA(shiftedLowRank(150, 220, 6), 6);
+    }
+
+    @Test
+    public void testNaturalNumbers() {
+        // centered this is rank 1
+        checkPCA(Matrices.naturalNumbersD(220, 150), 1);
+    }
+
+    @Test
+    public void testLargeMean() {
+        // ||A||_F^2 - m * ||mu||^2 loses all digits of the total variance
+        MatrixD A = shiftedLowRank(220, 150, 6, 1.0e8);
+        PCA pca = new RandomizedPCA(A, 6).computePCA();
+        double ratioSum = 0.0;
+        for (double ratio : pca.explainedVarianceRatio) {
+            ratioSum += ratio;
+        }
+        assertEquals(1.0, ratioSum, 1.0e-6);
+    }
+
+    private static MatrixD shiftedLowRank(int m, int n, int rank) {
+        return shiftedLowRank(m, n, rank, 10.0);
+    }
+
+    private static MatrixD shiftedLowRank(int m, int n, int rank, double shift) {
+        MatrixD A = Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+        return A.addBroadcastedRowVectorInplace(Matrices.randomUniformD(1, n, shift, 2.0 * shift));
+    }
+
+    private void checkPCA(MatrixD A, int k) {
+        PCA pca = new RandomizedPCA(A, k).computePCA();
+
+        MatrixD mean = Matrices.sumRows(A).scaleInplace(1.0 / A.numRows());
+        assertTrue("wrong mean", Matrices.approxEqual(pca.mean, mean, TOLERANCE));
+
+        // explicitly centered reference
+        MatrixD A_centered = A.plusBroadcastedRowVector(mean.uminus());
+        MatrixD V = pca.components;
+        MatrixD A_approx = A_centered.times(V.transpose()).times(V);
+        assertTrue("components should span the centered data",
+                Matrices.approxEqual(A_approx, A_centered, TOLERANCE));
+
+        double[] sigma = A_centered.singularValues();
+        double ratioSum = 0.0;
+        for (int i = 0; i < k; ++i) {
+            double expected = sigma[i] * sigma[i] / (A.numRows() - 1);
+            assertEquals(expected, pca.explainedVariance[i], expected * TOLERANCE);
+            ratioSum += pca.explainedVarianceRatio[i];
+        }
+        assertEquals(1.0, ratioSum, TOLERANCE);
+    }
+}
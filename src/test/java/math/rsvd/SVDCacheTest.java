@@ -0,0 +1,135 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class SVDCacheTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testHitAndTruncation() {
+        MatrixD A = Matrices.randomNormalD(220, 150);
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        SVD svd20 = cache.computeSVD(A, 1L, 20);
+        SVD hit = cache.computeSVD(A, 1L, 20);
+        assertNotSame(svd20, hit);
+        assertTrue(Matrices.approxEqual(svd20.U, hit.U, 0.0));
+        SVD svd10 = cache.computeSVD(A, 1L, 10);
+        assertEquals(1L, cache.getMisses());
+        assertEquals(2L, cache.getHits());
+        assertEquals(0L, cache.getExtensions());
+
+        assertEquals(10, svd10.U.numColumns());
+        assertEquals(10, svd10.S.numRows());
+        assertEquals(10, svd10.Vt.numRows());
+        assertTrue(Matrices.approxEqual(svd10.U, svd20.U.selectConsecutiveColumns(0, 9), 0.0));
+        assertEquals(svd20.S.get(9, 9), svd10.S.get(9, 9), 0.0);
+    }
+
+    @Test
+    public void testExtensionWide() {
+        checkExtension(Matrices.naturalNumbersD(150, 220));
+    }
+
+    @Test
+    public void testExtensionTall() {
+        checkExtension(Matrices.naturalNumbersD(220, 150));
+    }
+
+    @Test
+    public void testVersion() {
+        MatrixD A = Matrices.randomNormalD(100, 80);
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        cache.computeSVD(A, 1L, 10);
+        cache.computeSVD(A, 2L, 10);
+        cache.computeSVD(A, 2L, 10, Orthonormalization.CHOLESKY_QR2);
+        assertEquals(3L, cache.getMisses());
+        assertEquals(3, cache.size());
+        cache.invalidate(A);
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getBytes());
+    }
+
+    @Test
+    public void testEviction() {
+        MatrixD A = Matrices.randomNormalD(100, 80);
+        MatrixD B = Matrices.randomNormalD(100, 80);
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        cache.computeSVD(A, 1L, 10);
+        long entryBytes = cache.getBytes();
+
+        cache = new SVDCache(entryBytes);
+        cache.computeSVD(A, 1L, 10);
+        cache.computeSVD(B, 1L, 10);
+        assertEquals(1L, cache.getEvictions());
+        assertEquals(1, cache.size());
+        assertTrue(cache.getBytes() <= cache.getMaxBytes());
+        cache.computeSVD(B, 1L, 10);
+        assertEquals(1L, cache.getHits());
+        cache.computeSVD(A, 1L, 10);
+        assertEquals(3L, cache.getMisses());
+    }
+
+    @Test
+    public void testCallerMayModifyResult() {
+        MatrixD A = Matrices.randomNormalD(100, 80);
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        SVD svd = cache.computeSVD(A, 1L, 10);
+        double u00 = svd.U.get(0, 0);
+        svd.U.zeroInplace();
+        cache.computeSVD(A, 1L, 10).S.zeroInplace();
+        SVD hit = cache.computeSVD(A, 1L, 10);
+        assertEquals(u00, hit.U.get(0, 0), 0.0);
+        assertTrue(hit.S.get(0, 0) > 0.0);
+    }
+
+    @Test
+    public void testCollectedMatrix() throws InterruptedException {
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        cache.computeSVD(Matrices.randomNormalD(100, 80), 1L, 10);
+        assertEquals(1, cache.size());
+        // the matrix is unreachable now
+        for (int i = 0; i < 100 && cache.size() > 0; ++i) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        assertEquals(0, cache.size());
+        assertEquals(0L, cache.getBytes());
+    }
+
+    private static void checkExtension(MatrixD A) {
+        SVDCache cache = new SVDCache(Long.MAX_VALUE);
+        cache.computeSVD(A, 0L, 1);
+        long bytes = cache.getBytes();
+        SVD svd = cache.computeSVD(A, 0L, 2);
+        assertEquals(1L, cache.getExtensions());
+        assertEquals(1, cache.size());
+        assertTrue(cache.getBytes() > bytes);
+        assertEquals(2, svd.U.numColumns());
+        // naturalNumbers has rank 2
+        MatrixD A_approx = svd.U.timesTimes(svd.S, svd.Vt);
+        assertTrue("reconstruction of A", Matrices.approxEqual(A_approx, A, TOLERANCE));
+    }
+}
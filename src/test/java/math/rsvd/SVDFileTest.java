@@ -0,0 +1,173 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.ReadOnlyBufferException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class SVDFileTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    private Path file;
+
+    @Before
+    public void setUp() throws IOException {
+        file = Files.createTempFile("svd", ".bin");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        MatrixD A = Matrices.randomNormalD(120, 80);
+        SVD svd = new ApproximateBasis(A, 15).computeSVD();
+        SVDFile.write(file, svd, new SVDFile.Metadata("ApproximateBasis", 42L, 0.25));
+
+        SVDFile mapped = SVDFile.open(file);
+        assertEquals(15, mapped.rank());
+        assertEquals("ApproximateBasis", mapped.getMetadata().algorithm);
+        assertEquals(42L, mapped.getMetadata().seed);
+        assertEquals(0.25, mapped.getMetadata().errorEstimate, 0.0);
+        for (int i = 0; i < 15; ++i) {
+            assertEquals(svd.S.get(i, i), mapped.getSingularValues()[i], 0.0);
+        }
+        SVD copy = mapped.toSVD();
+        assertTrue(Matrices.approxEqual(copy.U, svd.U, 0.0));
+        assertTrue(Matrices.approxEqual(copy.S, svd.S, 0.0));
+        assertTrue(Matrices.approxEqual(copy.Vt, svd.Vt, 0.0));
+        assertEquals(svd.U.get(7, 3), mapped.getU().get(7, 3), 0.0);
+        assertEquals(svd.Vt.get(3, 77), mapped.getVt().get(3, 77), 0.0);
+    }
+
+    @Test
+    public void testMappedProducts() throws IOException {
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(90, 60));
+        SVDFile.write(file, svd, new SVDFile.Metadata("", 0L, Double.NaN));
+        SVDFile mapped = SVDFile.open(file);
+        assertTrue(Double.isNaN(mapped.getMetadata().errorEstimate));
+
+        // U * S * Vt straight from the page cache
+        MatrixD SVt = mapped.getS().times(mapped.getVt().getSubmatrix(0, 0, 59, 59));
+        MatrixD X = Matrices.randomNormalD(60, 4);
+        MatrixD C = Matrices.createD(90, 4);
+        mapped.getU().mult(SVt.times(X), C);
+        checkClose(svd.U.timesTimes(svd.S, svd.Vt).times(X), C);
+    }
+
+    @Test
+    public void testMultipleTiles() throws IOException {
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(50, 30));
+        SVDFile.write(file, svd, new SVDFile.Metadata("JAMU", 1L, 0.0));
+        SVDFile mapped = SVDFile.open(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // remap U in tiles of 7 columns
+            ByteBuffer header = ByteBuffer.allocate(64).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(header, 0L);
+            long uOffset = header.getLong(48);
+            DoubleBuffer[] tiles = new DoubleBuffer[5];
+            for (int t = 0; t < tiles.length; ++t) {
+                int width = Math.min(7, 30 - 7 * t);
+                tiles[t] = channel.map(FileChannel.MapMode.READ_ONLY, uOffset + 8L * 50 * 7 * t, 8L * 50 * width)
+                        .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+            OffHeapMatrix U = new OffHeapMatrix(50, 30, 7, tiles);
+            MatrixD Y = Matrices.randomNormalD(50, 3);
+            MatrixD expected = svd.U.transpose().times(Y);
+            checkClose(expected, U.transAmult(Y, Matrices.createD(30, 3)));
+            checkClose(expected, mapped.getU().transAmult(Y, Matrices.createD(30, 3)));
+        }
+    }
+
+    @Test
+    public void testStreamingWrite() throws IOException {
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(40, 25));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        SVDFile.write(Channels.newChannel(out), svd, new SVDFile.Metadata("stream", 7L, 1.0));
+        byte[] bytes = out.toByteArray();
+        Files.write(file, bytes);
+        assertEquals(Files.size(file), bytes.length);
+
+        SVD copy = SVDFile.open(file).toSVD();
+        assertTrue(Matrices.approxEqual(copy.U, svd.U, 0.0));
+        assertArrayEquals(svd.Vt.getArrayUnsafe(), copy.Vt.getArrayUnsafe(), 0.0);
+    }
+
+    @Test(expected = ReadOnlyBufferException.class)
+    public void testReadOnly() throws IOException {
+        SVDFile.write(file, Backend.JAMU.svd(Matrices.randomNormalD(10, 5)), new SVDFile.Metadata("", 0L, 0.0));
+        SVDFile.open(file).getU().set(0, 0, 1.0);
+    }
+
+    @Test
+    public void testInconsistentSVD() throws IOException {
+        SVD svd = Backend.JAMU.svd(Matrices.randomNormalD(30, 20));
+        SVDFile.write(file, svd, new SVDFile.Metadata("", 0L, 0.0));
+        byte[] bytes = Files.readAllBytes(file);
+        SVD truncated = new SVD(svd.U.selectConsecutiveColumns(0, 9), svd.S, svd.Vt);
+        try {
+            SVDFile.write(file, truncated, new SVDFile.Metadata("", 0L, 0.0));
+            fail("inconsistent SVD written");
+        } catch (IllegalArgumentException expected) {
+            // the existing file is left alone
+            assertArrayEquals(bytes, Files.readAllBytes(file));
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotAnSVDFile() throws IOException {
+        Files.write(file, new byte[100]);
+        SVDFile.open(file);
+    }
+
+    @Test(expected = IOException.class)
+    public void testTruncated() throws IOException {
+        SVDFile.write(file, Backend.JAMU.svd(Matrices.randomNormalD(30, 20)), new SVDFile.Metadata("", 0L, 0.0));
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+        SVDFile.open(file);
+    }
+
+    private static void checkClose(MatrixD expected, MatrixD actual) {
+        double error = actual.minus(expected).normF() / expected.normF();
+        assertTrue("relative error " + error, error < TOLERANCE);
+    }
+}
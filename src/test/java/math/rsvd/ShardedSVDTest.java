@@ -0,0 +1,184 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class ShardedSVDTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+    private static final int WORKERS = 3;
+
+    private static ShardedSVD sharded;
+
+    @BeforeClass
+    public static void launchWorkers() throws IOException {
+        sharded = ShardedSVD.launchLocal(WORKERS, "-Xmx256m");
+    }
+
+    @AfterClass
+    public static void closeWorkers() throws IOException {
+        if (sharded != null) {
+            sharded.close();
+        }
+    }
+
+    @Test
+    public void testLowRankTall() throws IOException {
+        int m = 700;
+        int n = 120;
+        int rank = 10;
+        MatrixD A = Matrices.randomNormalD(m, rank).times(Matrices.randomNormalD(rank, n));
+        sharded.distribute(A);
+        SVD svd = sharded.computeSVD(rank);
+        assertEquals(m, svd.U.numRows());
+        assertEquals(rank, svd.U.numColumns());
+        assertEquals(n, svd.Vt.numColumns());
+        double residual = svd.U.timesTimes(svd.S, svd.Vt).minus(A).normF() / A.normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+        checkOrthonormal(svd.U);
+        checkOrthonormal(svd.Vt.transpose());
+    }
+
+    @Test
+    public void testSingularValues() throws IOException {
+        int m = 400;
+        int n = 300;
+        MatrixD A = Matrices.randomNormalD(m, n).timesTimes(decaying(n), Matrices.randomNormalD(n, n));
+        sharded.distribute(A);
+        SVD svd = sharded.setPowerIterations(3).computeSVD(15);
+        double[] expected = A.singularValues();
+        for (int i = 0; i < 15; ++i) {
+            double error = Math.abs(svd.S.get(i, i) - expected[i]) / expected[i];
+            assertTrue("sigma_" + i + " relative error " + error, error < 1.0e-6);
+        }
+        sharded.setPowerIterations(4);
+    }
+
+    @Test
+    public void testStats() throws IOException {
+        int m = 301;
+        int n = 50;
+        MatrixD A = Matrices.randomNormalD(m, n);
+        sharded.distribute(A);
+        sharded.setPowerIterations(2).computeSVD(5);
+        sharded.setPowerIterations(4);
+
+        List<ShardStats> stats = sharded.getShardStats();
+        assertEquals(WORKERS, stats.size());
+        int rows = 0;
+        for (ShardStats s : stats) {
+            rows += s.rows;
+            assertTrue(s.rows == 100 || s.rows == 101);
+            // load + 2 per pass over A (3 passes) + recombination
+            assertEquals(1 + 2 * 3 + 1, s.requests);
+            assertTrue(s.computeNanos > 0L);
+            assertTrue(s.roundTripNanos >= s.computeNanos);
+            // the row block dominates what is sent
+            assertTrue(s.bytesSent > 8L * s.rows * n);
+            assertTrue(s.bytesReceived > 8L * n * 10);
+        }
+        assertEquals(m, rows);
+        assertTrue(sharded.getReductionNanos() > 0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooFewRows() throws IOException {
+        sharded.distribute(Matrices.randomNormalD(30, 60));
+        // l = 15 but the shards only hold 10 rows each
+        sharded.computeSVD(10);
+    }
+
+    @Test(timeout = 60000L)
+    public void testErrorReply() throws IOException {
+        InetAddress loopback = InetAddress.getLoopbackAddress();
+        try (ServerSocket failing = new ServerSocket(0, 1, loopback);
+                ServerSocket healthy = new ServerSocket(0, 1, loopback)) {
+            serveInProcess(failing, true);
+            serveInProcess(healthy, false);
+            List<InetSocketAddress> workers = Arrays.asList(new InetSocketAddress(loopback, failing.getLocalPort()),
+                    new InetSocketAddress(loopback, healthy.getLocalPort()));
+            try (ShardedSVD coordinator = ShardedSVD.connect(workers)) {
+                int rank = 5;
+                MatrixD A = Matrices.randomNormalD(200, rank).times(Matrices.randomNormalD(rank, 40));
+                try {
+                    coordinator.distribute(A);
+                    fail("the error reply of shard 0 must be reported");
+                } catch (IOException expected) {
+                    // the reply of shard 1 must have been read nevertheless
+                }
+                coordinator.distribute(A);
+                SVD svd = coordinator.computeSVD(rank);
+                double residual = svd.U.timesTimes(svd.S, svd.Vt).minus(A).normF() / A.normF();
+                assertTrue("residual " + residual, residual < TOLERANCE);
+            }
+        }
+    }
+
+    // a worker thread that optionally rejects the first request
+    private static void serveInProcess(ServerSocket server, boolean rejectFirst) {
+        Thread worker = new Thread(() -> {
+            try (Socket socket = server.accept()) {
+                if (rejectFirst) {
+                    DataInputStream in = new DataInputStream(socket.getInputStream());
+                    DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+                    in.readUnsignedByte();
+                    ShardProtocol.readMatrix(in);
+                    out.writeByte(ShardProtocol.ERROR);
+                    out.writeUTF("rejected");
+                    out.flush();
+                }
+                new ShardWorker().serve(socket);
+            } catch (IOException ignore) {
+                // the coordinator is gone
+            }
+        }, "ShardWorker-" + server.getLocalPort());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    private static MatrixD decaying(int n) {
+        double[] sigma = new double[n];
+        for (int i = 0; i < n; ++i) {
+            sigma[i] = Math.pow(0.7, i);
+        }
+        return Matrices.diagD(sigma);
+    }
+
+    private static void checkOrthonormal(MatrixD Q) {
+        MatrixD I = Matrices.identityD(Q.numColumns());
+        assertEquals(0.0, Q.transposedTimes().minus(I).normF(), TOLERANCE);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class SlidingWindowSketchTest {
+
+    private static final double TOLERANCE = 1.0e-8;
+
+    @Test
+    public void testOldRowsExpire() {
+        int n = 50;
+        int k = 3;
+        MatrixD V1 = Matrices.randomNormalD(k, n);
+        MatrixD V2 = Matrices.randomNormalD(k, n);
+        MatrixD old = Matrices.randomNormalD(2000, k).times(V1);
+        MatrixD recent = Matrices.randomNormalD(1000, k).times(V2);
+
+        SlidingWindowSketch window = new SlidingWindowSketch(n, 10, 1000L, 10);
+        window.update(old);
+        for (int i = 0; i < recent.numRows(); i += 7) {
+            window.update(recent.selectSubmatrix(i, 0, Math.min(i + 6, recent.endRow()), n - 1));
+        }
+        assertEquals(1000L, window.getWindowRows());
+
+        // the top k right singular vectors must span the row space of V2
+        SVD svd = window.computeSVD(k);
+        MatrixD V2_orth = V2.transpose().qrd().getQ();
+        MatrixD P = V2_orth.transBmult(V2_orth, Matrices.createD(n, n));
+        MatrixD Vt = svd.Vt;
+        double residual = Vt.minus(Vt.times(P)).normF();
+        assertTrue("residual " + residual, residual < TOLERANCE);
+    }
+
+    @Test
+    public void testWindowBound() {
+        // W isn't a multiple of the block size (51), a window that only
+        // expires on completed blocks would cover up to W + 2 * 51 - 2 rows
+        int n = 5;
+        SlidingWindowSketch window = new SlidingWindowSketch(n, 4, 401L, 8);
+        MatrixD A = Matrices.randomNormalD(1200, n);
+        for (int i = 0; i < A.numRows(); i += 3) {
+            window.update(A.selectSubmatrix(i, 0, i + 2, n - 1));
+            long covered = window.getWindowRows();
+            assertTrue("covered " + covered, covered >= Math.min(i + 3, 401) && covered < 401 + window.getBlockSize());
+        }
+    }
+
+    @Test
+    public void testWindowCovariance() {
+        int n = 40;
+        int l = 12;
+        MatrixD A = Matrices.randomNormalD(1500, n);
+        SlidingWindowSketch window = new SlidingWindowSketch(n, l, 400L, 8);
+        double[] row = new double[n];
+        for (int i = 0; i < A.numRows(); ++i) {
+            for (int j = 0; j < n; ++j) {
+                row[j] = A.get(i, j);
+            }
+            window.update(row);
+            long covered = window.getWindowRows();
+            assertTrue(covered >= Math.min(i + 1, 400) && covered < 400 + window.getBlockSize());
+        }
+        long covered = window.getWindowRows();
+        MatrixD A_W = A.selectSubmatrix(A.numRows() - (int) covered, 0, A.endRow(), n - 1);
+        MatrixD B = window.getSketch();
+        double error = A_W.transposedTimes().minus(B.transposedTimes()).norm2();
+        double shrinkage = window.shrinkage();
+        assertTrue("error " + error + " > shrinkage " + shrinkage, error <= shrinkage * (1.0 + TOLERANCE));
+        double normF = A_W.normF();
+        assertTrue(shrinkage <= 2.0 * normF * normF / l);
+    }
+}
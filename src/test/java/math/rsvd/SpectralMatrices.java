@@ -0,0 +1,172 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import java.util.Random;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Test matrices {@code A = U * diag(sigma) * V^T} with a prescribed singular
+ * value profile and random orthonormal {@code U}, {@code V}. The same seed
+ * always gives the same matrix.
+ */
+public final class SpectralMatrices {
+
+    /**
+     * The singular value profiles, all normalized to {@code sigma_1 = 1}.
+     */
+    public enum Profile {
+        /** {@code sigma_j = 0.8^j} */
+        EXPONENTIAL {
+            @Override
+            public MatrixD create(int m, int n, long seed) {
+                return withSpectrum(m, n, exponential(Math.min(m, n), 0.8), seed);
+            }
+        },
+        /** {@code sigma_j = 1 / (j + 1)} */
+        POLYNOMIAL {
+            @Override
+            public MatrixD create(int m, int n, long seed) {
+                return withSpectrum(m, n, polynomial(Math.min(m, n), 1.0), seed);
+            }
+        },
+        /** 20 singular values of 1, then {@code 10^-3} */
+        STEP {
+            @Override
+            public MatrixD create(int m, int n, long seed) {
+                return withSpectrum(m, n, step(Math.min(m, n), 20, 1.0e-3), seed);
+            }
+        },
+        /** Rank 20 plus Gaussian noise with a spectral norm of about 0.1 */
+        NOISY_LOW_RANK {
+            @Override
+            public MatrixD create(int m, int n, long seed) {
+                return noisyLowRank(m, n, 20, 0.05, seed);
+            }
+        };
+
+        /**
+         * Creates a matrix with this profile.
+         *
+         * @param m
+         *            the number of rows
+         * @param n
+         *            the number of columns
+         * @param seed
+         *            the random seed
+         * @return the matrix
+         */
+        public abstract MatrixD create(int m, int n, long seed);
+    }
+
+    private SpectralMatrices() {
+        throw new AssertionError();
+    }
+
+    /** {@code sigma_j = rate^j} */
+    public static double[] exponential(int count, double rate) {
+        double[] sigma = new double[count];
+        for (int j = 0; j < count; ++j) {
+            sigma[j] = Math.pow(rate, j);
+        }
+        return sigma;
+    }
+
+    /** {@code sigma_j = (j + 1)^-exponent} */
+    public static double[] polynomial(int count, double exponent) {
+        double[] sigma = new double[count];
+        for (int j = 0; j < count; ++j) {
+            sigma[j] = Math.pow(j + 1.0, -exponent);
+        }
+        return sigma;
+    }
+
+    /** {@code sigma_j = 1} for {@code j < rank}, {@code low} otherwise */
+    public static double[] step(int count, int rank, double low) {
+        double[] sigma = new double[count];
+        for (int j = 0; j < count; ++j) {
+            sigma[j] = (j < rank) ? 1.0 : low;
+        }
+        return sigma;
+    }
+
+    /**
+     * Returns {@code U * diag(sigma) * V^T} for random {@code m x r} and
+     * {@code n x r} matrices {@code U}, {@code V} with orthonormal columns
+     * where {@code r = min(sigma.length, m, n)}.
+     *
+     * @param m
+     *            the number of rows
+     * @param n
+     *            the number of columns
+     * @param sigma
+     *            the singular values in descending order
+     * @param seed
+     *            the random seed
+     * @return the matrix
+     */
+    public static MatrixD withSpectrum(int m, int n, double[] sigma, long seed) {
+        int r = Math.min(sigma.length, Math.min(m, n));
+        Random rnd = new Random(seed);
+        MatrixD U = gaussian(m, r, rnd).qrd().getQ();
+        MatrixD V = gaussian(n, r, rnd).qrd().getQ();
+        double[] u = U.getArrayUnsafe();
+        for (int j = 0; j < r; ++j) {
+            for (int i = j * m; i < (j + 1) * m; ++i) {
+                u[i] *= sigma[j];
+            }
+        }
+        return U.transBmult(V, Matrices.createD(m, n));
+    }
+
+    /**
+     * Returns a rank {@code rank} matrix with unit singular values plus
+     * Gaussian noise whose spectral norm is about {@code 2 * noise}.
+     *
+     * @param m
+     *            the number of rows
+     * @param n
+     *            the number of columns
+     * @param rank
+     *            the rank of the signal
+     * @param noise
+     *            the noise level
+     * @param seed
+     *            the random seed
+     * @return the matrix
+     */
+    public static MatrixD noisyLowRank(int m, int n, int rank, double noise, long seed) {
+        MatrixD A = withSpectrum(m, n, step(rank, rank, 0.0), seed);
+        Random rnd = new Random(seed + 1L);
+        double scale = noise / Math.sqrt(Math.max(m, n));
+        double[] a = A.getArrayUnsafe();
+        for (int i = 0; i < a.length; ++i) {
+            a[i] += scale * rnd.nextGaussian();
+        }
+        return A;
+    }
+
+    private static MatrixD gaussian(int rows, int cols, Random rnd) {
+        MatrixD G = Matrices.createD(rows, cols);
+        double[] g = G.getArrayUnsafe();
+        for (int i = 0; i < g.length; ++i) {
+            g[i] = rnd.nextGaussian();
+        }
+        return G;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import math.rsvd.SpectralMatrices.Profile;
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+public class SpectralMatricesTest {
+
+    private static final double TOLERANCE = 1.0e-12;
+
+    @Test
+    public void testWithSpectrumTall() {
+        checkSpectrum(120, 80, SpectralMatrices.polynomial(80, 1.5));
+    }
+
+    @Test
+    public void testWithSpectrumWide() {
+        checkSpectrum(80, 120, SpectralMatrices.exponential(80, 0.7));
+    }
+
+    @Test
+    public void testLowRank() {
+        double[] sigma = SpectralMatrices.step(10, 10, 0.0);
+        MatrixD A = SpectralMatrices.withSpectrum(120, 80, sigma, 1L);
+        double[] s = A.svdEcon().getS();
+        assertEquals(1.0, s[9], TOLERANCE);
+        assertEquals(0.0, s[10], TOLERANCE);
+    }
+
+    @Test
+    public void testReproducible() {
+        for (Profile profile : Profile.values()) {
+            MatrixD A = profile.create(60, 40, 7L);
+            MatrixD B = profile.create(60, 40, 7L);
+            assertTrue(profile.toString(), Matrices.approxEqual(A, B, 0.0));
+            assertEquals(profile.toString(), 1.0, A.norm2(), 0.2);
+        }
+    }
+
+    @Test
+    public void testNoisyLowRank() {
+        double[] s = SpectralMatrices.noisyLowRank(300, 200, 20, 0.05, 3L).svdEcon().getS();
+        // the signal stands out of the noise
+        assertTrue(s[19] > 0.8);
+        assertTrue(s[20] < 0.15);
+    }
+
+    private static void checkSpectrum(int m, int n, double[] sigma) {
+        MatrixD A = SpectralMatrices.withSpectrum(m, n, sigma, 42L);
+        assertEquals(m, A.numRows());
+        assertEquals(n, A.numColumns());
+        assertArrayEquals(sigma, A.svdEcon().getS(), TOLERANCE);
+    }
+}
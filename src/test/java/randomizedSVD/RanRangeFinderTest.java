@@ -15,6 +15,8 @@
  */
 package randomizedSVD;
 
+import static org.junit.Assert.assertEquals;
+
 import net.jamu.matrix.Matrices;
 import net.jamu.matrix.MatrixD;
 
@@ -87,6 +89,14 @@ public class RanRangeFinderTest {
         Checks.checkSVD(B, Q, A, TOLERANCE);
     }
 
+    @Test
+    public void testOversampling() {
+        MatrixD A = Matrices.naturalNumbersD(m, n);
+        MatrixD Q = new RanRangeFinder(A, 2).setOversampling(3).computeQ();
+        assertEquals(5, Q.numColumns());
+        Checks.checkFactorization(Q, A, TOLERANCE);
+    }
+
     private MatrixD getQ(MatrixD A, int estimatedRank) {
         return new RanRangeFinder(A, estimatedRank).computeQ();
     }
@@ -91,6 +91,26 @@ public class RanSubspaceIterationTest {
         Checks.checkSVD(B, Q, A, TOLERANCE);
     }
 
+    @Test
+    public void testWarmStartTall() {
+        checkWarmStart(Matrices.naturalNumbersD(m, n));
+    }
+
+    @Test
+    public void testWarmStartWide() {
+        checkWarmStart(Matrices.naturalNumbersD(n, m));
+    }
+
+    private void checkWarmStart(MatrixD A) {
+        MatrixD Q0 = getQ(A, 2, q);
+        // a rank 1 update
+        MatrixD A_new = A.plus(Matrices.randomUniformD(A.numRows(), 1, 0.0, 0.1)
+                .times(Matrices.randomUniformD(1, A.numColumns(), 0.0, 0.1)));
+        MatrixD Q = new RanSubspaceIteration(A_new, 3, 1).computeQ(Q0);
+        MatrixD B = Checks.checkFactorization(Q, A_new, TOLERANCE);
+        Checks.checkSVD(B, Q, A_new, TOLERANCE);
+    }
+
     private MatrixD getQ(MatrixD A, int estimatedRank, int q) {
         return new RanSubspaceIteration(A, estimatedRank, q).computeQ();
     }
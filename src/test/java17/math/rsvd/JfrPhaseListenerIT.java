@@ -0,0 +1,65 @@
+/*
+ * Copyright 2026 Stefan Zobel
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package math.rsvd;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import net.jamu.matrix.Matrices;
+import net.jamu.matrix.MatrixD;
+
+/**
+ * Checks that the {@link JfrPhaseListener} from the multi-release jar emits
+ * events (the one from the Java 8 tree doesn't).
+ */
+public class JfrPhaseListenerIT {
+
+    @Test
+    public void testEvents() throws IOException {
+        assertTrue(JfrPhaseListener.emitsEvents());
+        Path file = Files.createTempFile("rsvd", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("math.rsvd.Phase");
+                recording.start();
+                MatrixD A = Matrices.randomNormalD(220, 150);
+                SVD svd = new ApproximateBasis(A, 20).setPhaseListener(new JfrPhaseListener()).computeSVD();
+                assertEquals(20, svd.U.numColumns());
+                recording.stop();
+                recording.dump(file);
+            }
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertFalse(events.isEmpty());
+            for (RecordedEvent event : events) {
+                assertEquals("math.rsvd.Phase", event.getEventType().getName());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+}